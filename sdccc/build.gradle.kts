@@ -117,6 +117,12 @@ tasks.test {
     maxParallelForks = (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1)
 }
 
+tasks.register<JavaExec>("benchmarkHistorianCreation") {
+    description = "Measures the cost of creating MdibHistorian instances, not part of the unit tests."
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("com.draeger.medical.sdccc.tests.util.MdibHistorianCreationBenchmark")
+}
+
 val testsJar by tasks.registering(Jar::class) {
     archiveClassifier.set("tests")
     from(sourceSets["test"].output)
@@ -18,14 +18,24 @@ import com.draeger.medical.sdccc.configuration.TestParameterConfig;
 import com.draeger.medical.sdccc.configuration.TestRunConfig;
 import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.guice.TomlConfigParser;
+import com.draeger.medical.sdccc.manipulation.GRpcManipulations;
+import com.draeger.medical.sdccc.manipulation.Manipulations;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
+import com.draeger.medical.sdccc.messages.DataAvailabilityCatalog;
 import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.util.DataCollectionGoal;
+import com.draeger.medical.sdccc.tests.util.DecodedMessageCache;
+import com.draeger.medical.sdccc.tests.util.MdibHistorian;
+import com.draeger.medical.sdccc.tests.util.MdibHistoryReplayCache;
+import com.draeger.medical.sdccc.tests.util.MessageDecodingService;
+import com.draeger.medical.sdccc.tests.util.OnlineHistoryRecorder;
 import com.draeger.medical.sdccc.tests.util.PreconditionFilter;
 import com.draeger.medical.sdccc.tests.util.TestDescriptionFilter;
 import com.draeger.medical.sdccc.tests.util.TestEnabledFilter;
+import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.LoggingConfigurator;
 import com.draeger.medical.sdccc.util.LoggingOutputStream;
 import com.draeger.medical.sdccc.util.MessageGeneratingUtil;
@@ -35,6 +45,7 @@ import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.sdccc.util.TriggerOnErrorOrWorseLogAppender;
 import com.draeger.medical.sdccc.util.junit.XmlReportListener;
 import com.draeger.medical.sdccc.util.junit.guice.XmlReportFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
@@ -56,6 +67,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
@@ -96,6 +110,8 @@ import org.somda.sdc.glue.common.WsdlConstants;
 public class TestSuite {
     private static final Logger LOG = LogManager.getLogger(TestSuite.class);
     private static final Duration MAX_WAIT = Duration.ofSeconds(10);
+    // maximum time messages are held back by the storage while collecting data adaptively
+    private static final Duration DATA_COLLECTION_FLUSH_INTERVAL = Duration.ofSeconds(1);
     private static final String SUFFIX_DIRECT = ".direct";
     private static final String SUFFIX_INVARIANT = ".invariant";
 
@@ -109,6 +125,12 @@ public class TestSuite {
     private final TestClient client;
     private final boolean testExecutionLogging;
 
+    @Nullable
+    private ScheduledExecutorService onlineHistoryRecordingExecutor;
+
+    @Nullable
+    private MdibHistorian onlineHistorian;
+
     /**
      * Used by the main injector to create a TestSuite instance.
      * It is also useful for extending the TestSuite class.
@@ -152,9 +174,9 @@ public class TestSuite {
      * @return number of failed tests during the run
      */
     public long runTestSuite() {
-        final var directTests = collectEnabledTests(SUFFIX_DIRECT);
-        final var invariantTests =
-                collectEnabledTests(SUFFIX_INVARIANT, injector.getInstance(PreconditionFilter.class));
+        final var directTests = collectEnabledTests(SUFFIX_DIRECT, Map.of());
+        final var invariantTests = collectEnabledTests(
+                SUFFIX_INVARIANT, getInvariantExecutionParameters(), injector.getInstance(PreconditionFilter.class));
 
         final OutputStream consoleOutput = new LoggingOutputStream(LOG, Level.INFO, StandardCharsets.UTF_8);
         final PrintWriter outWriter = new PrintWriter(consoleOutput, false, StandardCharsets.UTF_8);
@@ -218,6 +240,15 @@ public class TestSuite {
             testRunObserver.invalidateTestRun("Could not stop the test client", e);
         }
 
+        if (injector.getInstance(Manipulations.class) instanceof final GRpcManipulations grpcManipulations) {
+            grpcManipulations.shutdown();
+        }
+
+        // the decoding service is only created if a historian has been used
+        if (client.getInjector().getExistingBinding(Key.get(MessageDecodingService.class)) != null) {
+            client.getInjector().getInstance(MessageDecodingService.class).shutdown();
+        }
+
         injector.getInstance(MessageStorage.class).close();
 
         if (testRunObserver.isInvalid()) {
@@ -238,13 +269,28 @@ public class TestSuite {
         } catch (final TimeoutException e) {
             testRunObserver.invalidateTestRun("Could not stop the test client", e);
         }
+        stopOnlineHistoryRecording();
 
         // flush all data so invariant tests run on most current data
         injector.getInstance(MessageStorage.class).flush();
 
-        final long result =
-                phase2(totalTestFailures, outWriter, invariantTestLauncher, invariantTestPlan, invariantSummary);
+        // no further messages are received, invariant tests can share the replayed mdib histories
+        final var replayCache = client.getInjector().getInstance(MdibHistoryReplayCache.class);
+        replayCache.enable();
+        finishOnlineHistoryRecording();
+        final long result;
+        final var invariantStart = System.nanoTime();
+        try {
+            result = phase2(totalTestFailures, outWriter, invariantTestLauncher, invariantTestPlan, invariantSummary);
+        } finally {
+            LOG.info("Invariant tests took {}", Duration.ofNanos(System.nanoTime() - invariantStart));
+            LOG.info("Mdib history replay statistics: {}", replayCache.getStats());
+            replayCache.disable();
+        }
         LOG.debug("Had total failures of {}", totalTestFailures);
+        LOG.info(
+                "Decoded message cache statistics: {}",
+                client.getInjector().getInstance(DecodedMessageCache.class).getStats());
         return result;
     }
 
@@ -285,14 +331,75 @@ public class TestSuite {
     private void phase1() {
         performBasicMessagingCheck();
 
-        LOG.info("Waiting for {} to collect data.", this.minCollectDataTime);
+        final boolean adaptiveDataCollection =
+                injector.getInstance(Key.get(Boolean.class, Names.named(TestSuiteConfig.ADAPTIVE_DATA_COLLECTION)));
         try {
-            Thread.sleep(this.minCollectDataTime.toMillis());
+            if (adaptiveDataCollection) {
+                collectRequiredData();
+            } else {
+                LOG.info("Waiting for {} to collect data.", this.minCollectDataTime);
+                Thread.sleep(this.minCollectDataTime.toMillis());
+            }
         } catch (final InterruptedException e) {
             LOG.error("", e);
         }
     }
 
+    /**
+     * Collects data until the data required by the enabled invariant tests has been received, at most for the
+     * minimum amount of time to collect data.
+     *
+     * <p>
+     * The requirements are evaluated using the {@linkplain DataAvailabilityCatalog} whenever it has counted further
+     * inbound messages. Messages are counted once the storage writes them to the database, which happens in batches,
+     * the storage is therefore flushed if no message has been counted for a while. Requirements which are still
+     * missing are logged halfway through the collection, so that slow devices are noticed early, and once the
+     * collection ends.
+     *
+     * @throws InterruptedException if interrupted while waiting for messages
+     */
+    private void collectRequiredData() throws InterruptedException {
+        final var messageStorage = injector.getInstance(MessageStorage.class);
+        final DataAvailabilityCatalog catalog = messageStorage.getDataAvailabilityCatalog();
+        final var goal = injector.getInstance(DataCollectionGoal.class);
+        LOG.info(
+                "Collecting data for at most {} until the data required by the enabled tests has been received: {}",
+                this.minCollectDataTime,
+                goal.getRequirements());
+
+        final long start = System.nanoTime();
+        final long end = start + this.minCollectDataTime.toNanos();
+        long halfway = start + this.minCollectDataTime.toNanos() / 2;
+        var missingData = goal.getMissingData(catalog);
+        long now = System.nanoTime();
+        while (!missingData.isEmpty() && now < end) {
+            if (now >= halfway) {
+                LOG.warn(
+                        "Data required by the enabled tests has not been received within {}: {}",
+                        Duration.ofNanos(now - start),
+                        missingData);
+                halfway = end;
+            }
+            final long countedMessages = catalog.getCountedInboundMessages();
+            final long timeout = Math.min(Math.min(end, halfway) - now, DATA_COLLECTION_FLUSH_INTERVAL.toNanos());
+            if (!catalog.awaitInboundMessages(countedMessages, Duration.ofNanos(timeout))) {
+                // count the messages held back by the storage
+                messageStorage.flush();
+            }
+            missingData = goal.getMissingData(catalog);
+            now = System.nanoTime();
+        }
+        if (missingData.isEmpty()) {
+            LOG.info("Data required by the enabled tests has been received within {}", Duration.ofNanos(now - start));
+        } else {
+            LOG.warn(
+                    "Data required by the enabled tests has not been received within {}, preconditions will"
+                            + " trigger it if possible: {}",
+                    this.minCollectDataTime,
+                    missingData);
+        }
+    }
+
     /**
      * Sends all SDC service messages to all SDC services available on the connected provider.
      * NOTE: The Basic Message Check should not interrupt test suite execution.
@@ -373,6 +480,82 @@ public class TestSuite {
         LOG.info("SDC Basic Messaging Check completed" + statusline + ".");
     }
 
+    private void enableReportPreDecoding() {
+        final boolean preDecodeReports = injector.getInstance(
+                Key.get(Boolean.class, Names.named(TestSuiteConfig.DECODED_MESSAGE_CACHE_PRE_DECODE)));
+        if (preDecodeReports) {
+            LOG.info("Reports are decoded while messages are being collected");
+            final DecodedMessageCache decodedMessageCache =
+                    client.getInjector().getInstance(DecodedMessageCache.class);
+            injector.getInstance(MessageStorage.class).addIngestListener(decodedMessageCache::preDecode);
+        }
+    }
+
+    private void startOnlineHistoryRecording() {
+        final boolean onlineHistoryRecording = injector.getInstance(
+                Key.get(Boolean.class, Names.named(TestSuiteConfig.ONLINE_HISTORY_RECORDING)));
+        if (!onlineHistoryRecording) {
+            return;
+        }
+        final long intervalSeconds = injector.getInstance(
+                Key.get(Long.class, Names.named(TestSuiteConfig.ONLINE_HISTORY_RECORDING_INTERVAL_SECONDS)));
+        LOG.info("Mdib histories are recorded every {} seconds while messages are being collected", intervalSeconds);
+
+        final var messageStorage = injector.getInstance(MessageStorage.class);
+        final var recorder = client.getInjector().getInstance(OnlineHistoryRecorder.class);
+        final var historian = client.getInjector()
+                .getInstance(MdibHistorianFactory.class)
+                .createMdibHistorian(messageStorage, testRunObserver);
+        messageStorage.addIngestListener(recorder::onIngest);
+
+        final var executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("OnlineHistoryRecorder-thread-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        recorder.update(messageStorage, historian);
+                    } catch (final RuntimeException e) {
+                        // an exception would cancel all further updates, the histories are replayed again instead
+                        LOG.error("Error occurred while recording mdib histories", e);
+                    }
+                },
+                intervalSeconds,
+                intervalSeconds,
+                TimeUnit.SECONDS);
+        onlineHistoryRecordingExecutor = executor;
+        onlineHistorian = historian;
+    }
+
+    private void stopOnlineHistoryRecording() {
+        final var executor = onlineHistoryRecordingExecutor;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(MAX_WAIT.toSeconds(), TimeUnit.SECONDS)) {
+                LOG.warn("Recording of mdib histories did not finish in time");
+            }
+        } catch (final InterruptedException e) {
+            LOG.warn("Interrupted while waiting for the recording of mdib histories to finish", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void finishOnlineHistoryRecording() {
+        final var historian = onlineHistorian;
+        if (historian == null) {
+            return;
+        }
+        client.getInjector()
+                .getInstance(OnlineHistoryRecorder.class)
+                .finish(injector.getInstance(MessageStorage.class), historian);
+        onlineHistoryRecordingExecutor = null;
+        onlineHistorian = null;
+    }
+
     private void startClient() {
         LOG.info("Starting TestSuite Client");
         try {
@@ -383,6 +566,9 @@ public class TestSuite {
             throw new RuntimeException(e);
         }
 
+        enableReportPreDecoding();
+        startOnlineHistoryRecording();
+
         try {
             client.connect();
         } catch (final InterceptorException | TransportException | IOException e) {
@@ -398,13 +584,46 @@ public class TestSuite {
                                 service.getType().getTypes().contains(WsdlConstants.PORT_TYPE_ARCHIVE_QNAME)));
     }
 
+    /**
+     * Creates the JUnit configuration parameters for executing the invariant tests.
+     *
+     * <p>
+     * Invariant tests only read from the flushed storage, so test classes can be executed concurrently. Tests within
+     * a class are executed on the same thread, as they may rely on being executed one after another.
+     *
+     * @return configuration parameters enabling parallel execution if configured, empty otherwise
+     */
+    private Map<String, String> getInvariantExecutionParameters() {
+        final long parallelism =
+                injector.getInstance(Key.get(Long.class, Names.named(TestSuiteConfig.TEST_CLASS_PARALLELISM)));
+        if (parallelism <= 1) {
+            return Map.of();
+        }
+        LOG.info("Executing up to {} invariant test classes in parallel", parallelism);
+        return Map.of(
+                "junit.jupiter.execution.parallel.enabled",
+                "true",
+                "junit.jupiter.execution.parallel.mode.default",
+                "same_thread",
+                "junit.jupiter.execution.parallel.mode.classes.default",
+                "concurrent",
+                "junit.jupiter.execution.parallel.config.strategy",
+                "fixed",
+                "junit.jupiter.execution.parallel.config.fixed.parallelism",
+                String.valueOf(parallelism));
+    }
+
     /**
      * Collect all enabled tests with the passed suffix.
      *
-     * @param suffix the final part of the package path to search through, i.e. ".invariant"
+     * @param suffix                  the final part of the package path to search through, i.e. ".invariant"
+     * @param configurationParameters JUnit configuration parameters for executing the tests
      * @return launcher request loadable in a {@linkplain Launcher}
      */
-    private LauncherDiscoveryRequest collectEnabledTests(final String suffix, final PostDiscoveryFilter... filters) {
+    private LauncherDiscoveryRequest collectEnabledTests(
+            final String suffix,
+            final Map<String, String> configurationParameters,
+            final PostDiscoveryFilter... filters) {
         final var packages = new ArrayList<PackageSelector>();
         for (final var base : sdcTestDirectories) {
             packages.add(selectPackage(base + suffix));
@@ -412,7 +631,8 @@ public class TestSuite {
 
         final var tests = LauncherDiscoveryRequestBuilder.request()
                 .selectors(packages)
-                .filters(injector.getInstance(TestEnabledFilter.class), new TestDescriptionFilter());
+                .filters(injector.getInstance(TestEnabledFilter.class), new TestDescriptionFilter())
+                .configurationParameters(configurationParameters);
         if (filters.length > 0) {
             // cast to ensure all elements are listed, not just the first
             LOG.debug("Registering additional test filters {}", (Object) filters);
@@ -29,6 +29,9 @@ public class DefaultTestSuiteConfig extends AbstractConfigurationModule {
     };
 
     private static final int BUFFER_SIZE = 100;
+    private static final long DECODED_MESSAGE_CACHE_MAX_ENTRIES = 10000L;
+    private static final long DECODED_MESSAGE_CACHE_MAX_WEIGHT = 256L * 1024L * 1024L;
+    private static final long CHECKPOINT_INTERVAL_REPORTS = 1000L;
 
     @Override
     protected void defaultConfigure() {
@@ -38,6 +41,7 @@ public class DefaultTestSuiteConfig extends AbstractConfigurationModule {
         configureGRpc();
         configureInternalSettings();
         configureCommlogSettings();
+        configureInvariantSettings();
     }
 
     void configureTestSuite() {
@@ -50,6 +54,8 @@ public class DefaultTestSuiteConfig extends AbstractConfigurationModule {
         bind(TestSuiteConfig.ENABLE_MESSAGE_ENCODING_CHECK, Boolean.class, true);
         bind(TestSuiteConfig.SUMMARIZE_MESSAGE_ENCODING_ERRORS, Boolean.class, true);
         bind(TestSuiteConfig.MIN_COLLECT_DATA_TIME, long.class, 10L);
+        bind(TestSuiteConfig.ADAPTIVE_DATA_COLLECTION, Boolean.class, false);
+        bind(TestSuiteConfig.PRECONDITION_CHECK_THREADS, long.class, 0L);
         bind(Constants.CONFIGURATION_MODULE, AbstractConfigurationModule.class, new AbstractConfigurationModule() {
             @Override
             protected void defaultConfigure() {}
@@ -95,4 +101,22 @@ public class DefaultTestSuiteConfig extends AbstractConfigurationModule {
     protected void configureCommlogSettings() {
         bind(TestSuiteConfig.COMMLOG_MESSAGE_BUFFER_SIZE, int.class, BUFFER_SIZE);
     }
+
+    protected void configureInvariantSettings() {
+        bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES, long.class, DECODED_MESSAGE_CACHE_MAX_ENTRIES);
+        bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT, long.class, DECODED_MESSAGE_CACHE_MAX_WEIGHT);
+        bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_SOFT_VALUES, Boolean.class, false);
+        bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_PRE_DECODE, Boolean.class, false);
+        bind(TestSuiteConfig.DECODING_THREADS, long.class, 0L);
+        bind(TestSuiteConfig.CHECKPOINT_INTERVAL_REPORTS, long.class, CHECKPOINT_INTERVAL_REPORTS);
+        bind(TestSuiteConfig.CHECKPOINT_INTERVAL_SECONDS, long.class, 0L);
+        bind(TestSuiteConfig.SEQUENCE_REPLAY_THREADS, long.class, 1L);
+        bind(TestSuiteConfig.DECODE_AHEAD_REPORTS, Boolean.class, true);
+        bind(TestSuiteConfig.COPY_FREE_REPLAYS, Boolean.class, true);
+        bind(TestSuiteConfig.VERIFY_REPLAY_IMMUTABILITY, Boolean.class, false);
+        bind(TestSuiteConfig.TEST_CLASS_PARALLELISM, long.class, 1L);
+        bind(TestSuiteConfig.ONLINE_HISTORY_RECORDING, Boolean.class, false);
+        bind(TestSuiteConfig.ONLINE_HISTORY_RECORDING_INTERVAL_SECONDS, long.class, 60L);
+        bind(TestSuiteConfig.ONLINE_HISTORY_RECORDING_MAX_REPORTS, long.class, 100000L);
+    }
 }
@@ -20,9 +20,9 @@ open class TestParameterConfig {
         private const val TEST_PARAMETER = "TestParameter."
 
         /**
-         * Test parameter for biceps:5-4-7 tests. Time interval in seconds to pause between the SetMetricStatus
-         * manipulation calls. The report that follows a SetMetricStatus manipulation is expected
-         * within the time interval.
+         * Test parameter for biceps:5-4-7 tests. Time interval in seconds to wait at most for the report that
+         * follows a SetMetricStatus manipulation. The report is expected within the time interval, and the metric is
+         * not manipulated again before it has elapsed.
          */
         const val BICEPS_547_TIME_INTERVAL: String = TEST_PARAMETER + "Biceps547TimeInterval"
     }
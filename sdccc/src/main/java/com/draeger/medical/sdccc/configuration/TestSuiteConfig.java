@@ -25,6 +25,10 @@ public final class TestSuiteConfig {
     public static final String SUMMARIZE_MESSAGE_ENCODING_ERRORS = SDCCC + "SummarizeMessageEncodingErrors";
     public static final String ENABLE_MESSAGE_ENCODING_CHECK = SDCCC + "EnableMessageEncodingCheck";
     public static final String MIN_COLLECT_DATA_TIME = SDCCC + "MinCollectDataTime";
+    // collect data until the data required by the enabled tests has been received, at most MinCollectDataTime
+    public static final String ADAPTIVE_DATA_COLLECTION = SDCCC + "AdaptiveDataCollection";
+    // threads checking preconditions concurrently, one per logical processor if not positive
+    public static final String PRECONDITION_CHECK_THREADS = SDCCC + "PreconditionCheckThreads";
     /*
      * TLS configuration
      */
@@ -71,6 +75,40 @@ public final class TestSuiteConfig {
     // note, that the actual size will be (this * (thread count + 1))
     public static final String COMMLOG_MESSAGE_BUFFER_SIZE = SDCCC + COMMLOG + "BufferSize";
 
+    /*
+     * Invariant test configuration
+     */
+    private static final String INVARIANT = "Invariant.";
+    public static final String DECODED_MESSAGE_CACHE_MAX_ENTRIES = SDCCC + INVARIANT + "DecodedMessageCacheMaxEntries";
+    // summed length of all cached message bodies, takes precedence over the maximum number of entries if positive
+    public static final String DECODED_MESSAGE_CACHE_MAX_WEIGHT = SDCCC + INVARIANT + "DecodedMessageCacheMaxWeight";
+    public static final String DECODED_MESSAGE_CACHE_SOFT_VALUES = SDCCC + INVARIANT + "DecodedMessageCacheSoftValues";
+    public static final String DECODED_MESSAGE_CACHE_PRE_DECODE = SDCCC + INVARIANT + "PreDecodeReports";
+    // number of threads used for decoding messages in parallel, the number of logical processors if not positive
+    public static final String DECODING_THREADS = SDCCC + INVARIANT + "DecodingThreads";
+    // number of reports after which an mdib checkpoint is written during history replays, disabled if not positive
+    public static final String CHECKPOINT_INTERVAL_REPORTS = SDCCC + INVARIANT + "CheckpointIntervalReports";
+    // seconds of received reports after which an mdib checkpoint is written, disabled if not positive
+    public static final String CHECKPOINT_INTERVAL_SECONDS = SDCCC + INVARIANT + "CheckpointIntervalSeconds";
+    // number of threads replaying the histories of different sequences in parallel, sequential if not greater than one
+    public static final String SEQUENCE_REPLAY_THREADS = SDCCC + INVARIANT + "SequenceReplayThreads";
+    // whether reports are decoded on the decoding threads ahead of being applied during history replays
+    public static final String DECODE_AHEAD_REPORTS = SDCCC + INVARIANT + "DecodeAheadReports";
+    // whether mdibs replayed for the shared histories hand out their stored entities instead of copies
+    public static final String COPY_FREE_REPLAYS = SDCCC + INVARIANT + "CopyFreeReplays";
+    // whether shared history versions are checked for modifications after being processed, expensive
+    public static final String VERIFY_REPLAY_IMMUTABILITY = SDCCC + INVARIANT + "VerifyReplayImmutability";
+    // number of invariant test classes executed in parallel, sequential if not greater than one
+    public static final String TEST_CLASS_PARALLELISM = SDCCC + INVARIANT + "TestClassParallelism";
+    // whether mdib histories are recorded while messages are being collected
+    public static final String ONLINE_HISTORY_RECORDING = SDCCC + INVARIANT + "OnlineHistoryRecording";
+    // seconds between extensions of the mdib histories recorded while messages are being collected
+    public static final String ONLINE_HISTORY_RECORDING_INTERVAL_SECONDS =
+            SDCCC + INVARIANT + "OnlineHistoryRecordingIntervalSeconds";
+    // number of reports recorded for all sequences above which recordings are discarded, unbounded if not positive
+    public static final String ONLINE_HISTORY_RECORDING_MAX_REPORTS =
+            SDCCC + INVARIANT + "OnlineHistoryRecordingMaxReports";
+
     /*
      * Internal settings which should not be overwritten by a user
      */
@@ -29,6 +29,7 @@ import com.draeger.medical.t2iapi.metric.MetricRequests;
 import com.draeger.medical.t2iapi.metric.MetricServiceGrpc;
 import com.draeger.medical.t2iapi.metric.MetricTypes;
 import com.draeger.medical.t2iapi.operation.OperationServiceGrpc;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -40,6 +41,9 @@ import io.grpc.ManagedChannelBuilder;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import javax.xml.namespace.QName;
 import org.apache.logging.log4j.LogManager;
@@ -93,6 +97,7 @@ public class GRpcManipulations implements Manipulations {
     private final ManipulationInfoFactory manipulationInfoFactory;
     private final StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
     private final ManipulationSerializer manipulationSerializer;
+    private final ExecutorService asyncManipulationExecutor;
 
     /**
      * Creates an instance of gRPC-based manipulations.
@@ -111,6 +116,11 @@ public class GRpcManipulations implements Manipulations {
         this.fallback = fallbackManipulations;
         this.manipulationInfoFactory = manipulationInfoFactory;
         this.manipulationSerializer = manipulationSerializer;
+        // asynchronous manipulations are performed one after another, in the order they have been requested
+        this.asyncManipulationExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("GRpcManipulations-async-%d")
+                .setDaemon(true)
+                .build());
         final Channel channel = ManagedChannelBuilder.forTarget(serverAddress)
                 // Channels are secure by default (via SSL/TLS), which we don't really need
                 .usePlaintext()
@@ -125,6 +135,13 @@ public class GRpcManipulations implements Manipulations {
         operationStub = OperationServiceGrpc.newBlockingStub(channel);
     }
 
+    /**
+     * Stops the thread performing asynchronous manipulations once the manipulations already requested are performed.
+     */
+    public void shutdown() {
+        asyncManipulationExecutor.shutdown();
+    }
+
     @Override
     public ResultResponse setLocationDetail(final LocationDetail locationDetail) {
         final var protoLocation = locationDetailToProto(locationDetail);
@@ -324,6 +341,16 @@ public class GRpcManipulations implements Manipulations {
                         sequenceId, handle, category, activation));
     }
 
+    @Override
+    public CompletableFuture<ResultResponse> setMetricStatusAsync(
+            final String sequenceId,
+            final String handle,
+            final MetricCategory category,
+            final ComponentActivation activation) {
+        return CompletableFuture.supplyAsync(
+                () -> setMetricStatus(sequenceId, handle, category, activation), asyncManipulationExecutor);
+    }
+
     @Override
     public ResultResponse triggerDescriptorUpdate(final String handle) {
         return triggerDescriptorUpdate(List.of(handle));
@@ -7,6 +7,7 @@
 package com.draeger.medical.sdccc.manipulation;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.xml.namespace.QName;
 import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
 import org.somda.sdc.biceps.model.participant.AlertActivation;
@@ -139,6 +140,26 @@ public interface Manipulations {
     ResultResponse setMetricStatus(
             String sequenceId, String handle, MetricCategory category, ComponentActivation activation);
 
+    /**
+     * Set the metric to a specific state to trigger the setting of the ActivationState without blocking the caller.
+     *
+     * <p>
+     * The default implementation performs the manipulation synchronously and returns a completed future.
+     *
+     * @param sequenceId during which the manipulation was performed
+     * @param handle state handle to set the status of the metric for
+     * @param category of the metric to set the status for
+     * @param activation the activation state the metric should have, after manipulation
+     * @return future of the result of the manipulation
+     */
+    default CompletableFuture<ResultResponse> setMetricStatusAsync(
+            final String sequenceId,
+            final String handle,
+            final MetricCategory category,
+            final ComponentActivation activation) {
+        return CompletableFuture.completedFuture(setMetricStatus(sequenceId, handle, category, activation));
+    }
+
     /**
      * Trigger a descriptor update for the provided descriptor handle.
      *
@@ -5,18 +5,28 @@
  */
 package com.draeger.medical.sdccc.manipulation.precondition
 
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig
+import com.draeger.medical.sdccc.messages.DataRequirement
 import com.draeger.medical.sdccc.messages.MessageStorage
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.google.inject.Inject
 import com.google.inject.Injector
 import com.google.inject.Singleton
+import com.google.inject.name.Named
 import org.apache.logging.log4j.kotlin.Logging
 import java.lang.reflect.InvocationTargetException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 
 /**
  * Registry which allows executing preconditions during a test run.
  */
 @Singleton
-class PreconditionRegistry @Inject internal constructor(private val injector: Injector) {
+class PreconditionRegistry @Inject internal constructor(
+    private val injector: Injector,
+    @Named(TestSuiteConfig.PRECONDITION_CHECK_THREADS) private val checkThreads: Long,
+) {
 
     private val preconditions: MutableList<Precondition> = ArrayList()
 
@@ -66,19 +76,121 @@ class PreconditionRegistry @Inject internal constructor(private val injector: In
         registerPreconditionInternal(precondition)
     }
 
+    /**
+     * Retrieves the data which fulfills registered simple preconditions when received while collecting data.
+     *
+     * @return distinct data requirements in order of the registration of their preconditions
+     */
+    fun getCollectableData(): List<DataRequirement> =
+        preconditions.filterIsInstance<SimplePrecondition>()
+            .mapNotNull { it.collectableData.orElse(null) }
+            .distinct()
+
     /**
      * Runs all registered preconditions.
      *
+     * The checks of all [SimplePrecondition]s are evaluated concurrently first, as they only read the collected data,
+     * which must have been flushed before. Preconditions which are fulfilled already are skipped, all other
+     * preconditions are run one after another in order of their registration. Once a precondition has been run, the
+     * data received meanwhile may fulfil later preconditions, so the collected data is flushed and their checks are
+     * evaluated again before manipulating the DUT.
+     *
      * @throws PreconditionException See [Precondition.verifyPrecondition]
      */
     @Throws(PreconditionException::class)
     fun runPreconditions() {
+        val messageStorage = injector.getInstance(MessageStorage::class.java)
+        val checkResults = checkPreconditions()
+        // whether the checks evaluated up front may be outdated, as a precondition has been run since
+        var checksOutdated = false
+        // whether a precondition has been run since the collected data has last been flushed
+        var unflushedPrecondition = false
+        // whether data caused by a manipulation may not have been flushed yet
+        var unflushedManipulation = false
         for (precondition in preconditions) {
+            val checkResult = checkResults[precondition]
+            if (checkResult == true) {
+                logger.info { "Precondition ${precondition.javaClass.simpleName} is already fulfilled" }
+                continue
+            }
             logger.info { "Running precondition ${precondition.javaClass.simpleName}" }
-            precondition.verifyPrecondition(injector)
-            // flush data after each precondition to ensure that each precondition has most current data
-            injector.getInstance(MessageStorage::class.java).flush()
+            // manipulation preconditions do not evaluate the collected data
+            if (precondition !is ManipulationPrecondition && unflushedPrecondition) {
+                messageStorage.flush()
+                unflushedPrecondition = false
+                unflushedManipulation = false
+            }
+            val manipulated = when {
+                precondition is ManipulationPrecondition -> {
+                    precondition.verifyPrecondition(injector)
+                    true
+                }
+                // the check has already failed on the flushed data, which has not changed since
+                precondition is SimplePrecondition && checkResult == false && !checksOutdated -> {
+                    precondition.manipulate(injector)
+                    true
+                }
+                precondition is SimplePrecondition -> {
+                    if (precondition.isPreconditionMet(injector)) {
+                        false
+                    } else {
+                        precondition.manipulate(injector)
+                        true
+                    }
+                }
+                else -> {
+                    precondition.verifyPrecondition(injector)
+                    true
+                }
+            }
+            checksOutdated = true
+            unflushedPrecondition = true
+            unflushedManipulation = unflushedManipulation || manipulated
+        }
+        // flush data so that the data caused by the manipulations is available to the tests
+        if (unflushedManipulation) {
+            messageStorage.flush()
+        }
+    }
+
+    /**
+     * Evaluates the checks of all simple preconditions concurrently.
+     *
+     * @return results of the checks which could be evaluated, checks which failed with an error are run again
+     * in order of their registration, where the error is reported
+     */
+    private fun checkPreconditions(): Map<Precondition, Boolean> {
+        val simplePreconditions = preconditions.filterIsInstance<SimplePrecondition>()
+        if (simplePreconditions.isEmpty()) {
+            return emptyMap()
+        }
+        val threads = if (checkThreads > 0) checkThreads.toInt() else Runtime.getRuntime().availableProcessors()
+        val executor = Executors.newFixedThreadPool(
+            minOf(threads, simplePreconditions.size),
+            ThreadFactoryBuilder()
+                .setNameFormat("PreconditionCheck-thread-%d")
+                .setDaemon(true)
+                .build()
+        )
+        val results = HashMap<Precondition, Boolean>()
+        try {
+            val futures: Map<SimplePrecondition, Future<Boolean>> = simplePreconditions.associateWith { precondition ->
+                executor.submit<Boolean> { precondition.isPreconditionMet(injector) }
+            }
+            for ((precondition, future) in futures) {
+                try {
+                    results[precondition] = future.get()
+                } catch (e: ExecutionException) {
+                    logger.debug(e) { "Checking precondition ${precondition.javaClass.simpleName} failed" }
+                }
+            }
+        } catch (e: InterruptedException) {
+            logger.warn(e) { "Interrupted while checking preconditions" }
+            Thread.currentThread().interrupt()
+        } finally {
+            executor.shutdownNow()
         }
+        return results
     }
 
     companion object : Logging {
@@ -6,8 +6,11 @@
 
 package com.draeger.medical.sdccc.manipulation.precondition;
 
+import com.draeger.medical.sdccc.messages.DataRequirement;
 import com.google.inject.Injector;
 import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * A simple precondition which verifies whether a condition is fulfilled and executes a manipulation in case it isn't.
@@ -17,6 +20,9 @@ public class SimplePrecondition implements Precondition {
     private final PreconditionFunction<Injector> preconditionCheck;
     private final ManipulationFunction<Injector> manipulationCall;
 
+    @Nullable
+    private final DataRequirement collectableData;
+
     /**
      * @param isPreconditionMet precondition check to verify whether executing manipulations is required
      * @param manipulationCall  function to call in case manipulations are required
@@ -24,18 +30,69 @@ public class SimplePrecondition implements Precondition {
     public SimplePrecondition(
             final PreconditionFunction<Injector> isPreconditionMet,
             final ManipulationFunction<Injector> manipulationCall) {
+        this(isPreconditionMet, manipulationCall, null);
+    }
+
+    /**
+     * @param isPreconditionMet precondition check to verify whether executing manipulations is required
+     * @param manipulationCall  function to call in case manipulations are required
+     * @param collectableData   data which fulfills the precondition and may be sent by the DUT without any
+     *                          manipulation, null if the precondition cannot be fulfilled by collecting data
+     */
+    public SimplePrecondition(
+            final PreconditionFunction<Injector> isPreconditionMet,
+            final ManipulationFunction<Injector> manipulationCall,
+            @Nullable final DataRequirement collectableData) {
         this.preconditionCheck = isPreconditionMet;
         this.manipulationCall = manipulationCall;
+        this.collectableData = collectableData;
     }
 
     @Override
     public void verifyPrecondition(final Injector injector) throws PreconditionException {
-        if (this.preconditionCheck.apply(injector)) {
+        if (isPreconditionMet(injector)) {
             return;
         }
+        manipulate(injector);
+    }
+
+    /**
+     * Verifies whether the precondition is fulfilled without executing any manipulation.
+     *
+     * <p>
+     * Precondition checks only read the collected data, which allows evaluating checks of different preconditions
+     * concurrently.
+     *
+     * @param injector for access to the test run environment
+     * @return true if the precondition is fulfilled, false otherwise
+     * @throws PreconditionException if an error occurs during validation of the precondition
+     */
+    public boolean isPreconditionMet(final Injector injector) throws PreconditionException {
+        return preconditionCheck.apply(injector);
+    }
+
+    /**
+     * Executes the manipulation of the precondition without verifying whether it is fulfilled.
+     *
+     * @param injector for access to the test run environment
+     * @throws PreconditionException if an error occurs during execution of the manipulation
+     */
+    public void manipulate(final Injector injector) throws PreconditionException {
         manipulationCall.apply(injector);
     }
 
+    /**
+     * Retrieves the data which fulfills the precondition and may be received while collecting data.
+     *
+     * <p>
+     * Collecting such data before the preconditions are run makes the manipulation of the precondition unnecessary.
+     *
+     * @return the data requirement, empty if the precondition cannot be fulfilled by collecting data
+     */
+    public Optional<DataRequirement> getCollectableData() {
+        return Optional.ofNullable(collectableData);
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -9,23 +9,23 @@ package com.draeger.medical.sdccc.manipulation.precondition.impl;
 import com.draeger.medical.sdccc.manipulation.Manipulations;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.manipulation.precondition.SimplePrecondition;
+import com.draeger.medical.sdccc.messages.DataRequirement;
 import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.StreamingAttributeExtractor.ExtractedElement;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.t2iapi.ResponseTypes;
 import com.google.inject.Injector;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,14 +33,13 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.somda.sdc.biceps.common.CommonConstants;
 import org.somda.sdc.biceps.common.MdibEntity;
 import org.somda.sdc.biceps.common.access.MdibAccess;
-import org.somda.sdc.biceps.model.message.AbstractContextReport;
-import org.somda.sdc.biceps.model.message.DescriptionModificationReport;
 import org.somda.sdc.biceps.model.message.DescriptionModificationType;
-import org.somda.sdc.biceps.model.message.EpisodicContextReport;
 import org.somda.sdc.biceps.model.participant.AbstractContextDescriptor;
 import org.somda.sdc.biceps.model.participant.AbstractContextState;
 import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
@@ -59,9 +58,6 @@ import org.somda.sdc.biceps.model.participant.PatientContextDescriptor;
 import org.somda.sdc.biceps.model.participant.PatientContextState;
 import org.somda.sdc.biceps.model.participant.WorkflowContextDescriptor;
 import org.somda.sdc.biceps.model.participant.WorkflowContextState;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapUtil;
-import org.somda.sdc.dpws.soap.exception.MarshallingException;
 import org.somda.sdc.glue.consumer.SdcRemoteDevice;
 
 /**
@@ -69,44 +65,55 @@ import org.somda.sdc.glue.consumer.SdcRemoteDevice;
  */
 public class ConditionalPreconditions {
 
+    private static final QName REPORT_PART = new QName(CommonConstants.NAMESPACE_MESSAGE, "ReportPart");
+    private static final QName REPORT_PART_DESCRIPTOR = new QName(CommonConstants.NAMESPACE_MESSAGE, "Descriptor");
+    private static final QName REPORT_PART_CONTEXT_STATE = new QName(CommonConstants.NAMESPACE_MESSAGE, "ContextState");
+    private static final QName MDS_DESCRIPTOR = new QName(CommonConstants.NAMESPACE_PARTICIPANT, "MdsDescriptor");
+    private static final QName MODIFICATION_TYPE = new QName("ModificationType");
+    private static final QName CONTEXT_ASSOCIATION = new QName("ContextAssociation");
+    private static final QName HANDLE = new QName("Handle");
+
     private static boolean descriptionModificationPreconditionCheck(
             final Injector injector, final DescriptionModificationType... modificationTypes)
             throws PreconditionException {
         final var modificationTypesList = List.of(modificationTypes);
         final var messageStorage = injector.getInstance(MessageStorage.class);
-        final var testClient = injector.getInstance(TestClient.class);
-        final var clientInjector = testClient.getInjector();
-        final var marshalling = clientInjector.getInstance(MarshallingService.class);
-        final var soapUtil = clientInjector.getInstance(SoapUtil.class);
+        final var catalog = messageStorage.getDataAvailabilityCatalog();
+        if (catalog.isComplete() && catalog.getDescriptionModificationCount(modificationTypes) == 0) {
+            return false;
+        }
+        final var reportPartExtractor = messageStorage.createAttributeExtractor(REPORT_PART, null);
+        final var modificationTypeSeen = new AtomicBoolean(false);
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             // determine if there were any description insertions or deletions
-            return messages.getStream()
-                    .map(MessageContent::getBody)
-                    .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                    .map(body -> {
-                        try {
-                            return marshalling.unmarshal(body);
-                        } catch (MarshallingException e) {
-                            throw new RuntimeException(e);
-                        }
-                    })
-                    .map(message -> soapUtil.getBody(message, DescriptionModificationReport.class)
-                            .orElseThrow(() -> new RuntimeException(
-                                    "Could not retrieve description modification report body from message")))
-                    .anyMatch(message -> message.getReportPart().stream()
-                            .map(ImpliedValueUtil::getModificationType)
-                            .anyMatch(modificationTypesList::contains));
+            for (final Iterator<MessageContent> iterator = messages.getStream().iterator();
+                    iterator.hasNext() && !modificationTypeSeen.get(); ) {
+                reportPartExtractor.extractFrom(iterator.next(), reportPart -> {
+                    if (modificationTypesList.contains(getModificationType(reportPart))) {
+                        modificationTypeSeen.set(true);
+                    }
+                });
+            }
         } catch (final IOException e) {
             throw new PreconditionException(
                     "An error occurred while trying to retrieve description modification report messages from storage",
                     e);
-            // there is no other way to retrieve the exception from the stream scope
-        } catch (final RuntimeException e) {
+            // there is no other way to retrieve the exception from the extraction callback
+        } catch (final XMLStreamException | RuntimeException e) {
             throw new PreconditionException(
                     "An error occurred while trying to process description modification report messages from storage",
                     e);
         }
+        return modificationTypeSeen.get();
+    }
+
+    private static DescriptionModificationType getModificationType(final ExtractedElement reportPart) {
+        // ModificationType defaults to "Upt"
+        return reportPart
+                .getAttribute(MODIFICATION_TYPE)
+                .map(value -> DescriptionModificationType.fromValue(value.strip()))
+                .orElse(DescriptionModificationType.UPT);
     }
 
     private static boolean descriptionModificationManipulation(final Injector injector, final Logger logger) {
@@ -190,6 +197,11 @@ public class ConditionalPreconditions {
     private static boolean triggerReportPreconditionCheck(
             final Injector injector, final Logger log, final QName... reportType) throws PreconditionException {
         final var messageStorage = injector.getInstance(MessageStorage.class);
+        final var catalog = messageStorage.getDataAvailabilityCatalog();
+        if (catalog.isComplete() && catalog.getInboundMessageCount(reportType) == 0) {
+            log.info("Reports of types {} are present: {}", reportType, false);
+            return false;
+        }
         try (final var messages = messageStorage.getInboundMessagesByBodyType(reportType)) {
             // determine if there were any reports with the specified type
             final var areReportsPresent = messages.areObjectsPresent();
@@ -228,6 +240,10 @@ public class ConditionalPreconditions {
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
             final var messageStorage = injector.getInstance(MessageStorage.class);
+            final var catalog = messageStorage.getDataAvailabilityCatalog();
+            if (catalog.isComplete() && catalog.getInboundMessageCount(Constants.WSD_HELLO_BODY) == 0) {
+                return false;
+            }
             try (final var messages = messageStorage.getInboundMessagesByBodyType(false, Constants.WSD_HELLO_BODY)) {
                 return messages.areObjectsPresent();
             } catch (final IOException e) {
@@ -357,47 +373,36 @@ public class ConditionalPreconditions {
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
             final var messageStorage = injector.getInstance(MessageStorage.class);
-            final var testClient = injector.getInstance(TestClient.class);
-            final var clientInjector = testClient.getInjector();
-            final var marshalling = clientInjector.getInstance(MarshallingService.class);
-            final var soapUtil = clientInjector.getInstance(SoapUtil.class);
+            final var catalog = messageStorage.getDataAvailabilityCatalog();
+            if (catalog.isComplete()
+                    && (catalog.getDescriptionModificationCount(DescriptionModificationType.CRT) == 0
+                            || catalog.getDescriptionModificationCount(DescriptionModificationType.UPT) == 0
+                            || catalog.getDescriptionModificationCount(DescriptionModificationType.DEL) == 0)) {
+                return false;
+            }
+            final var reportPartExtractor =
+                    messageStorage.createAttributeExtractor(REPORT_PART, REPORT_PART_DESCRIPTOR);
             final var crtSeen = new AtomicBoolean(false);
             final var uptSeen = new AtomicBoolean(false);
             final var delSeen = new AtomicBoolean(false);
             try (final var messages =
                     messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
                 // determine if there were a description insertion, update and deletion for an mds descriptor
-                final var reportParts = messages.getStream()
-                        .map(MessageContent::getBody)
-                        .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                        .map(body -> {
-                            try {
-                                return marshalling.unmarshal(body);
-                            } catch (MarshallingException e) {
-                                throw new RuntimeException(e);
+                for (final Iterator<MessageContent> iterator = messages.getStream().iterator(); iterator.hasNext(); ) {
+                    reportPartExtractor.extractFrom(iterator.next(), reportPart -> {
+                        final var mdsDescriptorPresent = reportPart.children().stream()
+                                .anyMatch(descriptor -> descriptor.type().map(MDS_DESCRIPTOR::equals).orElse(false));
+                        if (mdsDescriptorPresent) {
+                            switch (getModificationType(reportPart)) {
+                                case CRT -> crtSeen.set(true);
+                                case UPT -> uptSeen.set(true);
+                                case DEL -> delSeen.set(true);
+                                default -> {}
                             }
-                        })
-                        .map(message -> soapUtil.getBody(message, DescriptionModificationReport.class)
-                                .orElseThrow(() -> new RuntimeException(
-                                        "Could not retrieve description modification report body from message")))
-                        .map(DescriptionModificationReport::getReportPart)
-                        .flatMap(Collection::stream)
-                        .toList();
-                for (var reportPart : reportParts) {
-                    final var mdsDescriptorPresent = reportPart.getDescriptor().stream()
-                            .filter(abstractDescriptor ->
-                                    abstractDescriptor.getClass().equals(MdsDescriptor.class))
-                            .findAny();
-                    if (mdsDescriptorPresent.isPresent()) {
-                        switch (ImpliedValueUtil.getModificationType(reportPart)) {
-                            case CRT -> crtSeen.set(true);
-                            case UPT -> uptSeen.set(true);
-                            case DEL -> delSeen.set(true);
-                            default -> {}
                         }
-                    }
+                    });
                 }
-            } catch (IOException | RuntimeException e) {
+            } catch (IOException | XMLStreamException | RuntimeException e) {
                 throw new PreconditionException(
                         "An error occurred while trying to process description modification report messages from storage",
                         e);
@@ -633,7 +638,16 @@ public class ConditionalPreconditions {
          * Creates a state changed precondition check.
          */
         public StateChangedPrecondition() {
-            super(StateChangedPrecondition::preconditionCheck, StateChangedPrecondition::manipulation);
+            super(
+                    StateChangedPrecondition::preconditionCheck,
+                    StateChangedPrecondition::manipulation,
+                    new DataRequirement(
+                            1,
+                            Constants.MSG_EPISODIC_ALERT_REPORT,
+                            Constants.MSG_EPISODIC_COMPONENT_REPORT,
+                            Constants.MSG_EPISODIC_METRIC_REPORT,
+                            Constants.MSG_EPISODIC_OPERATIONAL_STATE_REPORT,
+                            Constants.MSG_EPISODIC_CONTEXT_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -718,6 +732,13 @@ public class ConditionalPreconditions {
         }
 
         private static final Logger LOG = LogManager.getLogger(AllKindsOfContextStatesAssociatedPrecondition.class);
+        private static final Map<QName, Class<? extends AbstractContextState>> CONTEXT_STATE_TYPES = Map.of(
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "PatientContextState"), PatientContextState.class,
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "LocationContextState"), LocationContextState.class,
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "EnsembleContextState"), EnsembleContextState.class,
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "MeansContextState"), MeansContextState.class,
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "OperatorContextState"), OperatorContextState.class,
+                new QName(CommonConstants.NAMESPACE_PARTICIPANT, "WorkflowContextState"), WorkflowContextState.class);
 
         /**
          * Creates a precondition check, if all kind of context where associated.
@@ -730,43 +751,43 @@ public class ConditionalPreconditions {
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
             final var messageStorage = injector.getInstance(MessageStorage.class);
-            final var testClient = injector.getInstance(TestClient.class);
-            final var clientInjector = testClient.getInjector();
-            final var marshalling = clientInjector.getInstance(MarshallingService.class);
-            final var soapUtil = clientInjector.getInstance(SoapUtil.class);
-            final var contextStates = new ArrayList<AbstractContextState>();
+            final var reportPartExtractor =
+                    messageStorage.createAttributeExtractor(REPORT_PART, REPORT_PART_CONTEXT_STATE);
             ALREADY_ASSOCIATED_CONTEXTS.values().forEach(Set::clear);
+            final var catalog = messageStorage.getDataAvailabilityCatalog();
+            if (catalog.isComplete() && catalog.getReportsWithPartsCount(Constants.MSG_EPISODIC_CONTEXT_REPORT) == 0) {
+                // no context states have been reported at all
+                return false;
+            }
             try (final var messages =
                     messageStorage.getInboundMessagesByBodyType(Constants.MSG_EPISODIC_CONTEXT_REPORT)) {
                 // determine if there were any context state changes
-                messages.getStream()
-                        .map(MessageContent::getBody)
-                        .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                        .map(body -> {
-                            try {
-                                return marshalling.unmarshal(body);
-                            } catch (MarshallingException e) {
-                                throw new RuntimeException(e);
+                for (final Iterator<MessageContent> iterator = messages.getStream().iterator(); iterator.hasNext(); ) {
+                    reportPartExtractor.extractFrom(iterator.next(), reportPart -> {
+                        for (var state : reportPart.children()) {
+                            // ContextAssociation defaults to "No"
+                            if (ContextAssociation.ASSOC
+                                    .value()
+                                    .equals(state.getAttribute(CONTEXT_ASSOCIATION)
+                                            .map(String::strip)
+                                            .orElse(null))) {
+                                final var stateClass = state.type()
+                                        .map(CONTEXT_STATE_TYPES::get)
+                                        .orElseThrow(() -> new RuntimeException(
+                                                "Could not determine the type of context state " + state.attributes()));
+                                ALREADY_ASSOCIATED_CONTEXTS
+                                        .get(stateClass)
+                                        .add(state.getAttribute(HANDLE).orElse(null));
                             }
-                        })
-                        .map(message -> soapUtil.getBody(message, EpisodicContextReport.class)
-                                .orElseThrow(() -> new RuntimeException(
-                                        "Could not retrieve episodic context report body from message")))
-                        .forEach(message -> message.getReportPart().stream()
-                                .map(AbstractContextReport.ReportPart::getContextState)
-                                .toList()
-                                .forEach(contextStates::addAll));
-                for (var state : contextStates) {
-                    if (ImpliedValueUtil.getContextAssociation(state) == ContextAssociation.ASSOC) {
-                        ALREADY_ASSOCIATED_CONTEXTS.get(state.getClass()).add(state.getHandle());
-                    }
+                        }
+                    });
                 }
             } catch (final IOException e) {
                 throw new PreconditionException(
                         "An error occurred while trying to retrieve description modification report messages from storage",
                         e);
-                // there is no other way to retrieve the exception from the stream scope
-            } catch (final RuntimeException e) {
+                // there is no other way to retrieve the exception from the extraction callback
+            } catch (final XMLStreamException | RuntimeException e) {
                 throw new PreconditionException(
                         "An error occurred while trying to process description modification report messages from storage",
                         e);
@@ -965,7 +986,8 @@ public class ConditionalPreconditions {
         public TriggerEpisodicAlertReportPrecondition() {
             super(
                     TriggerEpisodicAlertReportPrecondition::preconditionCheck,
-                    TriggerEpisodicAlertReportPrecondition::manipulation);
+                    TriggerEpisodicAlertReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_EPISODIC_ALERT_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -997,7 +1019,8 @@ public class ConditionalPreconditions {
         public TriggerEpisodicComponentReportPrecondition() {
             super(
                     TriggerEpisodicComponentReportPrecondition::preconditionCheck,
-                    TriggerEpisodicComponentReportPrecondition::manipulation);
+                    TriggerEpisodicComponentReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_EPISODIC_COMPONENT_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -1029,7 +1052,8 @@ public class ConditionalPreconditions {
         public TriggerEpisodicContextReportPrecondition() {
             super(
                     TriggerEpisodicContextReportPrecondition::preconditionCheck,
-                    TriggerEpisodicContextReportPrecondition::manipulation);
+                    TriggerEpisodicContextReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_EPISODIC_CONTEXT_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -1061,7 +1085,8 @@ public class ConditionalPreconditions {
         public TriggerEpisodicMetricReportPrecondition() {
             super(
                     TriggerEpisodicMetricReportPrecondition::preconditionCheck,
-                    TriggerEpisodicMetricReportPrecondition::manipulation);
+                    TriggerEpisodicMetricReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_EPISODIC_METRIC_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -1093,7 +1118,8 @@ public class ConditionalPreconditions {
         public TriggerEpisodicOperationalStateReportPrecondition() {
             super(
                     TriggerEpisodicOperationalStateReportPrecondition::preconditionCheck,
-                    TriggerEpisodicOperationalStateReportPrecondition::manipulation);
+                    TriggerEpisodicOperationalStateReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_EPISODIC_OPERATIONAL_STATE_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -1124,7 +1150,8 @@ public class ConditionalPreconditions {
         public TriggerOperationInvokedReportPrecondition() {
             super(
                     TriggerOperationInvokedReportPrecondition::preconditionCheck,
-                    TriggerOperationInvokedReportPrecondition::manipulation);
+                    TriggerOperationInvokedReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_OPERATION_INVOKED_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -1155,7 +1182,8 @@ public class ConditionalPreconditions {
         public TriggerDescriptionModificationReportPrecondition() {
             super(
                     TriggerDescriptionModificationReportPrecondition::preconditionCheck,
-                    TriggerDescriptionModificationReportPrecondition::manipulation);
+                    TriggerDescriptionModificationReportPrecondition::manipulation,
+                    new DataRequirement(1, Constants.MSG_DESCRIPTION_MODIFICATION_REPORT));
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
@@ -8,6 +8,7 @@ package com.draeger.medical.sdccc.manipulation.precondition.impl;
 
 import com.draeger.medical.sdccc.configuration.TestParameterConfig;
 import com.draeger.medical.sdccc.manipulation.Manipulations;
+import com.draeger.medical.sdccc.manipulation.ResultResponse;
 import com.draeger.medical.sdccc.manipulation.precondition.ManipulationPrecondition;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
@@ -20,12 +21,18 @@ import com.google.inject.name.Names;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -35,6 +42,8 @@ import org.somda.sdc.biceps.common.access.MdibAccess;
 import org.somda.sdc.biceps.common.access.MdibAccessObservable;
 import org.somda.sdc.biceps.common.access.MdibAccessObserver;
 import org.somda.sdc.biceps.common.event.ContextStateModificationMessage;
+import org.somda.sdc.biceps.common.event.MetricStateModificationMessage;
+import org.somda.sdc.biceps.common.event.WaveformStateModificationMessage;
 import org.somda.sdc.biceps.model.participant.AbstractAlertState;
 import org.somda.sdc.biceps.model.participant.AbstractContextDescriptor;
 import org.somda.sdc.biceps.model.participant.AbstractContextState;
@@ -75,48 +84,114 @@ public class ManipulationPreconditions {
 
         final var timeBufferInSeconds =
                 injector.getInstance(Key.get(long.class, Names.named(TestParameterConfig.BICEPS_547_TIME_INTERVAL)));
-        final var timeBuffer = TimeUnit.MILLISECONDS.convert(timeBufferInSeconds, TimeUnit.SECONDS);
+        final var timeBuffer = TimeUnit.NANOSECONDS.convert(timeBufferInSeconds, TimeUnit.SECONDS);
         final var manipulations = injector.getInstance(Manipulations.class);
         final var testClient = injector.getInstance(TestClient.class);
         final var manipulationResults = new HashSet<ResponseTypes.Result>();
         final var metricEntities =
                 testClient.getSdcRemoteDevice().getMdibAccess().findEntitiesByType(AbstractMetricDescriptor.class);
-        for (var entity : metricEntities) {
-            final var metricDescriptor = entity.getDescriptor(AbstractMetricDescriptor.class);
-            final var category = metricDescriptor.orElseThrow().getMetricCategory();
-            if (category.equals(metricCategory)) {
-                final var metricState =
-                        entity.getStates(AbstractMetricState.class).get(0);
+        // the manipulations of all metrics are issued without waiting for the reports of the previous ones, each one
+        // is only performed once the previous one has succeeded, a skipped manipulation completes with null
+        final Map<String, CompletableFuture<ResultResponse>> pendingManipulations = new LinkedHashMap<>();
+        // the biceps:5-4-7 tests check the activation state of each metric once its time buffer has elapsed
+        final Map<String, Long> settlingDeadlines = new ConcurrentHashMap<>();
+        try (final var reportObserver = new MetricActivationReportObserver(activationState, testClient)) {
+            CompletableFuture<ResultResponse> previousManipulation = null;
+            for (var entity : metricEntities) {
+                final var metricDescriptor = entity.getDescriptor(AbstractMetricDescriptor.class);
+                final var category = metricDescriptor.orElseThrow().getMetricCategory();
+                if (!category.equals(metricCategory)) {
+                    continue;
+                }
+                final var metricState = entity.getStates(AbstractMetricState.class).get(0);
                 final var handle = metricState.getDescriptorHandle();
                 final var sequenceId = testClient
                         .getSdcRemoteDevice()
                         .getMdibAccess()
                         .getMdibVersion()
                         .getSequenceId();
-                final var manipulationResult = manipulations
-                        .setMetricStatus(sequenceId, handle, category, activationState)
-                        .getResult();
+                reportObserver.expect(handle);
+                final Supplier<CompletableFuture<ResultResponse>> manipulation = () -> manipulations
+                        .setMetricStatusAsync(sequenceId, handle, category, activationState)
+                        .thenApply(response -> {
+                            if (response.getResult() == ResponseTypes.Result.RESULT_SUCCESS) {
+                                settlingDeadlines.put(handle, System.nanoTime() + timeBuffer);
+                            }
+                            return response;
+                        });
+                if (previousManipulation == null) {
+                    previousManipulation = manipulation.get();
+                } else {
+                    previousManipulation = previousManipulation.thenCompose(previous ->
+                            previous == null || isFailure(previous.getResult())
+                                    ? CompletableFuture.completedFuture(null)
+                                    : manipulation.get());
+                }
+                pendingManipulations.put(handle, previousManipulation);
+            }
+
+            boolean failed = false;
+            for (final var pendingManipulation : pendingManipulations.entrySet()) {
+                final var handle = pendingManipulation.getKey();
+                final ResultResponse response;
+                try {
+                    response = pendingManipulation.getValue().get();
+                } catch (final ExecutionException e) {
+                    // the failure is passed on to the manipulations which have been skipped because of it
+                    if (!failed) {
+                        log.error("Manipulation setMetricStatus could not be performed", e);
+                    }
+                    failed = true;
+                    continue;
+                }
+                if (response == null) {
+                    log.debug("Manipulation setMetricStatus was skipped for metric state with handle {}", handle);
+                    continue;
+                }
+                final var manipulationResult = response.getResult();
                 log.debug(
                         "Manipulation setMetricStatus was {} for metric state with handle {}",
                         manipulationResult,
                         handle);
-                if (manipulationResult == ResponseTypes.Result.RESULT_FAIL
-                        || manipulationResult == ResponseTypes.Result.RESULT_NOT_IMPLEMENTED) {
+                if (isFailure(manipulationResult)) {
                     log.error("Setting the metric status for metric with handle {} failed", handle);
-                    return false;
+                    failed = true;
                 }
                 manipulationResults.add(manipulationResult);
-                try {
-                    Thread.sleep(timeBuffer);
-                } catch (InterruptedException e) {
-                    log.error("Failed to wait the time frame of {} after setMetricStatus manipulation", timeBuffer);
-                    return false;
+            }
+
+            // the time buffer is waited for once for all metrics, the activation states must not be changed by
+            // further manipulations before it has elapsed
+            for (final var settlingDeadline : settlingDeadlines.entrySet()) {
+                final var handle = settlingDeadline.getKey();
+                if (!reportObserver.awaitReport(handle, getRemainingNanos(settlingDeadline.getValue()))) {
+                    log.warn(
+                            "No report with activation state {} for metric with handle {} received within {}s",
+                            activationState,
+                            handle,
+                            timeBufferInSeconds);
                 }
+                TimeUnit.NANOSECONDS.sleep(getRemainingNanos(settlingDeadline.getValue()));
+            }
+            if (failed) {
+                return false;
             }
+        } catch (final InterruptedException e) {
+            log.error("Failed to wait the time frame of {}s after setMetricStatus manipulations", timeBufferInSeconds);
+            return false;
         }
         return manipulationResults.contains(ResponseTypes.Result.RESULT_SUCCESS);
     }
 
+    private static long getRemainingNanos(final long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    private static boolean isFailure(final ResponseTypes.Result manipulationResult) {
+        return manipulationResult == ResponseTypes.Result.RESULT_FAIL
+                || manipulationResult == ResponseTypes.Result.RESULT_NOT_IMPLEMENTED;
+    }
+
     private static boolean removeAndReinsertDescriptors(final Injector injector, final Logger log) {
         final var manipulations = injector.getInstance(Manipulations.class);
         final var testClient = injector.getInstance(TestClient.class);
@@ -1713,6 +1788,95 @@ public class ManipulationPreconditions {
         }
     }
 
+    /**
+     * Observes the metric states reported by the device and notes which of the expected metrics have been reported
+     * with the expected activation state.
+     */
+    static final class MetricActivationReportObserver implements MdibAccessObserver, AutoCloseable {
+
+        private final ComponentActivation expectedActivation;
+        private final Set<String> expectedHandles;
+        private final Set<String> reportedHandles;
+        private final Lock lock = new ReentrantLock();
+        private final Condition reportReceivedSignal = lock.newCondition();
+        private final MdibAccessObservable mdibAccessObservable;
+
+        MetricActivationReportObserver(final ComponentActivation expectedActivation, final TestClient testClient) {
+            this.expectedActivation = expectedActivation;
+            this.expectedHandles = new HashSet<>();
+            this.reportedHandles = new HashSet<>();
+            this.mdibAccessObservable = testClient.getSdcRemoteDevice().getMdibAccessObservable();
+            this.mdibAccessObservable.registerObserver(this);
+        }
+
+        @Subscribe
+        public void onUpdate(final MetricStateModificationMessage report) {
+            onMetricStates(report.getStates().values());
+        }
+
+        @Subscribe
+        public void onUpdate(final WaveformStateModificationMessage report) {
+            onMetricStates(report.getStates().values());
+        }
+
+        /**
+         * Adds a metric whose report is to be awaited, must be called before the metric is manipulated.
+         *
+         * @param handle of the metric
+         */
+        void expect(final String handle) {
+            lock.lock();
+            try {
+                expectedHandles.add(handle);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until the metric has been reported with the expected activation state.
+         *
+         * @param handle       of the expected metric
+         * @param timeoutNanos maximum time to wait in nanoseconds
+         * @return true if the report has been received, false if the timeout elapsed before
+         * @throws InterruptedException if interrupted while waiting
+         */
+        boolean awaitReport(final String handle, final long timeoutNanos) throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = timeoutNanos;
+                while (!reportedHandles.contains(handle) && remaining > 0) {
+                    remaining = reportReceivedSignal.awaitNanos(remaining);
+                }
+                return reportedHandles.contains(handle);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            mdibAccessObservable.unregisterObserver(this);
+        }
+
+        private void onMetricStates(final Collection<? extends List<? extends AbstractMetricState>> states) {
+            lock.lock();
+            try {
+                for (final var mdsStates : states) {
+                    for (final var state : mdsStates) {
+                        if (expectedHandles.contains(state.getDescriptorHandle())
+                                && expectedActivation.equals(ImpliedValueUtil.getMetricActivation(state))) {
+                            reportedHandles.add(state.getDescriptorHandle());
+                            reportReceivedSignal.signalAll();
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
     /**
      * Removes and reinserts descriptors with the same handle.
      */
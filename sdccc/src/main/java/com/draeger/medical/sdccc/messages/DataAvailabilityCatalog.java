@@ -0,0 +1,324 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.util.Constants;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.biceps.common.CommonConstants;
+import org.somda.sdc.biceps.model.message.DescriptionModificationType;
+import org.somda.sdc.dpws.CommunicationLog;
+
+/**
+ * Catalog of the inbound data stored in the {@linkplain MessageStorage}, maintained while messages are being stored.
+ *
+ * <p>
+ * Preconditions and tests frequently query and decode all messages of a type only to find out that there are none.
+ * The catalog counts the inbound messages per body type and per sequence id, the report parts of description
+ * modification reports per modification type and the reports containing at least one non-empty msg:ReportPart per
+ * report type, so that the absence of data can be determined without accessing the database. Counters are updated
+ * before a message is written to the database and therefore cover at least all stored messages. As long as messages
+ * are still waiting to be written, the catalog is not complete and a count of zero does not prove the absence of data.
+ *
+ * <p>
+ * Report bodies are read using an {@linkplain XMLStreamReader} instead of being unmarshalled. Reports which cannot be
+ * read are counted as if they contained report parts of every kind, a count of zero therefore always means that no
+ * such data has been stored.
+ */
+public class DataAvailabilityCatalog {
+    private static final Logger LOG = LogManager.getLogger(DataAvailabilityCatalog.class);
+
+    private static final QName REPORT_PART = new QName(CommonConstants.NAMESPACE_MESSAGE, "ReportPart");
+    private static final QName MODIFICATION_TYPE = new QName("ModificationType");
+    private static final Set<String> REPORT_BODIES = Constants.RELEVANT_REPORT_BODIES.stream()
+            .map(QName::toString)
+            .collect(Collectors.toUnmodifiableSet());
+    private static final String DESCRIPTION_MODIFICATION_REPORT_BODY =
+            Constants.MSG_DESCRIPTION_MODIFICATION_REPORT.toString();
+
+    private final XMLInputFactory xmlInputFactory;
+    private final Map<String, LongAdder> messagesByBodyType;
+    private final Map<String, LongAdder> messagesBySequenceId;
+    private final Map<DescriptionModificationType, LongAdder> reportPartsByModificationType;
+    private final Map<String, LongAdder> reportsWithPartsByReportType;
+    private final AtomicLong pendingMessages;
+    private final Lock countLock;
+    private final Condition inboundMessageCounted;
+    private long countedInboundMessages;
+
+    DataAvailabilityCatalog(final XMLInputFactory xmlInputFactory) {
+        this.xmlInputFactory = xmlInputFactory;
+        this.messagesByBodyType = new ConcurrentHashMap<>();
+        this.messagesBySequenceId = new ConcurrentHashMap<>();
+        this.reportPartsByModificationType = new ConcurrentHashMap<>();
+        this.reportsWithPartsByReportType = new ConcurrentHashMap<>();
+        this.pendingMessages = new AtomicLong();
+        this.countLock = new ReentrantLock();
+        this.inboundMessageCounted = countLock.newCondition();
+    }
+
+    /**
+     * Notes that a message has been queued for being written to the database.
+     */
+    void onMessageQueued() {
+        pendingMessages.incrementAndGet();
+    }
+
+    /**
+     * Notes that a queued message has been dropped without being written to the database.
+     */
+    void onMessageDropped() {
+        pendingMessages.decrementAndGet();
+    }
+
+    /**
+     * Counts the data of an ingested message, outbound messages are ignored.
+     *
+     * <p>
+     * Called from the database interaction threads, possibly concurrently.
+     *
+     * @param messageContent ingested message content
+     */
+    void onIngest(final MessageContent messageContent) {
+        try {
+            if (messageContent.getDirection() == CommunicationLog.Direction.INBOUND) {
+                countMessage(messageContent);
+                countLock.lock();
+                try {
+                    countedInboundMessages++;
+                    inboundMessageCounted.signalAll();
+                } finally {
+                    countLock.unlock();
+                }
+            }
+        } finally {
+            pendingMessages.decrementAndGet();
+        }
+    }
+
+    /**
+     * Determines whether all messages handed to the storage so far have been counted.
+     *
+     * <p>
+     * Counts of zero only prove the absence of data if the catalog is complete, which is always the case after
+     * {@linkplain MessageStorage#flush()} as long as no further messages are added.
+     *
+     * @return true if no message is waiting to be counted, false otherwise
+     */
+    public boolean isComplete() {
+        return pendingMessages.get() == 0;
+    }
+
+    /**
+     * Retrieves the number of inbound messages counted so far.
+     *
+     * @return number of counted inbound messages, used to await further ones with
+     *         {@linkplain #awaitInboundMessages(long, Duration)}
+     */
+    public long getCountedInboundMessages() {
+        countLock.lock();
+        try {
+            return countedInboundMessages;
+        } finally {
+            countLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until further inbound messages have been counted.
+     *
+     * <p>
+     * Messages are counted in batches once the database interaction threads write them to the database, i.e. when
+     * their buffers are full or on {@linkplain MessageStorage#flush()}.
+     *
+     * @param countedMessages number of inbound messages counted before, as retrieved using
+     *                        {@linkplain #getCountedInboundMessages()}
+     * @param timeout         maximum time to wait
+     * @return true if more inbound messages have been counted, false if the timeout has elapsed before
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitInboundMessages(final long countedMessages, final Duration timeout)
+            throws InterruptedException {
+        long remaining = timeout.toNanos();
+        countLock.lock();
+        try {
+            while (countedInboundMessages <= countedMessages) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = inboundMessageCounted.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            countLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of inbound messages containing a body of the given types.
+     *
+     * @param bodyTypes body types to count, messages containing bodies of several of them are counted once per type
+     * @return number of messages, zero if no message containing a body of the given types has been stored
+     */
+    public long getInboundMessageCount(final QName... bodyTypes) {
+        return sum(messagesByBodyType, Arrays.stream(bodyTypes).map(QName::toString).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Retrieves the number of inbound messages containing a body with a sequence id.
+     *
+     * @param sequenceId to count messages of
+     * @return number of messages, zero if no message of the sequence has been stored
+     */
+    public long getSequenceMessageCount(final String sequenceId) {
+        return sum(messagesBySequenceId, Set.of(sequenceId));
+    }
+
+    /**
+     * Retrieves the number of report parts of inbound description modification reports with the given modification
+     * types.
+     *
+     * @param modificationTypes modification types to count, an absent ModificationType is counted as its implied value
+     * @return number of report parts, zero if no such report part has been stored
+     */
+    public long getDescriptionModificationCount(final DescriptionModificationType... modificationTypes) {
+        return sum(reportPartsByModificationType, Set.copyOf(Arrays.asList(modificationTypes)));
+    }
+
+    /**
+     * Retrieves the number of inbound reports containing at least one msg:ReportPart with child elements.
+     *
+     * <p>
+     * Reports without report parts, e.g. waveform streams, are never counted.
+     *
+     * @param reportTypes report body types to count
+     * @return number of reports, zero if no report of the given types with a non-empty report part has been stored
+     */
+    public long getReportsWithPartsCount(final QName... reportTypes) {
+        return sum(
+                reportsWithPartsByReportType,
+                Arrays.stream(reportTypes).map(QName::toString).collect(Collectors.toSet()));
+    }
+
+    private void countMessage(final MessageContent messageContent) {
+        final Set<String> bodyTypes = new HashSet<>();
+        final Set<String> sequenceIds = new HashSet<>();
+        for (final var group : messageContent.getMdibVersionGroups()) {
+            bodyTypes.add(group.getBodyElement());
+            if (group.getSequenceId() != null) {
+                sequenceIds.add(group.getSequenceId());
+            }
+        }
+        bodyTypes.forEach(bodyType -> increment(messagesByBodyType, bodyType, 1));
+        sequenceIds.forEach(sequenceId -> increment(messagesBySequenceId, sequenceId, 1));
+
+        final Set<String> reportTypes =
+                bodyTypes.stream().filter(REPORT_BODIES::contains).collect(Collectors.toSet());
+        if (!reportTypes.isEmpty()) {
+            countReportParts(messageContent, reportTypes);
+        }
+    }
+
+    private void countReportParts(final MessageContent messageContent, final Set<String> reportTypes) {
+        final boolean isDescriptionModification = reportTypes.contains(DESCRIPTION_MODIFICATION_REPORT_BODY);
+        final Set<String> reportsWithParts = new HashSet<>();
+        final Map<DescriptionModificationType, Long> modifications = new EnumMap<>(DescriptionModificationType.class);
+        try {
+            final XMLStreamReader reader =
+                    xmlInputFactory.createXMLStreamReader(new StringReader(messageContent.getBody()));
+            try {
+                String currentReport = null;
+                int depth = 0;
+                int reportPartDepth = -1;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        final String elementName = reader.getName().toString();
+                        if (reportTypes.contains(elementName)) {
+                            currentReport = elementName;
+                        } else if (currentReport != null && REPORT_PART.equals(reader.getName())) {
+                            reportPartDepth = depth;
+                            if (DESCRIPTION_MODIFICATION_REPORT_BODY.equals(currentReport)) {
+                                final String modificationType =
+                                        reader.getAttributeValue(null, MODIFICATION_TYPE.getLocalPart());
+                                modifications.merge(readModificationType(modificationType), 1L, Long::sum);
+                            }
+                        } else if (currentReport != null && depth == reportPartDepth + 1) {
+                            reportsWithParts.add(currentReport);
+                            if (!isDescriptionModification && reportsWithParts.containsAll(reportTypes)) {
+                                // only description modification reports require all of their report parts to be read
+                                break;
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == reportPartDepth) {
+                            reportPartDepth = -1;
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | IllegalArgumentException e) {
+            LOG.debug(
+                    "Could not read the report parts of message {}, counting report parts of all kinds for it",
+                    messageContent.getUuid(),
+                    e);
+            reportsWithParts.addAll(reportTypes);
+            if (isDescriptionModification) {
+                for (final var modificationType : DescriptionModificationType.values()) {
+                    modifications.merge(modificationType, 1L, Long::sum);
+                }
+            }
+        }
+        reportsWithParts.forEach(reportType -> increment(reportsWithPartsByReportType, reportType, 1));
+        modifications.forEach((type, count) -> increment(reportPartsByModificationType, type, count));
+    }
+
+    private static DescriptionModificationType readModificationType(@Nullable final String value) {
+        // ModificationType defaults to "Upt"
+        return value == null ? DescriptionModificationType.UPT : DescriptionModificationType.fromValue(value.strip());
+    }
+
+    private static <K> void increment(final Map<K, LongAdder> counters, final K key, final long count) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(count);
+    }
+
+    private static <K> long sum(final Map<K, LongAdder> counters, final Set<K> keys) {
+        long result = 0;
+        for (final var key : keys) {
+            final var counter = counters.get(key);
+            if (counter != null) {
+                result += counter.sum();
+            }
+        }
+        return result;
+    }
+}
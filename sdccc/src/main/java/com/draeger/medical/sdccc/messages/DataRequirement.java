@@ -0,0 +1,82 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.xml.namespace.QName;
+
+/**
+ * Requirement for inbound messages which have to be collected, evaluated using the
+ * {@linkplain DataAvailabilityCatalog}.
+ *
+ * <p>
+ * A requirement is satisfied once the given number of inbound messages containing a body of any of its body types has
+ * been stored.
+ */
+public final class DataRequirement {
+
+    private final long minimumCount;
+    private final List<QName> bodyTypes;
+
+    /**
+     * Creates a requirement for inbound messages.
+     *
+     * @param minimumCount number of messages required, must be positive
+     * @param bodyTypes    body types of which messages are counted, at least one
+     */
+    public DataRequirement(final long minimumCount, final QName... bodyTypes) {
+        if (minimumCount < 1) {
+            throw new IllegalArgumentException("The minimum count of a data requirement must be positive");
+        }
+        if (bodyTypes.length == 0) {
+            throw new IllegalArgumentException("A data requirement needs at least one body type");
+        }
+        this.minimumCount = minimumCount;
+        this.bodyTypes = List.of(bodyTypes);
+    }
+
+    public long getMinimumCount() {
+        return minimumCount;
+    }
+
+    public List<QName> getBodyTypes() {
+        return bodyTypes;
+    }
+
+    /**
+     * Determines whether the requirement is satisfied by the messages stored so far.
+     *
+     * @param catalog of the stored messages
+     * @return true if enough messages have been stored, false otherwise
+     */
+    public boolean isSatisfied(final DataAvailabilityCatalog catalog) {
+        return catalog.getInboundMessageCount(bodyTypes.toArray(new QName[0])) >= minimumCount;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final DataRequirement that = (DataRequirement) o;
+        return minimumCount == that.minimumCount && bodyTypes.equals(that.bodyTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minimumCount, bodyTypes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s message(s) of %s",
+                minimumCount,
+                bodyTypes.stream().map(QName::getLocalPart).collect(Collectors.joining(" or ")));
+    }
+}
@@ -20,6 +20,7 @@ import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent_;
 import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
 import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.StreamingAttributeExtractor;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.sdccc.util.XPathExtractor;
 import com.draeger.medical.t2iapi.ResponseTypes;
@@ -38,6 +39,7 @@ import java.nio.charset.CodingErrorAction;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -51,11 +53,13 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -92,6 +96,11 @@ import org.somda.sdc.dpws.soap.wsaddressing.WsAddressingConstants;
 
 /**
  * Storage for incoming and outgoing messages.
+ *
+ * <p>
+ * All getters are thread-safe, every query opens its own session which is closed together with the returned stream,
+ * so concurrently executed tests can read from the storage without coordinating. Results must only be consumed by
+ * the thread which requested them, and the storage must not be closed while results are still being read.
  */
 @Singleton
 public class MessageStorage implements AutoCloseable {
@@ -138,6 +147,8 @@ public class MessageStorage implements AutoCloseable {
             "getInboundMessagesByTimeInterval called on closed storage";
     private static final String GET_INBOUND_MESSAGE_BY_TIMESTAMP_CALLED_ON_CLOSED_STORAGE =
             "getInboundMessagesByTimestampAndBodyType called on closed storage";
+    private static final String GET_INBOUND_MESSAGE_BY_MDIB_VERSION_CALLED_ON_CLOSED_STORAGE =
+            "getInboundMessagesByBodyTypeSequenceIdAndMdibVersion called on closed storage";
     private static final String GET_MANIPULATION_DATA_BY_MANIPULATION =
             "getManipulationDataByManipulation called on closed storage";
     private static final String FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED =
@@ -180,8 +191,11 @@ public class MessageStorage implements AutoCloseable {
     private final TestRunObserver testRunObserver;
     private final boolean summarizeMessageEncodingErrors;
     private final AtomicLong messageEncodingErrorCount;
-    private int invalidMimeTypeCount;
+    private final AtomicLong invalidMimeTypeCount;
     private final boolean enableEncodingCheck;
+    private final List<Consumer<MessageContent>> ingestListeners;
+    private final List<MessageSubscription> messageSubscriptions;
+    private final DataAvailabilityCatalog dataAvailabilityCatalog;
 
     @Inject
     MessageStorage(
@@ -198,7 +212,9 @@ public class MessageStorage implements AutoCloseable {
         this.summarizeMessageEncodingErrors = summarizeMessageEncodingErrors;
         this.enableEncodingCheck = enableEncodingCheck;
         this.messageEncodingErrorCount = new AtomicLong(0);
-        this.invalidMimeTypeCount = 0;
+        this.invalidMimeTypeCount = new AtomicLong(0);
+        this.ingestListeners = new CopyOnWriteArrayList<>();
+        this.messageSubscriptions = new CopyOnWriteArrayList<>();
 
         this.actionExtractor = new XPathExtractor(String.format("//%s:Action", WsAddressingConstants.NAMESPACE_PREFIX));
 
@@ -235,6 +251,8 @@ public class MessageStorage implements AutoCloseable {
         }
 
         this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.dataAvailabilityCatalog = new DataAvailabilityCatalog(this.xmlInputFactory);
+        this.ingestListeners.add(this.dataAvailabilityCatalog::onIngest);
     }
 
     public XPathExtractor getActionExtractor() {
@@ -256,9 +274,17 @@ public class MessageStorage implements AutoCloseable {
                 return;
             }
 
+            final boolean isMessage = message instanceof Message;
+            if (isMessage) {
+                // counted before it can be written, the catalog must not appear complete in the meantime
+                this.dataAvailabilityCatalog.onMessageQueued();
+            }
             try {
                 this.messageQueue.put(message);
             } catch (final InterruptedException e) {
+                if (isMessage) {
+                    this.dataAvailabilityCatalog.onMessageDropped();
+                }
                 LOG.error("unable to put message content into queue", e);
                 testRunObserver.invalidateTestRun(e);
             }
@@ -267,10 +293,78 @@ public class MessageStorage implements AutoCloseable {
         }
     }
 
+    /**
+     * Registers a listener which is notified about every message content before it is written to the database.
+     *
+     * <p>
+     * Listeners are called from the database interaction threads, possibly concurrently, and must therefore be
+     * thread-safe. Exceptions thrown by a listener are logged and do not prevent the message from being stored.
+     *
+     * @param listener to notify about ingested message contents
+     */
+    public void addIngestListener(final Consumer<MessageContent> listener) {
+        this.ingestListeners.add(listener);
+    }
+
+    /**
+     * Subscribes to the messages ingested from now on.
+     *
+     * <p>
+     * Matching messages are handed to the subscription before they are written to the database. While a subscription
+     * is awaited, the database interaction threads do not hold back received messages until their buffer is full, so
+     * that messages reach the subscription within milliseconds instead of only after the next {@linkplain #flush()}.
+     *
+     * @param filter messages have to match in order to be handed to the subscription, called from the database
+     *               interaction threads
+     * @return the subscription, which has to be closed once it is no longer needed
+     */
+    public MessageSubscription subscribe(final java.util.function.Predicate<MessageContent> filter) {
+        final var subscription = new MessageSubscription(filter, this.messageSubscriptions::remove);
+        this.messageSubscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Waits for a message matching the predicate to be ingested.
+     *
+     * <p>
+     * Only messages ingested after calling this method are considered. To await a message caused by an action, use
+     * {@linkplain #subscribe(java.util.function.Predicate)} before performing the action instead.
+     *
+     * @param predicate the message has to match
+     * @param timeout   maximum time to wait
+     * @return the first matching message, empty if none has been ingested within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Optional<MessageContent> await(
+            final java.util.function.Predicate<MessageContent> predicate, final Duration timeout)
+            throws InterruptedException {
+        try (final var subscription = subscribe(predicate)) {
+            return subscription.await(timeout);
+        }
+    }
+
     public XMLInputFactory getXmlInputFactory() {
         return xmlInputFactory;
     }
 
+    public DataAvailabilityCatalog getDataAvailabilityCatalog() {
+        return dataAvailabilityCatalog;
+    }
+
+    /**
+     * Creates an extractor for the attributes of elements in stored message bodies, which does not require
+     * unmarshalling the messages.
+     *
+     * @param elementName      name of the elements to extract
+     * @param childElementName name of the direct children to extract for each element, null if not needed
+     * @return a new extractor using the stream reader configuration of this storage
+     */
+    public StreamingAttributeExtractor createAttributeExtractor(
+            final QName elementName, @Nullable final QName childElementName) {
+        return new StreamingAttributeExtractor(xmlInputFactory, elementName, childElementName);
+    }
+
     protected MessageContent convertMessageToMessageContent(final Message message) {
         boolean isSOAP = false;
         String body = "";
@@ -554,7 +648,7 @@ public class MessageStorage implements AutoCloseable {
                 if (!SDC_MIME_TYPES.contains(mimeType)) {
                     if (summarizeMessageEncodingErrors) {
                         // TestRun will be invalidated in TestSuite if invalidMimeTypeCount > 0
-                        this.invalidMimeTypeCount++;
+                        this.invalidMimeTypeCount.incrementAndGet();
                     } else {
                         this.testRunObserver.invalidateTestRun(String.format(
                                 "encountered a SOAP Envelope whose mimeType '%s' (declared in its "
@@ -1500,6 +1594,158 @@ public class MessageStorage implements AutoCloseable {
         return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery), present);
     }
 
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames, belong to the given
+     * SequenceId and have an MdibVersion greater than or equal to the given minimum.
+     *
+     * <p>
+     * Filtering is done by the database using the persisted {@linkplain MdibVersionGroupEntity}s, messages of other
+     * sequences or with lower versions are never loaded. Messages are sorted by MdibVersion on the inner join result
+     * or, if the MdibVersion is the same, are sorted in ascending order of the code points of the name of the body
+     * types.
+     *
+     * @param sequenceId         SequenceId attribute value to filter for
+     * @param minimumMdibVersion lowest MdibVersion attribute value to retrieve, inclusive
+     * @param bodyTypes          to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+            final String sequenceId, final long minimumMdibVersion, final QName... bodyTypes) throws IOException {
+        return this.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionRange(
+                sequenceId, minimumMdibVersion, null, true, bodyTypes);
+    }
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames, belong to the given
+     * SequenceId and have an MdibVersion greater than or equal to the given version.
+     *
+     * <p>
+     * Filtering is done by the database using the persisted {@linkplain MdibVersionGroupEntity}s. Messages are
+     * sorted by MdibVersion on the inner join result or, if the MdibVersion is the same, by their timestamp.
+     *
+     * @param sequenceId  SequenceId attribute value to filter for
+     * @param mdibVersion lowest MdibVersion attribute value to retrieve, inclusive
+     * @param bodyTypes   to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeSequenceIdAndMdibVersionAtLeast(
+            final String sequenceId, final long mdibVersion, final QName... bodyTypes) throws IOException {
+        return this.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionRange(
+                sequenceId, mdibVersion, null, false, bodyTypes);
+    }
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames, belong to the given
+     * SequenceId and have an MdibVersion less than the given version.
+     *
+     * <p>
+     * Filtering is done by the database using the persisted {@linkplain MdibVersionGroupEntity}s. Messages are
+     * sorted by MdibVersion on the inner join result or, if the MdibVersion is the same, by their timestamp.
+     *
+     * @param sequenceId  SequenceId attribute value to filter for
+     * @param mdibVersion MdibVersion attribute value all retrieved messages are lower than, exclusive
+     * @param bodyTypes   to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeSequenceIdAndMdibVersionLessThan(
+            final String sequenceId, final long mdibVersion, final QName... bodyTypes) throws IOException {
+        return this.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionRange(
+                sequenceId, null, mdibVersion, false, bodyTypes);
+    }
+
+    private GetterResult<MessageContent> getInboundMessagesByBodyTypeSequenceIdAndMdibVersionRange(
+            final String sequenceId,
+            @Nullable final Long minimumMdibVersion,
+            @Nullable final Long maximumMdibVersion,
+            final boolean sortByBodyType,
+            final QName... bodyTypes)
+            throws IOException {
+        if (this.closed.get()) {
+            LOG.error(GET_INBOUND_MESSAGE_BY_MDIB_VERSION_CALLED_ON_CLOSED_STORAGE);
+            throw new IOException(GET_INBOUND_MESSAGE_BY_MDIB_VERSION_CALLED_ON_CLOSED_STORAGE);
+        }
+
+        for (final QName qname : bodyTypes) {
+            if (!this.checkElementSupportsMdibVersionSorting(qname)) {
+                final String localErrorMessage = String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
+                this.testRunObserver.invalidateTestRun(localErrorMessage);
+                throw new UnsupportedOperationException(localErrorMessage);
+            }
+        }
+
+        final CriteriaQuery<MessageContent> messageContentQuery;
+        try (final Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            messageContentQuery = criteriaBuilder.createQuery(MessageContent.class);
+            final Root<MessageContent> messageContentRoot = messageContentQuery.from(MessageContent.class);
+            messageContentQuery.select(messageContentRoot);
+
+            final Subquery<MdibVersionGroupEntity> mdibVersionGroupSubQuery =
+                    messageContentQuery.subquery(MdibVersionGroupEntity.class);
+            final Root<MdibVersionGroupEntity> mdibVersionGroupEntityRoot =
+                    mdibVersionGroupSubQuery.from(MdibVersionGroupEntity.class);
+            mdibVersionGroupSubQuery.select(mdibVersionGroupEntityRoot);
+            final List<Predicate> bodyElementPredicates = new ArrayList<>();
+
+            for (final QName bodyElement : bodyTypes) {
+                bodyElementPredicates.add(criteriaBuilder.equal(
+                        mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.bodyElement), bodyElement.toString()));
+            }
+
+            final List<Predicate> groupPredicates = new ArrayList<>();
+            groupPredicates.add(criteriaBuilder.equal(
+                    mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.messageContent),
+                    messageContentRoot.get(MessageContent_.incId)));
+            groupPredicates.add(criteriaBuilder.equal(
+                    mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.sequenceId), sequenceId));
+            if (minimumMdibVersion != null) {
+                groupPredicates.add(criteriaBuilder.ge(
+                        mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.mdibVersion), minimumMdibVersion));
+            }
+            if (maximumMdibVersion != null) {
+                groupPredicates.add(criteriaBuilder.lt(
+                        mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.mdibVersion), maximumMdibVersion));
+            }
+            groupPredicates.add(criteriaBuilder.or(bodyElementPredicates.toArray(new Predicate[0])));
+            mdibVersionGroupSubQuery.where(criteriaBuilder.and(groupPredicates.toArray(new Predicate[0])));
+
+            messageContentQuery.where(criteriaBuilder.and(
+                    criteriaBuilder.equal(
+                            messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
+                    criteriaBuilder.exists(mdibVersionGroupSubQuery)));
+
+            if (sortByBodyType) {
+                messageContentQuery.orderBy(
+                        criteriaBuilder.asc(messageContentRoot
+                                .join(MessageContent_.mdibVersionGroups)
+                                .get(MdibVersionGroupEntity_.mdibVersion)),
+                        // also sort by body type to ensure that DescriptionModificationReports are placed
+                        // before EpisodicReports.
+                        criteriaBuilder.asc(messageContentRoot
+                                .join(MessageContent_.mdibVersionGroups)
+                                .get(MdibVersionGroupEntity_.bodyElement)));
+            } else {
+                messageContentQuery.orderBy(
+                        criteriaBuilder.asc(messageContentRoot
+                                .join(MessageContent_.mdibVersionGroups)
+                                .get(MdibVersionGroupEntity_.mdibVersion)),
+                        criteriaBuilder.asc(messageContentRoot.get(MessageContent_.nanoTimestamp)));
+            }
+        }
+
+        final boolean present;
+        try (final Stream<MessageContent> countingStream = this.getOrderedQueryResult(messageContentQuery)) {
+            present = countingStream.findAny().isPresent();
+        }
+
+        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery), present);
+    }
+
     /**
      * Retrieves all incoming messages which match any of the provided body element QNames.
      *
@@ -1980,6 +2226,7 @@ public class MessageStorage implements AutoCloseable {
                 final var entry = results.get(i);
                 if (entry instanceof Message) {
                     final MessageContent content = convertMessageToMessageContent((Message) entry);
+                    notifyIngestListeners(content);
                     session.save(content);
                 } else if (entry instanceof ManipulationInfo) {
                     final ManipulationData content =
@@ -1997,13 +2244,34 @@ public class MessageStorage implements AutoCloseable {
         }
     }
 
+    private void notifyIngestListeners(final MessageContent content) {
+        for (final var listener : ingestListeners) {
+            try {
+                listener.accept(content);
+            } catch (final RuntimeException e) {
+                LOG.error("Ingest listener failed for message {}", content.getUuid(), e);
+            }
+        }
+        for (final var subscription : messageSubscriptions) {
+            try {
+                subscription.offer(content);
+            } catch (final RuntimeException e) {
+                LOG.error("Message subscription filter failed for message {}", content.getUuid(), e);
+            }
+        }
+    }
+
+    private boolean isSubscriptionAwaited() {
+        return messageSubscriptions.stream().anyMatch(MessageSubscription::isAwaited);
+    }
+
     /**
      * Get the number of messages detected by the MessageStorage where the encoding could not be determined.
      *
      * @return the count
      */
     public long getMessageEncodingErrorCount() {
-        return this.messageEncodingErrorCount.getPlain();
+        return this.messageEncodingErrorCount.get();
     }
 
     /**
@@ -2012,7 +2280,7 @@ public class MessageStorage implements AutoCloseable {
      * @return the count
      */
     public long getInvalidMimeTypeErrorCount() {
-        return this.invalidMimeTypeCount;
+        return this.invalidMimeTypeCount.get();
     }
 
     /**
@@ -2117,6 +2385,9 @@ public class MessageStorage implements AutoCloseable {
                     final DatabaseEntry polledElement = messageQueue.poll(100L, TimeUnit.MICROSECONDS);
                     if (polledElement != null) {
                         results.add(polledElement);
+                    } else if (!results.isEmpty() && isSubscriptionAwaited() && !this.flushEvent.get()) {
+                        // messages are awaited, do not hold them back until the buffer is full
+                        break;
                     }
 
                     if (this.flushEvent.get()) {
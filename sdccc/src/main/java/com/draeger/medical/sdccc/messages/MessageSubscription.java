@@ -0,0 +1,115 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Subscription to the messages ingested by the {@linkplain MessageStorage}, created using
+ * {@linkplain MessageStorage#subscribe(Predicate)}.
+ *
+ * <p>
+ * Messages matching the filter of the subscription are handed to it by the database interaction threads before they
+ * are written to the database, which allows tests to react to a message as soon as it has been received instead of
+ * flushing the storage and polling the database. While a caller awaits a message, the database interaction threads
+ * do not hold back received messages until their buffer is full. Messages are kept until they are retrieved using
+ * {@linkplain #await(Duration)}, a subscription must therefore be closed once it is no longer needed.
+ */
+public final class MessageSubscription implements AutoCloseable {
+
+    private final Predicate<MessageContent> filter;
+    private final BlockingQueue<MessageContent> messages;
+    private final Consumer<MessageSubscription> onClose;
+    private final AtomicInteger waitingCallers;
+
+    MessageSubscription(final Predicate<MessageContent> filter, final Consumer<MessageSubscription> onClose) {
+        this.filter = filter;
+        this.messages = new LinkedBlockingQueue<>();
+        this.onClose = onClose;
+        this.waitingCallers = new AtomicInteger();
+    }
+
+    /**
+     * Hands an ingested message to the subscription, it is kept if it matches the filter.
+     *
+     * @param messageContent ingested message content
+     */
+    void offer(final MessageContent messageContent) {
+        if (filter.test(messageContent)) {
+            messages.add(messageContent);
+        }
+    }
+
+    /**
+     * Determines whether a caller is currently waiting for a message.
+     *
+     * @return true if messages are awaited, false otherwise
+     */
+    boolean isAwaited() {
+        return waitingCallers.get() > 0;
+    }
+
+    /**
+     * Waits for the next message matching the filter of the subscription.
+     *
+     * @param timeout maximum time to wait
+     * @return the next matching message in the order of ingestion, empty if none has been ingested within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Optional<MessageContent> await(final Duration timeout) throws InterruptedException {
+        waitingCallers.incrementAndGet();
+        try {
+            return Optional.ofNullable(messages.poll(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        } finally {
+            waitingCallers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for the next message matching both the filter of the subscription and the given predicate, messages not
+     * matching the predicate are discarded.
+     *
+     * @param predicate the message has to match
+     * @param timeout   maximum time to wait
+     * @return the first message matching the predicate, empty if none has been ingested within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Optional<MessageContent> await(final Predicate<MessageContent> predicate, final Duration timeout)
+            throws InterruptedException {
+        final long end = System.nanoTime() + timeout.toNanos();
+        long remaining = timeout.toNanos();
+        waitingCallers.incrementAndGet();
+        try {
+            while (remaining > 0) {
+                final var message = messages.poll(remaining, TimeUnit.NANOSECONDS);
+                if (message != null && predicate.test(message)) {
+                    return Optional.of(message);
+                }
+                remaining = end - System.nanoTime();
+            }
+            return Optional.empty();
+        } finally {
+            waitingCallers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops handing messages to the subscription, messages which have already been handed to it remain available.
+     */
+    @Override
+    public void close() {
+        onClose.accept(this);
+    }
+}
@@ -7,6 +7,9 @@
 package com.draeger.medical.sdccc.messages.mapping;
 
 import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,6 +28,7 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import org.apache.commons.io.input.CharSequenceInputStream;
 import org.hibernate.annotations.GenericGenerator;
 import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.soap.CommunicationContext;
@@ -48,6 +52,8 @@ public class MessageContent {
     @Column(columnDefinition = "clob", length = MAXIMUM_LENGTH)
     private String body;
 
+    private long bodyLength;
+
     @ElementCollection
     @Column(columnDefinition = "blob", length = MAXIMUM_LENGTH)
     private List<X509Certificate> certs;
@@ -123,6 +129,7 @@ public class MessageContent {
         this.sender = sender;
 
         this.messageHash = MessageUtil.hashMessage(this.body);
+        this.bodyLength = MessageUtil.utf8Length(this.body);
         this.scheme = communicationContext.getTransportInfo().getScheme();
 
         this.certs = communicationContext.getTransportInfo().getX509Certificates();
@@ -156,6 +163,29 @@ public class MessageContent {
         return this.body;
     }
 
+    /**
+     * Opens a stream of the UTF-8 representation of the body.
+     *
+     * <p>
+     * The body is encoded while the stream is read, avoiding an additional copy of the whole body.
+     *
+     * @return a new stream of the body bytes
+     * @throws IOException if the stream cannot be opened
+     */
+    public InputStream openBodyStream() throws IOException {
+        return CharSequenceInputStream.builder()
+                .setCharSequence(this.body)
+                .setCharset(StandardCharsets.UTF_8)
+                .get();
+    }
+
+    /**
+     * @return number of bytes of the UTF-8 representation of the body, as determined when storing the message
+     */
+    public long getBodyLength() {
+        return this.bodyLength;
+    }
+
     public String getScheme() {
         return this.scheme;
     }
@@ -6,6 +6,7 @@
 
 package com.draeger.medical.sdccc.messages.util;
 
+import com.google.common.base.Utf8;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -39,6 +40,21 @@ public final class MessageUtil {
         }
     }
 
+    /**
+     * Determines the length of a string encoded in UTF-8 without encoding it.
+     *
+     * @param data string to determine the encoded length of
+     * @return number of bytes of the UTF-8 representation of the string
+     */
+    public static long utf8Length(final String data) {
+        try {
+            return Utf8.encodedLength(data);
+        } catch (final IllegalArgumentException e) {
+            // unpaired surrogates are replaced when encoding
+            return data.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
     private static String bytesToHex(final byte[] hash) {
         final StringBuilder hexString = new StringBuilder();
         for (final byte b : hash) {
@@ -6,6 +6,7 @@
 
 package com.draeger.medical.sdccc.sdcri.testclient;
 
+import com.draeger.medical.sdccc.configuration.DefaultTestSuiteConfig;
 import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.sdcri.CommunicationLogMessageStorage;
@@ -100,6 +101,16 @@ public class TestClientUtil {
      *                                       Values from 1 to 255 are valid.
      * @param enabledTlsProtocols            TLS protocol versions to be enabled
      * @param enabledCiphers                 ciphers to be enabled
+     * @param decodedMessageCacheMaxEntries  maximum number of entries of the decoded message cache
+     * @param decodedMessageCacheMaxWeight   maximum summed body length of the decoded message cache
+     * @param decodedMessageCacheSoftValues  whether the decoded message cache shall use soft references
+     * @param decodingThreads                number of threads used for decoding messages in parallel
+     * @param checkpointIntervalReports      number of reports after which an mdib checkpoint is written
+     * @param checkpointIntervalSeconds      seconds of received reports after which an mdib checkpoint is written
+     * @param sequenceReplayThreads          number of threads replaying the histories of different sequences
+     * @param decodeAheadReports             whether reports are decoded ahead of being applied during replays
+     * @param copyFreeReplays                whether mdibs replayed for shared histories hand out stored entities
+     * @param verifyReplayImmutability       whether shared history versions are checked for modifications
      * @param configurationModule            configuration for AbstractConfigurationModule
      */
     @Inject
@@ -111,6 +122,16 @@ public class TestClientUtil {
             @Named(TestSuiteConfig.NETWORK_MULTICAST_TTL) final Long multicastTTL,
             @Named(TestSuiteConfig.TLS_ENABLED_PROTOCOLS) final String[] enabledTlsProtocols,
             @Named(TestSuiteConfig.TLS_ENABLED_CIPHERS) final String[] enabledCiphers,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES) final Long decodedMessageCacheMaxEntries,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT) final Long decodedMessageCacheMaxWeight,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_SOFT_VALUES) final Boolean decodedMessageCacheSoftValues,
+            @Named(TestSuiteConfig.DECODING_THREADS) final Long decodingThreads,
+            @Named(TestSuiteConfig.CHECKPOINT_INTERVAL_REPORTS) final Long checkpointIntervalReports,
+            @Named(TestSuiteConfig.CHECKPOINT_INTERVAL_SECONDS) final Long checkpointIntervalSeconds,
+            @Named(TestSuiteConfig.SEQUENCE_REPLAY_THREADS) final Long sequenceReplayThreads,
+            @Named(TestSuiteConfig.DECODE_AHEAD_REPORTS) final Boolean decodeAheadReports,
+            @Named(TestSuiteConfig.COPY_FREE_REPLAYS) final Boolean copyFreeReplays,
+            @Named(TestSuiteConfig.VERIFY_REPLAY_IMMUTABILITY) final Boolean verifyReplayImmutability,
             @Named(Constants.CONFIGURATION_MODULE) final AbstractConfigurationModule configurationModule) {
 
         injector = createClientInjector(List.of(
@@ -127,6 +148,25 @@ public class TestClientUtil {
                         bind(DpwsConfig.HTTPS_SUPPORT, Boolean.class, true);
                         bind(DpwsConfig.HTTP_SUPPORT, Boolean.class, false);
                         bind(DpwsConfig.MULTICAST_TTL, Integer.class, multicastTTL.intValue());
+                        bind(
+                                TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES,
+                                Long.class,
+                                decodedMessageCacheMaxEntries);
+                        bind(
+                                TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT,
+                                Long.class,
+                                decodedMessageCacheMaxWeight);
+                        bind(
+                                TestSuiteConfig.DECODED_MESSAGE_CACHE_SOFT_VALUES,
+                                Boolean.class,
+                                decodedMessageCacheSoftValues);
+                        bind(TestSuiteConfig.DECODING_THREADS, Long.class, decodingThreads);
+                        bind(TestSuiteConfig.CHECKPOINT_INTERVAL_REPORTS, Long.class, checkpointIntervalReports);
+                        bind(TestSuiteConfig.CHECKPOINT_INTERVAL_SECONDS, Long.class, checkpointIntervalSeconds);
+                        bind(TestSuiteConfig.SEQUENCE_REPLAY_THREADS, Long.class, sequenceReplayThreads);
+                        bind(TestSuiteConfig.DECODE_AHEAD_REPORTS, Boolean.class, decodeAheadReports);
+                        bind(TestSuiteConfig.COPY_FREE_REPLAYS, Boolean.class, copyFreeReplays);
+                        bind(TestSuiteConfig.VERIFY_REPLAY_IMMUTABILITY, Boolean.class, verifyReplayImmutability);
                     }
                 },
                 new AbstractModule() {
@@ -285,6 +325,13 @@ public class TestClientUtil {
                         bind(DpwsConfig.ENFORCE_HTTP_CHUNKED_TRANSFER, Boolean.class, true);
                     }
                 },
+                new DefaultTestSuiteConfig() {
+                    @Override
+                    protected void defaultConfigure() {
+                        // only the settings consumed by utilities living in the client injector
+                        configureInvariantSettings();
+                    }
+                },
                 new AbstractModule() {
                     @Override
                     protected void configure() {
@@ -6,28 +6,36 @@
 
 package com.draeger.medical.sdccc.tests;
 
+import com.draeger.medical.sdccc.messages.DataAvailabilityCatalog;
+import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.google.inject.Injector;
 import java.util.Collection;
+import java.util.function.ToLongFunction;
 import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * Base class for SDCcc requirement tests.
+ *
+ * <p>
+ * All tests share the same injector, which is set up once before executing any test. Invariant test classes may be
+ * executed concurrently, tests must therefore not keep mutable state in static fields or in the shared singletons.
  */
 public class InjectorTestBase {
     private static final Logger LOG = LogManager.getLogger(InjectorTestBase.class);
-    private static Injector injector;
+    private static volatile Injector injector;
 
     /**
      * @return the SDCcc guice injector
      */
     public static Injector getInjector() {
-        if (injector == null) {
+        final var currentInjector = injector;
+        if (currentInjector == null) {
             throw new RuntimeException("Injector has not been set up");
         }
-        return injector;
+        return currentInjector;
     }
 
     /**
@@ -84,6 +92,24 @@ public class InjectorTestBase {
         }
     }
 
+    /**
+     * Asserts whether the data a test requires may have been stored, using the counts of the
+     * {@linkplain DataAvailabilityCatalog} instead of querying the message storage.
+     *
+     * <p>
+     * Intended to be called before retrieving any messages, so that tests without test data do not scan the storage.
+     * As long as the catalog is not complete, the data is assumed to be available.
+     *
+     * @param count   retrieves the number of relevant items from the catalog
+     * @param message the message to display on failure
+     * @throws NoTestData thrown if the catalog is complete and the count is zero
+     */
+    public void assertTestDataAvailable(final ToLongFunction<DataAvailabilityCatalog> count, final String message)
+            throws NoTestData {
+        final var catalog = getInjector().getInstance(MessageStorage.class).getDataAvailabilityCatalog();
+        assertTestData(!catalog.isComplete() || count.applyAsLong(catalog) > 0, message);
+    }
+
     /**
      * Asserts whether the provided value is not null.
      *
@@ -0,0 +1,41 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to add to invariant test cases which require reports to have been received, regardless of any
+ * manipulation.
+ *
+ * <p>
+ * When collecting data adaptively, SDCcc collects data until the reports required by all enabled test cases have been
+ * received.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireReports {
+    /**
+     * @return local names of the report bodies in the BICEPS message namespace, reports of any of them are counted
+     *         unless {@linkplain #all()} is set
+     */
+    String[] value();
+
+    /**
+     * @return number of reports required
+     */
+    long minimumCount() default 1;
+
+    /**
+     * @return true if the minimum count is required for each of the reports, false if reports of any of them count
+     *         towards the same minimum
+     */
+    boolean all() default false;
+}
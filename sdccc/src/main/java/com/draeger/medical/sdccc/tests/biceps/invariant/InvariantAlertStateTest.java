@@ -75,7 +75,7 @@ public class InvariantAlertStateTest extends InjectorTestBase {
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
 
         final var presenceOnSeen = new AtomicInteger(0);
-        mdibHistorian.processAllRemoteMdibAccess(mdibAccess -> {
+        mdibHistorian.processAllVersions(mdibAccess -> {
             final var alertConditionStates = mdibAccess.getStatesByType(AlertConditionState.class);
             for (var alertConditionState : alertConditionStates) {
                 final var isPresence = ImpliedValueUtil.isPresence(alertConditionState);
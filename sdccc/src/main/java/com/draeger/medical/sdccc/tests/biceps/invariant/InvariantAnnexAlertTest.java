@@ -19,6 +19,7 @@ import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.VersionedMdib;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import java.io.IOException;
@@ -31,7 +32,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.participant.AlertActivation;
 import org.somda.sdc.biceps.model.participant.AlertSignalDescriptor;
 import org.somda.sdc.biceps.model.participant.AlertSignalManifestation;
@@ -70,7 +70,7 @@ public class InvariantAnnexAlertTest extends InjectorTestBase {
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var alertSystemStates = first.getStatesByType(AlertSystemState.class);
 
             for (var alertSystemState : alertSystemStates) {
@@ -133,7 +133,7 @@ public class InvariantAnnexAlertTest extends InjectorTestBase {
     }
 
     private Map<AlertSignalDescriptor, AlertSignalState> getChildAlertSignals(
-            final RemoteMdibAccess first, final String descriptorHandle) {
+            final VersionedMdib first, final String descriptorHandle) {
         final var childAlertSignals = new HashMap<AlertSignalDescriptor, AlertSignalState>();
         final var children = first.getEntity(descriptorHandle).orElseThrow().getChildren();
         for (var child : children) {
@@ -18,6 +18,7 @@ import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.VersionedMdib;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import java.io.IOException;
@@ -28,7 +29,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.common.MdibEntity;
-import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.participant.AbstractAlertDescriptor;
 import org.somda.sdc.biceps.model.participant.AbstractAlertState;
 import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
@@ -75,7 +75,7 @@ public class InvariantDeviceComponentStateTest extends InjectorTestBase {
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        mdibHistorian.processAllVersions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(AbstractDeviceComponentDescriptor.class);
 
             for (var entity : entities) {
@@ -151,7 +151,7 @@ public class InvariantDeviceComponentStateTest extends InjectorTestBase {
     }
 
     private List<MdibEntity> getDescendantsByType(
-            final RemoteMdibAccess remoteMdibAccess,
+            final VersionedMdib remoteMdibAccess,
             final String entityHandle,
             final Class<? extends AbstractDescriptor> type) {
 
@@ -22,17 +22,17 @@ import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
+import com.draeger.medical.sdccc.tests.util.DecodedMessageCache;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValue;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValueException;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.VersionedMdib;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -41,11 +41,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.util.TriConsumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.common.CommonConstants;
 import org.somda.sdc.biceps.common.storage.PreprocessingException;
 import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.message.AbstractReport;
@@ -70,9 +73,6 @@ import org.somda.sdc.biceps.model.participant.MdsDescriptor;
 import org.somda.sdc.biceps.model.participant.ScoDescriptor;
 import org.somda.sdc.biceps.model.participant.SystemContextDescriptor;
 import org.somda.sdc.biceps.model.participant.VmdDescriptor;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapMessage;
-import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
 import org.somda.sdc.glue.consumer.report.ReportProcessingException;
 
@@ -81,8 +81,13 @@ import org.somda.sdc.glue.consumer.report.ReportProcessingException;
  */
 public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     private static final String STATE_UNCHANGED = "The state with the handle %s from the report has not changed";
-    private MarshallingService marshalling;
-    private SoapUtil soapUtil;
+    private static final QName REPORT_PART = new QName(CommonConstants.NAMESPACE_MESSAGE, "ReportPart");
+    private static final QName REPORT_PART_DESCRIPTOR = new QName(CommonConstants.NAMESPACE_MESSAGE, "Descriptor");
+    private static final QName MDS_DESCRIPTOR = new QName(CommonConstants.NAMESPACE_PARTICIPANT, "MdsDescriptor");
+    private static final QName MODIFICATION_TYPE = new QName("ModificationType");
+    private static final QName PARENT_DESCRIPTOR = new QName("ParentDescriptor");
+    private static final QName HANDLE = new QName("Handle");
+    private DecodedMessageCache decodedMessageCache;
     private MessageStorage messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
 
@@ -91,8 +96,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
         this.messageStorage = getInjector().getInstance(MessageStorage.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
-        this.marshalling = riInjector.getInstance(MarshallingService.class);
-        this.soapUtil = riInjector.getInstance(SoapUtil.class);
+        this.decodedMessageCache = riInjector.getInstance(DecodedMessageCache.class);
     }
 
     @Test
@@ -106,7 +110,12 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             + "of its ReportPart is set.")
     @RequirePrecondition(simplePreconditions = ConditionalPreconditions.DescriptionModificationCrtPrecondition.class)
     void testRequirementR00550() throws NoTestData {
+        final String noTestDataMessage = "No DescriptionModificationReport with ReportParts with "
+                + "ModificationType=Crt seen during test run, test failed.";
+        assertTestDataAvailable(
+                catalog -> catalog.getDescriptionModificationCount(DescriptionModificationType.CRT), noTestDataMessage);
         final var acceptableReportPartSeen = new AtomicInteger(0);
+        final var reportPartExtractor = messageStorage.createAttributeExtractor(REPORT_PART, REPORT_PART_DESCRIPTOR);
 
         // get DescriptionModification reports
         try (final var reports =
@@ -114,41 +123,38 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             for (final Iterator<MessageContent> iterator = reports.getStream().iterator(); iterator.hasNext(); ) {
 
                 final MessageContent messageContent = iterator.next();
-                final SoapMessage soapMessage = marshalling.unmarshal(
-                        new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                final Optional<DescriptionModificationReport> reportOpt =
-                        soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
-                final DescriptionModificationReport descriptionModificationReport = reportOpt.orElseThrow();
-
-                for (var reportPart : descriptionModificationReport.getReportPart()) {
-                    if (DescriptionModificationType.CRT.equals(ImpliedValueUtil.getModificationType(reportPart))) {
-                        acceptableReportPartSeen.incrementAndGet();
-
-                        for (var createdDescriptor : reportPart.getDescriptor()) {
-                            if (!(createdDescriptor instanceof MdsDescriptor)) {
-                                final String parentDescriptor = reportPart.getParentDescriptor();
-                                assertTrue(
-                                        parentDescriptor != null && !parentDescriptor.isBlank(),
-                                        String.format(
-                                                "msg:DescriptionModificationReport/msg:ReportPart/"
-                                                        + "@ParentDescriptor attribute is not set for a ReportPart "
-                                                        + "with @ModificationType = \"Crt\" that contains "
-                                                        + "AbstractDescriptors that are not MdsDescriptors"
-                                                        + "(for instance: %s).",
-                                                createdDescriptor.getHandle()));
-                            }
+                reportPartExtractor.extractFrom(messageContent, reportPart -> {
+                    // ModificationType defaults to "Upt"
+                    if (!DescriptionModificationType.CRT
+                            .value()
+                            .equals(reportPart.getAttribute(MODIFICATION_TYPE).orElse(null))) {
+                        return;
+                    }
+                    acceptableReportPartSeen.incrementAndGet();
+
+                    for (var createdDescriptor : reportPart.children()) {
+                        if (!createdDescriptor.type().map(MDS_DESCRIPTOR::equals).orElse(false)) {
+                            final String parentDescriptor = reportPart
+                                    .getAttribute(PARENT_DESCRIPTOR)
+                                    .orElse(null);
+                            assertTrue(
+                                    parentDescriptor != null && !parentDescriptor.isBlank(),
+                                    String.format(
+                                            "msg:DescriptionModificationReport/msg:ReportPart/"
+                                                    + "@ParentDescriptor attribute is not set for a ReportPart "
+                                                    + "with @ModificationType = \"Crt\" that contains "
+                                                    + "AbstractDescriptors that are not MdsDescriptors"
+                                                    + "(for instance: %s).",
+                                            createdDescriptor.getAttribute(HANDLE).orElse(null)));
                         }
                     }
-                }
+                });
             }
-        } catch (IOException | MarshallingException e) {
+        } catch (IOException | XMLStreamException e) {
             fail("Unexpected Exception", e);
         }
 
-        assertTestData(
-                acceptableReportPartSeen.get(),
-                "No DescriptionModificationReport with ReportParts with "
-                        + "ModificationType=Crt seen during test run, test failed.");
+        assertTestData(acceptableReportPartSeen.get(), noTestDataMessage);
     }
 
     @Test
@@ -166,7 +172,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
         final Predicate<AbstractReport> isDescriptionModificationReport =
                 report -> report instanceof DescriptionModificationReport;
 
-        final TriConsumer<RemoteMdibAccess, RemoteMdibAccess, AbstractReport> reportProcessor =
+        final TriConsumer<VersionedMdib, VersionedMdib, AbstractReport> reportProcessor =
                 (first, second, report) -> {
                     acceptableSequenceSeen.incrementAndGet();
 
@@ -239,16 +245,19 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     @RequirePrecondition(
             simplePreconditions = ConditionalPreconditions.DescriptionModificationMdsDescriptorPrecondition.class)
     void testRequirementC7() throws NoTestData, IOException, MarshallingException {
+        final String noTestDataMessage =
+                "No DescriptionModificationReport containing MdsDescriptors seen during test run, test failed.";
+        assertTestDataAvailable(
+                catalog -> catalog.getInboundMessageCount(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT),
+                noTestDataMessage);
         final var acceptableReportsSeen = new AtomicInteger(0);
 
         try (final MessageStorage.GetterResult<MessageContent> descriptionModificationReports =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             for (MessageContent messageContent :
                     descriptionModificationReports.getStream().toList()) {
-                final SoapMessage soapMessage = marshalling.unmarshal(
-                        new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                final DescriptionModificationReport descriptionModificationReport = soapUtil.getBody(
-                                soapMessage, DescriptionModificationReport.class)
+                final DescriptionModificationReport descriptionModificationReport = decodedMessageCache
+                        .getBody(messageContent, DescriptionModificationReport.class)
                         .orElseThrow();
 
                 for (DescriptionModificationReport.ReportPart reportPart :
@@ -267,9 +276,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             }
         }
 
-        assertTestData(
-                acceptableReportsSeen.get(),
-                "No DescriptionModificationReport containing MdsDescriptors seen during test run, test failed.");
+        assertTestData(acceptableReportsSeen.get(), noTestDataMessage);
     }
 
     @Test
@@ -279,15 +286,19 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     @RequirePrecondition(
             simplePreconditions = {ConditionalPreconditions.TriggerDescriptionModificationReportPrecondition.class})
     void testRequirementR5024() throws NoTestData, IOException {
+        final String noTestDataMessage =
+                "No Descriptors in DescriptionModificationReports seen during test run, test failed.";
+        assertTestDataAvailable(
+                catalog -> catalog.getInboundMessageCount(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT),
+                noTestDataMessage);
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var descriptorsSeen = new AtomicInteger(0);
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
+                    final var reportOpt =
+                            decodedMessageCache.getBody(messageContent, DescriptionModificationReport.class);
                     if (reportOpt.isPresent()) {
                         for (var part : reportOpt.orElseThrow().getReportPart()) {
                             for (var descriptor : part.getDescriptor()) {
@@ -301,9 +312,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
                 }
             });
 
-            assertTestData(
-                    descriptorsSeen.get(),
-                    "No Descriptors in DescriptionModificationReports seen during test run, test failed.");
+            assertTestData(descriptorsSeen.get(), noTestDataMessage);
         }
     }
 
@@ -325,9 +334,8 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
+                    final var reportOpt =
+                            decodedMessageCache.getBody(messageContent, DescriptionModificationReport.class);
                     reportOpt.ifPresent(descriptionModificationReport ->
                             checkOrderOfReportParts(descriptionModificationReport, descriptorsSeen));
                 } catch (MarshallingException e) {
@@ -495,6 +503,11 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             + " of the respective descriptor.")
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationCrtPrecondition.class})
     void testRequirementR5051() throws NoTestData, IOException {
+        final String noTestDataMessage =
+                "No report parts with description modification type crt seen during test run, test failed";
+        assertTestDataAvailable(
+                catalog -> catalog.getDescriptionModificationCount(DescriptionModificationType.CRT),
+                noTestDataMessage);
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
 
@@ -502,9 +515,8 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             final var impliedValueMap = new HashMap<String, InitialImpliedValue>();
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
+                    final var reportOpt =
+                            decodedMessageCache.getBody(messageContent, DescriptionModificationReport.class);
                     final var crtReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
                                     ImpliedValueUtil.getModificationType(part).equals(DescriptionModificationType.CRT))
@@ -546,9 +558,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
                 }
             });
 
-            assertTestData(
-                    acceptableSequenceSeen.get(),
-                    "No report parts with description modification type crt seen during test run, test failed");
+            assertTestData(acceptableSequenceSeen.get(), noTestDataMessage);
         }
     }
 
@@ -559,6 +569,11 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             + " of their descriptor.")
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationUptPrecondition.class})
     void testRequirementR5052() throws NoTestData, IOException {
+        final String noTestDataMessage =
+                "No report parts with description modification type upt seen during test run, test failed";
+        assertTestDataAvailable(
+                catalog -> catalog.getDescriptionModificationCount(DescriptionModificationType.UPT),
+                noTestDataMessage);
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var acceptableSequenceSeen = new AtomicInteger(0);
@@ -566,9 +581,8 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             final var impliedValueMap = new HashMap<Object, InitialImpliedValue>();
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
+                    final var reportOpt =
+                            decodedMessageCache.getBody(messageContent, DescriptionModificationReport.class);
                     final var uptReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
                                     ImpliedValueUtil.getModificationType(part).equals(DescriptionModificationType.UPT))
@@ -613,9 +627,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
                 }
             });
 
-            assertTestData(
-                    acceptableSequenceSeen.get(),
-                    "No report parts with description modification type upt seen during test run, test failed");
+            assertTestData(acceptableSequenceSeen.get(), noTestDataMessage);
         }
     }
 
@@ -625,15 +637,19 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             + " seen during the test run and checks if the states are excluded from the message.")
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationDelPrecondition.class})
     void testRequirementR5053() throws NoTestData, IOException {
+        final String noTestDataMessage =
+                "No report parts with description modification type del seen during test run, test failed";
+        assertTestDataAvailable(
+                catalog -> catalog.getDescriptionModificationCount(DescriptionModificationType.DEL),
+                noTestDataMessage);
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var delReportsSeen = new AtomicInteger(0);
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
+                    final var reportOpt =
+                            decodedMessageCache.getBody(messageContent, DescriptionModificationReport.class);
                     final var delReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
                                     ImpliedValueUtil.getModificationType(part).equals(DescriptionModificationType.DEL))
@@ -649,9 +665,7 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
                 }
             });
 
-            assertTestData(
-                    delReportsSeen.get(),
-                    "No report parts with description modification type del seen during test run, test failed");
+            assertTestData(delReportsSeen.get(), noTestDataMessage);
         }
     }
 
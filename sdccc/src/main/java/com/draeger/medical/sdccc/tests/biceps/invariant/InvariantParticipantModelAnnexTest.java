@@ -184,7 +184,7 @@ public class InvariantParticipantModelAnnexTest extends InjectorTestBase {
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var vmdEntities = first.findEntitiesByType(VmdDescriptor.class);
             for (var vmd : vmdEntities) {
                 final var descriptor = vmd.getDescriptor(VmdDescriptor.class);
@@ -25,14 +25,14 @@ import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -87,7 +87,7 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
 
         final AtomicInteger handlesSeen = new AtomicInteger();
 
-        mdibHistorian.processAllRemoteMdibAccess(current -> {
+        mdibHistorian.processAllVersions(current -> {
             final var allEntities = current.findEntitiesByType(AbstractDescriptor.class);
 
             final List<String> entityHandles =
@@ -100,8 +100,7 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
                 allHandles.add(handle);
             }
 
-            final List<AbstractContextState> contextStates =
-                    current.findContextStatesByType(AbstractContextState.class);
+            final List<AbstractContextState> contextStates = current.getStatesByType(AbstractContextState.class);
             final List<String> contextStateHandles =
                     contextStates.stream().map(AbstractMultiState::getHandle).toList();
             for (var cSHandle : contextStateHandles) {
@@ -128,9 +127,10 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
         final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
 
-        final var handlesSeen = new HashSet<String>();
+        // sequences may be processed in parallel
+        final Set<String> handlesSeen = ConcurrentHashMap.newKeySet();
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var mdibVersion = first.getMdibVersion();
             final var allEntities = first.findEntitiesByType(AbstractDescriptor.class);
             for (MdibEntity entity : allEntities) {
@@ -211,12 +211,10 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
 
     private Optional<DescriptionModificationReport> getDescriptionModificationReportFromMessageContent(
             final MessageContent content) {
-        final var body = content.getBody();
-
         final SoapMessage message;
-        try {
-            message = marshalling.unmarshal(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
-        } catch (MarshallingException e) {
+        try (final var body = content.openBodyStream()) {
+            message = marshalling.unmarshal(body);
+        } catch (MarshallingException | IOException e) {
             fail("Could not unmarshal message", e);
             // unreachable, silence warnings
             throw new RuntimeException(e);
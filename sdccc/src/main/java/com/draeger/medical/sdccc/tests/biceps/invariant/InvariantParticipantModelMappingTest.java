@@ -53,7 +53,7 @@ public class InvariantParticipantModelMappingTest extends InjectorTestBase {
 
         final var statesSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var allStates = first.getStatesByType(AbstractState.class);
             for (var state : allStates) {
                 statesSeen.incrementAndGet();
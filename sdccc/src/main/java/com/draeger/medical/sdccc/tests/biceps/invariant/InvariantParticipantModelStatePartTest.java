@@ -7,7 +7,6 @@
 package com.draeger.medical.sdccc.tests.biceps.invariant;
 
 import static com.draeger.medical.sdccc.configuration.TestParameterConfig.BICEPS_547_TIME_INTERVAL;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -31,8 +30,12 @@ import com.draeger.medical.t2iapi.ResponseTypes;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -357,7 +360,7 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
 
     private void testRequirement547(final MetricCategory category, final ComponentActivation activation)
             throws NoTestData {
-        final var successfulManipulationSeen = new AtomicBoolean(false);
+        final Map<String, List<ManipulationData>> manipulationsBySequenceId = new LinkedHashMap<>();
         try (final var manipulations = messageStorage.getManipulationDataByParametersAndManipulation(
                 ManipulationParameterUtil.buildMetricStatusManipulationParameterDataWithoutHandle(category, activation),
                 Constants.MANIPULATION_NAME_SET_METRIC_STATUS)) {
@@ -366,67 +369,66 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
             manipulations
                     .getStream()
                     .filter(it -> it.getResult().equals(ResponseTypes.Result.RESULT_SUCCESS))
-                    .forEachOrdered(it -> {
-                        successfulManipulationSeen.getAndSet(true);
-                        checkAssociatedMetric(it, activation);
-                    });
+                    .forEachOrdered(it -> manipulationsBySequenceId
+                            .computeIfAbsent(
+                                    getManipulationParameter(it, Constants.MANIPULATION_PARAMETER_SEQUENCE_ID),
+                                    sequenceId -> new ArrayList<>())
+                            .add(it));
         } catch (IOException e) {
             fail(e);
             // unreachable
             throw new RuntimeException(e);
         }
-        assertTestData(successfulManipulationSeen.get(), NO_SUCCESSFUL_MANIPULATION);
-    }
-
-    private void checkAssociatedMetric(
-            final ManipulationData manipulationData, final ComponentActivation expectedActivationState) {
-        final var manipulationParameter = manipulationData.getParameters();
-        final var manipulatedHandle = manipulationParameter.stream()
-                .filter(it -> it.getParameterName().equals(Constants.MANIPULATION_PARAMETER_HANDLE))
-                .map(ManipulationParameter::getParameterValue)
-                .findFirst()
-                .orElseThrow();
-        final var sequenceId = manipulationParameter.stream()
-                .filter(it -> it.getParameterName().equals(Constants.MANIPULATION_PARAMETER_SEQUENCE_ID))
-                .map(ManipulationParameter::getParameterValue)
-                .findFirst()
-                .orElseThrow();
+        assertTestData(!manipulationsBySequenceId.isEmpty(), NO_SUCCESSFUL_MANIPULATION);
 
         final var historian = mdibHistorianFactory.createMdibHistorian(
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
+        // the mdibs of all manipulations of a sequence are determined using a single replay
+        manipulationsBySequenceId.forEach((sequenceId, manipulations) -> {
+            try {
+                historian.processUniqueStatesUntilTimestamps(
+                        sequenceId,
+                        manipulations,
+                        manipulation -> manipulation.getFinishTimestamp() + buffer,
+                        (manipulation, mdibBeforeEnd) ->
+                                checkAssociatedMetric(manipulation, mdibBeforeEnd, activation));
+            } catch (ReportProcessingException | PreprocessingException e) {
+                fail(e);
+            }
+        });
+    }
 
-        final var endTimestamp = manipulationData.getFinishTimestamp() + buffer;
-        try (final var history = historian.uniqueEpisodicReportBasedHistoryUntilTimestamp(sequenceId, endTimestamp)) {
-            try (final var historyNext =
-                    historian.uniqueEpisodicReportBasedHistoryUntilTimestamp(sequenceId, endTimestamp)) {
+    private void checkAssociatedMetric(
+            final ManipulationData manipulationData,
+            final Optional<RemoteMdibAccess> mdibBeforeEnd,
+            final ComponentActivation expectedActivationState) {
+        final var manipulatedHandle =
+                getManipulationParameter(manipulationData, Constants.MANIPULATION_PARAMETER_HANDLE);
 
-                RemoteMdibAccess first = history.next();
-                RemoteMdibAccess second = historyNext.next();
-                // skip the first entry so that history and historyNext are off by one entry
-                final var skippedElement = historyNext.next();
-                assertNotNull(skippedElement, String.format(NO_REPORT_IN_TIME, endTimestamp));
+        // last mdib state before the end timestamp
+        final var endTimestamp = manipulationData.getFinishTimestamp() + buffer;
+        assertTrue(mdibBeforeEnd.isPresent(), String.format(NO_REPORT_IN_TIME, endTimestamp));
 
-                // fast-forward to last mdib state before the end timestamp
-                while (second != null) {
-                    first = history.next();
-                    second = historyNext.next();
-                }
-                final var relevantMetricStateOpt = first.getState(manipulatedHandle, AbstractMetricState.class);
-                assertTrue(
-                        relevantMetricStateOpt.isPresent(),
-                        String.format(NO_METRIC_WITH_EXPECTED_HANDLE, manipulatedHandle));
-                final var relevantMetricState = relevantMetricStateOpt.orElseThrow();
-                Assertions.assertEquals(
+        final var relevantMetricStateOpt =
+                mdibBeforeEnd.orElseThrow().getState(manipulatedHandle, AbstractMetricState.class);
+        assertTrue(
+                relevantMetricStateOpt.isPresent(), String.format(NO_METRIC_WITH_EXPECTED_HANDLE, manipulatedHandle));
+        final var relevantMetricState = relevantMetricStateOpt.orElseThrow();
+        Assertions.assertEquals(
+                expectedActivationState,
+                ImpliedValueUtil.getMetricActivation(relevantMetricState),
+                String.format(
+                        WRONG_ACTIVATION_STATE,
+                        manipulatedHandle,
                         expectedActivationState,
-                        ImpliedValueUtil.getMetricActivation(relevantMetricState),
-                        String.format(
-                                WRONG_ACTIVATION_STATE,
-                                manipulatedHandle,
-                                expectedActivationState,
-                                ImpliedValueUtil.getMetricActivation(relevantMetricState)));
-            }
-        } catch (ReportProcessingException | PreprocessingException e) {
-            fail(e);
-        }
+                        ImpliedValueUtil.getMetricActivation(relevantMetricState)));
+    }
+
+    private static String getManipulationParameter(final ManipulationData manipulationData, final String name) {
+        return manipulationData.getParameters().stream()
+                .filter(it -> it.getParameterName().equals(name))
+                .map(ManipulationParameter::getParameterValue)
+                .findFirst()
+                .orElseThrow();
     }
 }
@@ -15,6 +15,7 @@ import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
+import com.draeger.medical.sdccc.tests.annotations.RequireReports;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
@@ -22,6 +23,7 @@ import com.draeger.medical.sdccc.tests.util.InitialImpliedValue;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValueException;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.VersionedMdib;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -37,7 +39,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.common.MdibEntity;
-import org.somda.sdc.biceps.common.access.MdibAccess;
 import org.somda.sdc.biceps.common.storage.PreprocessingException;
 import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
@@ -49,6 +50,7 @@ import org.somda.sdc.biceps.model.participant.MdsDescriptor;
 import org.somda.sdc.biceps.model.participant.ScoDescriptor;
 import org.somda.sdc.biceps.model.participant.SystemContextDescriptor;
 import org.somda.sdc.biceps.model.participant.VmdDescriptor;
+import org.somda.sdc.glue.common.WsdlConstants;
 import org.somda.sdc.glue.consumer.report.ReportProcessingException;
 
 /**
@@ -325,6 +327,16 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
             + "by comparing their value before and after applying each"
             + " report. This also applies to the deletion and re-insertion of descriptors or states."
             + "MdibVersion is excluded from this, because it is used for ordering the reports that have been received.")
+    @RequireReports(
+            value = {
+                WsdlConstants.OPERATION_EPISODIC_ALERT_REPORT,
+                WsdlConstants.OPERATION_EPISODIC_COMPONENT_REPORT,
+                WsdlConstants.OPERATION_EPISODIC_CONTEXT_REPORT,
+                WsdlConstants.OPERATION_EPISODIC_METRIC_REPORT,
+                WsdlConstants.OPERATION_EPISODIC_OPERATIONAL_STATE_REPORT,
+                WsdlConstants.OPERATION_DESCRIPTION_MODIFICATION_REPORT
+            },
+            all = true)
     void testRequirementR5003() throws IOException, NoTestData {
         final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
@@ -472,7 +484,7 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
      * @return true if descriptors have been inserted or removed, false otherwise
      */
     private boolean haveDescriptorChildrenDisOrReappeared(
-            final String handle, final MdibAccess currentStorage, final MdibAccess nextStorage) {
+            final String handle, final VersionedMdib currentStorage, final VersionedMdib nextStorage) {
         final var currentDescriptorChildren =
                 currentStorage.getChildrenByType(handle, AbstractDescriptor.class).stream()
                         .map(MdibEntity::getDescriptor)
@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
@@ -22,10 +23,10 @@ import com.google.inject.Key;
 import com.google.inject.name.Names;
 import java.io.IOException;
 import java.io.StringReader;
-import java.util.AbstractMap;
-import java.util.List;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.DpwsConfig;
 import org.somda.sdc.dpws.soap.MarshallingService;
 import org.somda.sdc.dpws.soap.SoapMessage;
@@ -35,6 +36,10 @@ import org.somda.sdc.dpws.soap.exception.MarshallingException;
  * Tests for the DPWS HTTP section.
  */
 public class DirectHttpTest extends InjectorTestBase {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final String GET_MDIB_BODY = Constants.MSG_GET_MDIB.toString();
+    private static final String TRANSFER_ENCODING = "Transfer-Encoding";
+    private static final String CHUNKED = "chunked";
 
     private TestClient testClient;
     private MessageGeneratingUtil messageGeneratingUtil;
@@ -48,39 +53,41 @@ public class DirectHttpTest extends InjectorTestBase {
     @Test
     @TestIdentifier(EnabledTestConfig.DPWS_R0001)
     @TestDescription("Sends a chunked message and verifies that the " + " end was able to read it without any errors")
-    void testRequirementR0001() throws IOException, MessagingException {
+    void testRequirementR0001() throws IOException, MessagingException, InterruptedException {
 
         final boolean chunkedEnforced = this.testClient
                 .getInjector()
                 .getInstance(Key.get(Boolean.class, Names.named(DpwsConfig.ENFORCE_HTTP_CHUNKED_TRANSFER)));
         assertTrue(chunkedEnforced);
 
-        final SoapMessage response = this.messageGeneratingUtil.getMdib();
-        assertFalse(response.isFault());
-
         final MessageStorage messageStorage = getInjector().getInstance(MessageStorage.class);
-
-        // ensure, that the messages from the above call are already in the database
-        messageStorage.flush();
-
         final MarshallingService marshalling = testClient.getInjector().getInstance(MarshallingService.class);
 
-        try (final var messages = messageStorage.getOutboundHttpMessagesByBodyTypeAndHeaders(
-                List.of(Constants.MSG_GET_MDIB),
-                List.of(new AbstractMap.SimpleImmutableEntry<>("Transfer-Encoding".toLowerCase(), "chunked")))) {
-            assertTrue(messages.areObjectsPresent());
+        // the request is awaited as soon as it has been handed to the storage, without flushing it
+        try (final var requests = messageStorage.subscribe(DirectHttpTest::isChunkedGetMdibRequest)) {
+            final SoapMessage response = this.messageGeneratingUtil.getMdib();
+            assertFalse(response.isFault());
 
-            final long getMdibRequestsCount = messages.getStream()
-                    .filter(x -> {
+            final var request = requests.await(
+                    message -> {
                         try {
-                            marshalling.unmarshal(new StringReader(x.getBody()));
+                            marshalling.unmarshal(new StringReader(message.getBody()));
                             return true;
                         } catch (MarshallingException e) {
                             return false;
                         }
-                    })
-                    .count();
-            assertTrue(getMdibRequestsCount > 0);
+                    },
+                    REQUEST_TIMEOUT);
+            assertTrue(request.isPresent());
         }
     }
+
+    private static boolean isChunkedGetMdibRequest(final MessageContent message) {
+        return message.getDirection() == CommunicationLog.Direction.OUTBOUND
+                && message.getMdibVersionGroups().stream()
+                        .anyMatch(group -> GET_MDIB_BODY.equals(group.getBodyElement()))
+                && message.getHeaders().entrySet().stream()
+                        .anyMatch(header -> TRANSFER_ENCODING.equalsIgnoreCase(header.getKey())
+                                && header.getValue().stream().anyMatch(CHUNKED::equalsIgnoreCase));
+    }
 }
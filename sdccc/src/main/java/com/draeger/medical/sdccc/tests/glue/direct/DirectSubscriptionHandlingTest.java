@@ -89,7 +89,6 @@ public class DirectSubscriptionHandlingTest extends InjectorTestBase {
     public static final long NANOS_IN_A_MILLISECOND = 1000000L;
     public static final Duration DURATION = Duration.ofHours(1);
     public static final long TIMEOUT_NANOS = 5000 * NANOS_IN_A_MILLISECOND;
-    public static final int POLLING_WAIT_TIME_MILLIS = 1000;
     public static final String SUBSCRIPTION_END_STATUS_DELIVERY_FAILURE =
             "http://schemas.xmlsoap.org/ws/2004/08/eventing/DeliveryFailure";
 
@@ -417,41 +416,28 @@ public class DirectSubscriptionHandlingTest extends InjectorTestBase {
         }
     }
 
-    private void triggerReportAndIntentionallyFailReceivingIt(final ReportTestData triggerableReport) {
+    private void triggerReportAndIntentionallyFailReceivingIt(final ReportTestData triggerableReport)
+            throws InterruptedException {
         LOG.info("Triggering a Report and intentionally causing a failure...");
         triggerableReport.setReportReceived(false);
         triggerableReport.setFailOnReceivingReport(true);
         triggerableReport.trigger();
-        synchronized (triggerableReport.getSyncPoint()) {
-            final long timeout = System.nanoTime() + TIMEOUT_NANOS;
-            while (!triggerableReport.getReportReceived() && System.nanoTime() < timeout) {
-                try {
-                    nanoWait(triggerableReport.getSyncPoint(), timeout - System.nanoTime());
-                } catch (InterruptedException e) {
-                    // do nothing
-                }
-            }
-            assertTrue(
-                    triggerableReport.getReportReceived(),
-                    "expected " + triggerableReport.getReportName() + " was not received.");
-        }
-    }
-
-    private void nanoWait(final Object syncPoint, final long duration) throws InterruptedException {
-        final long millis = duration / NANOS_IN_A_MILLISECOND;
-        final long nanos = duration % NANOS_IN_A_MILLISECOND;
-        syncPoint.wait(millis, (int) nanos);
+        triggerableReport.awaitFlags(triggerableReport::getReportReceived, Duration.ofNanos(TIMEOUT_NANOS));
+        assertTrue(
+                triggerableReport.getReportReceived(),
+                "expected " + triggerableReport.getReportName() + " was not received.");
     }
 
     private void checkThatSubscriptionsHaveBeenCancelled(final List<ReportTestData> reports)
             throws InterruptedException {
-        final long timeoutWaitingForCancellations = System.nanoTime() + TIMEOUT_NANOS;
-        final HashSet<ReportTestData> uncancelledSubscriptions = new HashSet<>(reports);
-        while (!uncancelledSubscriptions.isEmpty() && System.nanoTime() < timeoutWaitingForCancellations) {
-            //noinspection BusyWait
-            Thread.sleep(POLLING_WAIT_TIME_MILLIS);
-            uncancelledSubscriptions.removeIf(ReportTestData::getSubscriptionEndWithStatusDeliveryFailedReceived);
+        final long timeout = System.nanoTime() + TIMEOUT_NANOS;
+        for (ReportTestData report : reports) {
+            report.awaitFlags(
+                    report::getSubscriptionEndWithStatusDeliveryFailedReceived,
+                    Duration.ofNanos(timeout - System.nanoTime()));
         }
+        final HashSet<ReportTestData> uncancelledSubscriptions = new HashSet<>(reports);
+        uncancelledSubscriptions.removeIf(ReportTestData::getSubscriptionEndWithStatusDeliveryFailedReceived);
         if (!uncancelledSubscriptions.isEmpty()) {
             final List<String> subscriptions = uncancelledSubscriptions.stream()
                     .map(ReportTestData::getReportName)
@@ -585,15 +571,10 @@ public class DirectSubscriptionHandlingTest extends InjectorTestBase {
                         .getAny()
                         .get(0);
                 if (reportTestData.doesNotificationBodyBelongToThisReport(body)) {
-                    synchronized (reportTestData.getSyncPoint()) {
-                        reportTestData.setReportReceived(true);
-                        reportTestData.getSyncPoint().notifyAll();
-                    }
+                    reportTestData.setReportReceived(true);
                 } else if (body instanceof SubscriptionEnd) {
                     if (SUBSCRIPTION_END_STATUS_DELIVERY_FAILURE.equals(((SubscriptionEnd) body).getStatus())) {
-                        synchronized (reportTestData.getSyncPoint()) {
-                            reportTestData.setSubscriptionEndWithStatusDeliveryFailedReceived(true);
-                        }
+                        reportTestData.setSubscriptionEndWithStatusDeliveryFailedReceived(true);
                     }
                 }
             }
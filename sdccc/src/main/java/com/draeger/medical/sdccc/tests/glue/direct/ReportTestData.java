@@ -6,22 +6,32 @@
 
 package com.draeger.medical.sdccc.tests.glue.direct;
 
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 import org.somda.sdc.dpws.soap.wseventing.EventSink;
 import org.somda.sdc.dpws.soap.wseventing.SubscribeResult;
 
 /**
  * Data that the DirectSubscriptionHandlingTest needs to store per Report.
+ *
+ * <p>
+ * The flags are set by the interceptors of the notification sinks and read by the test thread, which can await them
+ * using {@linkplain #awaitFlags(BooleanSupplier, Duration)}.
  */
 public class ReportTestData {
 
     private final String reportName;
     private final String action;
-    private Boolean reportReceived;
-    private Boolean failOnReceivingReport;
-    private Boolean subscriptionEndWithStatusDeliveryFailedReceived;
-    private final Object syncPoint;
+    private volatile Boolean reportReceived;
+    private volatile Boolean failOnReceivingReport;
+    private volatile Boolean subscriptionEndWithStatusDeliveryFailedReceived;
     private final ReportTriggerClosure trigger;
     private final ReportSubscribeClosure subscribe;
+    private final Lock flagLock;
+    private final Condition flagsChanged;
     private SubscribeResult subscription;
     private EventSink eventSink;
 
@@ -42,7 +52,8 @@ public class ReportTestData {
         this.reportReceived = false;
         this.failOnReceivingReport = false;
         this.subscriptionEndWithStatusDeliveryFailedReceived = false;
-        this.syncPoint = new Object();
+        this.flagLock = new ReentrantLock();
+        this.flagsChanged = flagLock.newCondition();
         this.subscribe = subscribe;
         this.trigger = trigger; // TODO: it would be simpler to pass the trigger as an override
         // see: https://github.com/Draegerwerk/SDCcc/issues/42
@@ -65,7 +76,9 @@ public class ReportTestData {
      * @param reportReceived the new value.
      */
     public void setReportReceived(final Boolean reportReceived) {
-        this.reportReceived = reportReceived;
+        updateFlags(() -> {
+            this.reportReceived = reportReceived;
+        });
     }
 
     public Boolean getFailOnReceivingReport() {
@@ -77,11 +90,9 @@ public class ReportTestData {
      * @param failOnReceivingReport the new value.
      */
     public void setFailOnReceivingReport(final Boolean failOnReceivingReport) {
-        this.failOnReceivingReport = failOnReceivingReport;
-    }
-
-    public Object getSyncPoint() {
-        return syncPoint;
+        updateFlags(() -> {
+            this.failOnReceivingReport = failOnReceivingReport;
+        });
     }
 
     /**
@@ -136,7 +147,9 @@ public class ReportTestData {
      * @param b the new value.
      */
     public void setSubscriptionEndWithStatusDeliveryFailedReceived(final boolean b) {
-        this.subscriptionEndWithStatusDeliveryFailedReceived = b;
+        updateFlags(() -> {
+            this.subscriptionEndWithStatusDeliveryFailedReceived = b;
+        });
     }
 
     /**
@@ -146,4 +159,37 @@ public class ReportTestData {
     public boolean getSubscriptionEndWithStatusDeliveryFailedReceived() {
         return this.subscriptionEndWithStatusDeliveryFailedReceived;
     }
+
+    /**
+     * Waits until a condition on the flags holds, it is evaluated again whenever a flag is set.
+     * @param condition the condition to wait for.
+     * @param timeout the maximum time to wait.
+     * @return true, if the condition holds, false if the timeout has elapsed before.
+     * @throws InterruptedException if the waiting thread has been interrupted.
+     */
+    public boolean awaitFlags(final BooleanSupplier condition, final Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        flagLock.lock();
+        try {
+            while (!condition.getAsBoolean()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = flagsChanged.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            flagLock.unlock();
+        }
+    }
+
+    private void updateFlags(final Runnable update) {
+        flagLock.lock();
+        try {
+            update.run();
+            flagsChanged.signalAll();
+        } finally {
+            flagLock.unlock();
+        }
+    }
 }
@@ -17,6 +17,7 @@ import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
+import com.draeger.medical.sdccc.tests.annotations.RequireReports;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
@@ -46,6 +47,7 @@ import org.somda.sdc.biceps.model.participant.RealTimeSampleArrayMetricDescripto
 import org.somda.sdc.biceps.model.participant.RealTimeSampleArrayMetricState;
 import org.somda.sdc.biceps.model.participant.StringMetricDescriptor;
 import org.somda.sdc.biceps.model.participant.StringMetricState;
+import org.somda.sdc.glue.common.WsdlConstants;
 
 /**
  * Glue Non-functional quality attributes tests (ch. 10).
@@ -73,7 +75,7 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        mdibHistorian.processAllVersions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(MdsDescriptor.class);
 
             for (var entity : entities) {
@@ -109,7 +111,7 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        mdibHistorian.processAllVersions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(AbstractMetricDescriptor.class);
 
             for (var entity : entities) {
@@ -208,22 +210,30 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
     @TestDescription("Starting from the initially retrieved mdib, applies every episodic report to the mdib"
             + " and verifies for every alert condition state, that its @DeterminationTime is updated"
             + " whenever its @Presence changes.")
+    @RequireReports(WsdlConstants.OPERATION_EPISODIC_ALERT_REPORT)
     void testRequirementR001200() throws NoTestData, IOException {
         final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllConsecutivePairs((last, current) -> {
-            final var currentAlertConditionStates = current.getStatesByType(AlertConditionState.class);
+        mdibHistorian.processAllChangeSets(changes -> {
+            if (acceptableSequenceSeen.get() == 0) {
+                // unchanged states need no verification, but count as seen as long as none has been seen yet
+                acceptableSequenceSeen.addAndGet(changes.current()
+                        .getStatesByType(AlertConditionState.class)
+                        .size());
+            }
 
-            for (var currentAlertConditionState : currentAlertConditionStates) {
-                acceptableSequenceSeen.incrementAndGet();
+            for (var stateChange : changes.getStateChanges(AlertConditionState.class)) {
                 final Optional<AlertConditionState> lastAlertConditionState =
-                        last.getState(currentAlertConditionState.getDescriptorHandle(), AlertConditionState.class);
-                if (lastAlertConditionState.isEmpty()) {
+                        stateChange.getBefore(AlertConditionState.class);
+                final Optional<AlertConditionState> currentAlertConditionStateOpt =
+                        stateChange.getAfter(AlertConditionState.class);
+                if (lastAlertConditionState.isEmpty() || currentAlertConditionStateOpt.isEmpty()) {
                     continue;
                 }
+                final var currentAlertConditionState = currentAlertConditionStateOpt.orElseThrow();
 
                 if (ImpliedValueUtil.isPresence(currentAlertConditionState)
                         != ImpliedValueUtil.isPresence(lastAlertConditionState.orElseThrow())) {
@@ -235,9 +245,11 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
                                             + "its @Presence attribute from mdibVersion '%s' to mdibVersion '%s', "
                                             + "but its @DeterminationTime was not updated ('%s' in both cases).",
                                     currentAlertConditionState.getDescriptorHandle(),
-                                    ImpliedValueUtil.getMdibVersion(last.getMdibVersion())
+                                    ImpliedValueUtil.getMdibVersion(
+                                                    changes.previous().getMdibVersion())
                                             .toString(),
-                                    ImpliedValueUtil.getMdibVersion(current.getMdibVersion())
+                                    ImpliedValueUtil.getMdibVersion(
+                                                    changes.current().getMdibVersion())
                                             .toString(),
                                     currentAlertConditionState
                                             .getDeterminationTime()
@@ -262,7 +274,7 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var contextStates = first.getStatesByType(AbstractContextState.class);
             for (var contextState : contextStates) {
                 final var bindingMdibVersion = contextState.getBindingMdibVersion();
@@ -286,13 +298,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
     @TestDescription("Starting from the initially retrieved mdib, applies every episodic report to the mdib and"
             + " verifies for every context state, that the BindingEndTime is set, when the UnbindingMdibVersion is"
             + " present.")
+    @RequireReports(WsdlConstants.OPERATION_EPISODIC_CONTEXT_REPORT)
     void testRequirementR0072() throws NoTestData, IOException {
         final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
                 messageStorage, getInjector().getInstance(TestRunObserver.class));
 
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             final var contextStates = first.getStatesByType(AbstractContextState.class);
             for (var contextState : contextStates) {
                 final var unbindingMdibVersion = contextState.getUnbindingMdibVersion();
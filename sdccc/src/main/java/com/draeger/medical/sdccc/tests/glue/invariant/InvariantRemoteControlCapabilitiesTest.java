@@ -19,19 +19,16 @@ import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.CryptoUtil;
+import com.draeger.medical.sdccc.tests.util.DecodedMessageCache;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.util.Constants;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.model.message.OperationInvokedReport;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
 
 /**
@@ -43,15 +40,13 @@ public class InvariantRemoteControlCapabilitiesTest extends InjectorTestBase {
     public static final String WRONG_EXTENSION_ERROR_MESSAGE =
             "Extension is not the expected extension%n%s%nbut" + " is%n%s%n";
     private MessageStorage messageStorage;
-    private MarshallingService marshalling;
-    private SoapUtil soapUtil;
+    private DecodedMessageCache decodedMessageCache;
 
     @BeforeEach
     void setup() {
         this.messageStorage = getInjector().getInstance(MessageStorage.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.marshalling = riInjector.getInstance(MarshallingService.class);
-        this.soapUtil = riInjector.getInstance(SoapUtil.class);
+        this.decodedMessageCache = riInjector.getInstance(DecodedMessageCache.class);
     }
 
     @Test
@@ -66,14 +61,15 @@ public class InvariantRemoteControlCapabilitiesTest extends InjectorTestBase {
             simplePreconditions = {ConditionalPreconditions.TriggerOperationInvokedReportPrecondition.class})
     void testRequirementR00780() throws NoTestData, IOException {
         final var expectedRoot = "http://standards.ieee.org/downloads/11073/11073-20701-2018/X509Certificate/PEM";
+        final String noTestDataMessage = "No OperationInvokedReports seen during test run, test failed.";
+        assertTestDataAvailable(
+                catalog -> catalog.getInboundMessageCount(Constants.MSG_OPERATION_INVOKED_REPORT), noTestDataMessage);
 
         try (final var messages = messageStorage.getInboundMessagesByBodyType(Constants.MSG_OPERATION_INVOKED_REPORT)) {
             final var operationInvokedReportsSeen = new AtomicInteger(0);
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-                    final var reportOpt = soapUtil.getBody(soapMessage, OperationInvokedReport.class);
+                    final var reportOpt = decodedMessageCache.getBody(messageContent, OperationInvokedReport.class);
                     if (reportOpt.isPresent()) {
                         for (var reportPart : reportOpt.orElseThrow().getReportPart()) {
                             operationInvokedReportsSeen.incrementAndGet();
@@ -98,8 +94,7 @@ public class InvariantRemoteControlCapabilitiesTest extends InjectorTestBase {
                 }
             });
 
-            assertTestData(
-                    operationInvokedReportsSeen.get(), "No OperationInvokedReports seen during test run, test failed.");
+            assertTestData(operationInvokedReportsSeen.get(), noTestDataMessage);
         }
     }
 
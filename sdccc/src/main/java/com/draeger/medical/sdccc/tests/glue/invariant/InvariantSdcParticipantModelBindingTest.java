@@ -56,7 +56,7 @@ public class InvariantSdcParticipantModelBindingTest extends InjectorTestBase {
 
         final var acceptableSequenceSeen = new AtomicBoolean(false);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        mdibHistorian.processAllVersions(first -> {
             acceptableSequenceSeen.compareAndSet(
                     false,
                     checkForTypeAttribute(
@@ -18,43 +18,35 @@ import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
+import com.draeger.medical.sdccc.tests.util.DecodedMessageCache;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValue;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValueException;
-import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.ReportedStateIndex;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.namespace.QName;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.somda.sdc.biceps.model.message.AbstractReport;
 import org.somda.sdc.biceps.model.message.DescriptionModificationReport;
 import org.somda.sdc.biceps.model.message.DescriptionModificationType;
-import org.somda.sdc.biceps.model.message.EpisodicAlertReport;
-import org.somda.sdc.biceps.model.message.EpisodicComponentReport;
-import org.somda.sdc.biceps.model.message.EpisodicContextReport;
-import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
-import org.somda.sdc.biceps.model.message.EpisodicOperationalStateReport;
-import org.somda.sdc.biceps.model.message.ObservedValueStream;
-import org.somda.sdc.biceps.model.message.WaveformStream;
 import org.somda.sdc.biceps.model.participant.AbstractState;
 import org.somda.sdc.biceps.model.participant.DistributionSampleArrayMetricState;
 import org.somda.sdc.biceps.model.participant.RealTimeSampleArrayMetricState;
 import org.somda.sdc.biceps.model.participant.SampleArrayValue;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapMessage;
-import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
 
 /**
@@ -62,18 +54,25 @@ import org.somda.sdc.dpws.soap.exception.MarshallingException;
  */
 public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
 
+    private static final List<QName> RELEVANT_REPORT_TYPES = List.of(
+            Constants.MSG_EPISODIC_ALERT_REPORT,
+            Constants.MSG_EPISODIC_COMPONENT_REPORT,
+            Constants.MSG_EPISODIC_METRIC_REPORT,
+            Constants.MSG_EPISODIC_OPERATIONAL_STATE_REPORT,
+            Constants.MSG_WAVEFORM_STREAM,
+            Constants.MSG_OBSERVED_VALUE_STREAM,
+            Constants.MSG_EPISODIC_CONTEXT_REPORT);
+
     private MessageStorage messageStorage;
     private MdibHistorianFactory historianFactory;
-    private MarshallingService marshalling;
-    private SoapUtil soapUtil;
+    private DecodedMessageCache decodedMessageCache;
 
     @BeforeEach
     void setup() {
         this.messageStorage = getInjector().getInstance(MessageStorage.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.historianFactory = riInjector.getInstance(MdibHistorianFactory.class);
-        this.marshalling = riInjector.getInstance(MarshallingService.class);
-        this.soapUtil = riInjector.getInstance(SoapUtil.class);
+        this.decodedMessageCache = riInjector.getInstance(DecodedMessageCache.class);
     }
 
     @Test
@@ -92,6 +91,8 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
         try (final var sequenceIds = messageStorage.getUniqueSequenceIds().filter(Objects::nonNull)) {
             sequenceIds.forEach(sequenceId -> {
                 final var impliedValueMap = new InitialImpliedValue();
+                final List<Pair<BigInteger, DescriptionModificationReport.ReportPart>> modifications =
+                        new ArrayList<>();
                 try (final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
                         sequenceId, Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
 
@@ -103,9 +104,7 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
                                 for (var part : reportParts) {
                                     if (ImpliedValueUtil.getModificationType(part) != DescriptionModificationType.DEL
                                             && !part.getState().isEmpty()) {
-                                        acceptableSequenceSeen.set(true);
-                                        checkReportsBeforeDescriptionModification(
-                                                historian, sequenceId, mdibVersion, part, impliedValueMap);
+                                        modifications.add(new ImmutablePair<>(mdibVersion, part));
                                     }
                                 }
                             });
@@ -114,6 +113,24 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
                     // unreachable, silence warnings
                     throw new RuntimeException(e);
                 }
+                if (modifications.isEmpty()) {
+                    return;
+                }
+                acceptableSequenceSeen.set(true);
+
+                // only states of modified descriptors are relevant, all other states are not indexed
+                final Set<String> modifiedHandles = new HashSet<>();
+                for (final var modification : modifications) {
+                    for (final var state : modification.getRight().getState()) {
+                        modifiedHandles.add(state.getDescriptorHandle());
+                    }
+                }
+                final var reportedStates = historian.createReportedStateIndex(
+                        sequenceId, modifiedHandles::contains, RELEVANT_REPORT_TYPES.toArray(QName[]::new));
+                for (final var modification : modifications) {
+                    checkReportsBeforeDescriptionModification(
+                            reportedStates, modification.getLeft(), modification.getRight(), impliedValueMap);
+                }
             });
         }
 
@@ -124,109 +141,60 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
 
     private Optional<DescriptionModificationReport> getDescriptionModificationReportFromMessageContent(
             final MessageContent content) {
-        final var body = content.getBody();
-
-        final SoapMessage message;
         try {
-            message = marshalling.unmarshal(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            return decodedMessageCache.getBody(content, DescriptionModificationReport.class);
         } catch (MarshallingException e) {
             fail("Could not unmarshal message", e);
             // unreachable, silence warnings
             throw new RuntimeException(e);
         }
-        return soapUtil.getBody(message, DescriptionModificationReport.class);
     }
 
     private void checkReportsBeforeDescriptionModification(
-            final MdibHistorian historian,
-            final String sequenceId,
+            final ReportedStateIndex reportedStates,
             final BigInteger mdibVersion,
             final DescriptionModificationReport.ReportPart descriptionModificationReportPart,
             final InitialImpliedValue impliedValueMap) {
 
-        final var relevantReportTypes = List.of(
-                Constants.MSG_EPISODIC_ALERT_REPORT,
-                Constants.MSG_EPISODIC_COMPONENT_REPORT,
-                Constants.MSG_EPISODIC_METRIC_REPORT,
-                Constants.MSG_EPISODIC_OPERATIONAL_STATE_REPORT,
-                Constants.MSG_WAVEFORM_STREAM,
-                Constants.MSG_OBSERVED_VALUE_STREAM,
-                Constants.MSG_EPISODIC_CONTEXT_REPORT);
-
-        try (final var relevantReports = historian.getAllReportsWithLowerMdibVersion(
-                sequenceId, mdibVersion, relevantReportTypes.toArray(QName[]::new))) {
-            relevantReports.forEach(report -> {
-                final var statesFromDescriptionModification = descriptionModificationReportPart.getState();
-
-                if (report instanceof ObservedValueStream observedValueStream) {
-                    for (var value : observedValueStream.getValue()) {
-                        final var handle = value.getMetric();
-                        final var stateVersion = ImpliedValueUtil.getValueStateVersion(value);
-                        final var sampleArrayValue = value.getValue();
-                        try {
+        final var statesFromDescriptionModification = descriptionModificationReportPart.getState();
+        for (var state : statesFromDescriptionModification) {
+            final var stateVersion = Objects.requireNonNullElse(state.getStateVersion(), BigInteger.ZERO);
+            reportedStates
+                    .findReportedStatesBefore(state.getDescriptorHandle(), stateVersion, mdibVersion)
+                    .forEach(reportedState -> {
+                        final var sampleArrayValue = reportedState.sampleArrayValue();
+                        if (sampleArrayValue != null) {
+                            try {
+                                assertFalse(
+                                        compareDescriptionModificationWithSampleArrayValue(
+                                                reportedState.handle(),
+                                                reportedState.stateVersion(),
+                                                sampleArrayValue,
+                                                statesFromDescriptionModification,
+                                                impliedValueMap),
+                                        String.format(
+                                                "The description modification report with mdib version %s containing"
+                                                        + " the changed states should be send before the observed"
+                                                        + " value stream with mdib version %s",
+                                                mdibVersion, reportedState.mdibVersion()));
+                            } catch (InitialImpliedValueException e) {
+                                fail(e);
+                                // unreachable, silence warnings
+                                throw new RuntimeException(e);
+                            }
+                        } else {
                             assertFalse(
-                                    compareDescriptionModificationWithSampleArrayValue(
-                                            handle,
-                                            stateVersion,
-                                            sampleArrayValue,
-                                            statesFromDescriptionModification,
-                                            impliedValueMap),
+                                    statesFromDescriptionModification.contains(reportedState.state()),
                                     String.format(
-                                            "The description modification report with mdib version %s containing the changed states"
-                                                    + " should be send before the observed value stream with mdib version %s",
-                                            mdibVersion, ImpliedValueUtil.getReportMdibVersion(report)));
-                        } catch (InitialImpliedValueException e) {
-                            fail(e);
-                            // unreachable, silence warnings
-                            throw new RuntimeException(e);
+                                            "The description modification report with mdib version %s containing the"
+                                                    + " changed states should be send before the %s with mdib"
+                                                    + " version %s",
+                                            mdibVersion,
+                                            reportedState.reportType().getSimpleName(),
+                                            reportedState.mdibVersion()));
                         }
-                    }
-                } else {
-                    final var statesFromReport = getStatesFromRelevantReports(report);
-                    assertFalse(
-                            compareStates(statesFromReport, statesFromDescriptionModification),
-                            String.format(
-                                    "The description modification report with mdib version %s containing the changed states"
-                                            + " should be send before the %s with mdib version %s",
-                                    mdibVersion,
-                                    report.getClass().getSimpleName(),
-                                    ImpliedValueUtil.getReportMdibVersion(report)));
-                }
-            });
-        }
-    }
-
-    private List<AbstractState> getStatesFromRelevantReports(final AbstractReport report) {
-        final List<AbstractState> states = new ArrayList<>();
-        if (report instanceof EpisodicAlertReport alertReport) {
-            for (var part : alertReport.getReportPart()) {
-                states.addAll(part.getAlertState());
-            }
-        }
-        if (report instanceof EpisodicComponentReport componentReport) {
-            for (var part : componentReport.getReportPart()) {
-                states.addAll(part.getComponentState());
-            }
-        }
-        if (report instanceof EpisodicMetricReport metricReport) {
-            for (var part : metricReport.getReportPart()) {
-                states.addAll(part.getMetricState());
-            }
+                    });
         }
-        if (report instanceof EpisodicOperationalStateReport operationalStateReport) {
-            for (var part : operationalStateReport.getReportPart()) {
-                states.addAll(part.getOperationState());
-            }
-        }
-        if (report instanceof WaveformStream waveformStream) {
-            states.addAll(waveformStream.getState());
-        }
-        if (report instanceof EpisodicContextReport contextReport) {
-            for (var part : contextReport.getReportPart()) {
-                states.addAll(part.getContextState());
-            }
-        }
-        return states;
     }
 
     private boolean compareDescriptionModificationWithSampleArrayValue(
@@ -253,9 +221,4 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
         }
         return foundState;
     }
-
-    private boolean compareStates(
-            final List<AbstractState> statesFromReport, final List<AbstractState> statesFromDescriptionModification) {
-        return statesFromReport.stream().anyMatch(statesFromDescriptionModification::contains);
-    }
 }
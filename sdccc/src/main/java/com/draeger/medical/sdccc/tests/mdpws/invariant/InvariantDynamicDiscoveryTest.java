@@ -58,7 +58,7 @@ public class InvariantDynamicDiscoveryTest extends InjectorTestBase {
                 messages.getStream().forEach(message -> {
                     final Collection<Node> typesNodes;
                     try {
-                        typesNodes = typesExtractor.extractFrom(message.getBody());
+                        typesNodes = typesExtractor.extractFrom(message);
                     } catch (final XPathExpressionException e) {
                         throw new RuntimeException(e);
                     }
@@ -19,7 +19,6 @@ import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunInformation;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.http.HttpHeaders;
@@ -106,8 +105,7 @@ public class InvariantSOAPOverHTTPTest extends InjectorTestBase {
                 if (isSoapXml) {
                     hadSoapXml.set(true);
                     assertTrue(
-                            message.getBody().getBytes(StandardCharsets.UTF_8).length
-                                    <= Constants.MAX_LARGE_ENVELOPE_SIZE,
+                            message.getBodyLength() <= Constants.MAX_LARGE_ENVELOPE_SIZE,
                             "The DUT transmitted a message with more than MAX_LARGE_ENVELOPE_SIZE bytes."
                                     + " Message hash was " + message.getMessageHash());
                 }
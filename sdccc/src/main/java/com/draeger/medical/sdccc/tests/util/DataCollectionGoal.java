@@ -0,0 +1,74 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
+import com.draeger.medical.sdccc.messages.DataAvailabilityCatalog;
+import com.draeger.medical.sdccc.messages.DataRequirement;
+import com.draeger.medical.sdccc.tests.annotations.RequireReports;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data the enabled invariant tests need to be collected before the preconditions are run.
+ *
+ * <p>
+ * The goal consists of the reports required by test cases annotated with {@linkplain RequireReports} and of the data
+ * fulfilling the simple preconditions registered with the {@linkplain PreconditionRegistry}, which makes their
+ * manipulations unnecessary. Both are registered while the invariant tests are discovered.
+ */
+@Singleton
+public class DataCollectionGoal {
+
+    private final PreconditionRegistry preconditionRegistry;
+    private final Set<DataRequirement> requiredReports;
+
+    @Inject
+    DataCollectionGoal(final PreconditionRegistry preconditionRegistry) {
+        this.preconditionRegistry = preconditionRegistry;
+        this.requiredReports = new LinkedHashSet<>();
+    }
+
+    /**
+     * Registers reports required by a test case.
+     *
+     * <p>
+     * Duplicate requirements will be ignored.
+     *
+     * @param requirement reports required
+     */
+    public synchronized void registerRequiredReports(final DataRequirement requirement) {
+        requiredReports.add(requirement);
+    }
+
+    /**
+     * Retrieves all data requirements of the goal.
+     *
+     * @return distinct requirements, required reports first
+     */
+    public synchronized List<DataRequirement> getRequirements() {
+        final Set<DataRequirement> requirements = new LinkedHashSet<>(requiredReports);
+        requirements.addAll(preconditionRegistry.getCollectableData());
+        return new ArrayList<>(requirements);
+    }
+
+    /**
+     * Determines the requirements which are not satisfied by the messages stored so far.
+     *
+     * @param catalog of the stored messages
+     * @return unsatisfied requirements, empty if the goal has been reached
+     */
+    public List<DataRequirement> getMissingData(final DataAvailabilityCatalog catalog) {
+        return getRequirements().stream()
+                .filter(requirement -> !requirement.isSatisfied(catalog))
+                .toList();
+    }
+}
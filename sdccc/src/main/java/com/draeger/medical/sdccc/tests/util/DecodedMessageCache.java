@@ -0,0 +1,210 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.util.Constants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.xml.namespace.QName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.MarshallingService;
+import org.somda.sdc.dpws.soap.SoapMessage;
+import org.somda.sdc.dpws.soap.SoapUtil;
+import org.somda.sdc.dpws.soap.exception.MarshallingException;
+
+/**
+ * Run-wide cache of decoded {@linkplain SoapMessage}s, keyed by the hash of the message body.
+ *
+ * <p>
+ * Invariant tests and the {@linkplain MdibHistorian} repeatedly decode the same message bodies. Using this cache,
+ * a body is unmarshalled at most once for as long as it is not evicted. The cache is bounded by the summed length in
+ * bytes of the cached bodies if {@linkplain TestSuiteConfig#DECODED_MESSAGE_CACHE_MAX_WEIGHT} is positive, and by the
+ * number of entries otherwise. Values can optionally be held using soft references, allowing the garbage collector
+ * to reclaim them under memory pressure.
+ *
+ * <p>
+ * <em>Cached messages are shared between all callers and must therefore be treated as read-only.</em>
+ */
+@Singleton
+public class DecodedMessageCache {
+    private static final Logger LOG = LogManager.getLogger(DecodedMessageCache.class);
+    private static final Set<String> PRE_DECODED_BODIES = Constants.RELEVANT_REPORT_BODIES.stream()
+            .map(QName::toString)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MarshallingService marshalling;
+    private final SoapUtil soapUtil;
+    private final Cache<String, CacheEntry> cache;
+    private final boolean preDecodeWeighted;
+    private final long preDecodeCapacity;
+    private final AtomicLong preDecodedAmount;
+    private final AtomicBoolean preDecodingStopped;
+
+    @Inject
+    DecodedMessageCache(
+            final MarshallingService marshalling,
+            final SoapUtil soapUtil,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES) final long maximumEntries,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT) final long maximumWeight,
+            @Named(TestSuiteConfig.DECODED_MESSAGE_CACHE_SOFT_VALUES) final boolean softValues) {
+        this.marshalling = marshalling;
+        this.soapUtil = soapUtil;
+        this.preDecodeWeighted = maximumWeight > 0;
+        this.preDecodeCapacity = preDecodeWeighted ? maximumWeight : Math.max(0, maximumEntries);
+        this.preDecodedAmount = new AtomicLong();
+        this.preDecodingStopped = new AtomicBoolean(false);
+
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (softValues) {
+            builder.softValues();
+        }
+        if (maximumWeight > 0) {
+            LOG.debug("Bounding decoded message cache to a total body length of {}", maximumWeight);
+            this.cache = builder.maximumWeight(maximumWeight)
+                    .weigher((final String key, final CacheEntry value) -> value.weight())
+                    .build();
+        } else {
+            LOG.debug("Bounding decoded message cache to {} entries", maximumEntries);
+            this.cache = builder.maximumSize(Math.max(0, maximumEntries)).build();
+        }
+    }
+
+    /**
+     * Retrieves the decoded SOAP message for a message content, unmarshalling the body on a cache miss.
+     *
+     * @param messageContent to retrieve the decoded message for
+     * @return the decoded message, shared with all other callers
+     * @throws MarshallingException if the body cannot be unmarshalled
+     */
+    public SoapMessage getSoapMessage(final MessageContent messageContent) throws MarshallingException {
+        return getSoapMessage(messageContent, () -> unmarshal(messageContent));
+    }
+
+    /**
+     * Retrieves the decoded SOAP message for a message content, decoding the body using the per-thread unmarshallers
+     * of a {@linkplain MessageDecodingService} on a cache miss.
+     *
+     * @param messageContent  to retrieve the decoded message for
+     * @param decodingService to decode the body with on a cache miss
+     * @return the decoded message, shared with all other callers
+     * @throws MarshallingException if the body cannot be unmarshalled
+     */
+    public SoapMessage getSoapMessage(
+            final MessageContent messageContent, final MessageDecodingService decodingService)
+            throws MarshallingException {
+        return getSoapMessage(
+                messageContent,
+                () -> new CacheEntry(decodingService.decode(messageContent), getWeight(messageContent)));
+    }
+
+    private SoapMessage getSoapMessage(final MessageContent messageContent, final Callable<CacheEntry> loader)
+            throws MarshallingException {
+        try {
+            return cache.get(messageContent.getMessageHash(), loader).message();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final MarshallingException marshallingException) {
+                throw marshallingException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Retrieves the body of the decoded SOAP message for a message content.
+     *
+     * @param messageContent to retrieve the body for
+     * @param bodyType       expected type of the body
+     * @param <T>            expected type of the body
+     * @return the body if it is of the expected type, empty otherwise
+     * @throws MarshallingException if the body cannot be unmarshalled
+     */
+    public <T> Optional<T> getBody(final MessageContent messageContent, final Class<T> bodyType)
+            throws MarshallingException {
+        return soapUtil.getBody(getSoapMessage(messageContent), bodyType);
+    }
+
+    /**
+     * Decodes an inbound report ahead of its first use, all other messages are ignored.
+     *
+     * <p>
+     * Intended to be registered as ingest listener of the message storage, moving the decoding into the threads
+     * writing messages to the database while messages are being collected. Failures are not reported here, the
+     * message is decoded again and the failure surfaces when it is actually used. Pre-decoding stops once the reports
+     * decoded so far fill the cache, as further reports would only evict them before they are used.
+     *
+     * @param messageContent ingested message content
+     */
+    public void preDecode(final MessageContent messageContent) {
+        if (messageContent.getDirection() != CommunicationLog.Direction.INBOUND) {
+            return;
+        }
+        final boolean isReport = messageContent.getMdibVersionGroups().stream()
+                .anyMatch(group -> PRE_DECODED_BODIES.contains(group.getBodyElement()));
+        if (!isReport) {
+            return;
+        }
+        final long amount = preDecodeWeighted ? getWeight(messageContent) : 1;
+        if (preDecodedAmount.addAndGet(amount) > preDecodeCapacity) {
+            if (preDecodingStopped.compareAndSet(false, true)) {
+                LOG.info("The decoded message cache is filled with pre-decoded reports, further reports are only"
+                        + " decoded when used");
+            }
+            return;
+        }
+        try {
+            getSoapMessage(messageContent);
+        } catch (final MarshallingException | RuntimeException e) {
+            LOG.debug("Could not pre-decode message {}", messageContent.getUuid(), e);
+        }
+    }
+
+    /**
+     * @return hit and miss statistics of the cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Evicts all cached messages.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private CacheEntry unmarshal(final MessageContent messageContent) throws MarshallingException, IOException {
+        try (final var body = messageContent.openBodyStream()) {
+            final var message = marshalling.unmarshal(body);
+            return new CacheEntry(message, getWeight(messageContent));
+        }
+    }
+
+    private static int getWeight(final MessageContent messageContent) {
+        return (int) Math.min(Integer.MAX_VALUE, messageContent.getBodyLength());
+    }
+
+    private record CacheEntry(SoapMessage message, int weight) {}
+}
@@ -0,0 +1,152 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import org.somda.sdc.biceps.common.MdibEntity;
+import org.somda.sdc.biceps.model.message.AbstractReport;
+import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
+import org.somda.sdc.biceps.model.participant.AbstractState;
+
+/**
+ * Changes between two consecutive versions of an mdib history caused by applying a report.
+ *
+ * <p>
+ * Only entities and states which have been inserted, deleted or whose content differs between both versions are
+ * contained, allowing checks on consecutive versions to only regard the changes instead of the whole MDIB.
+ *
+ * @param previous      version before applying the report
+ * @param current       version after applying the report
+ * @param report        which has been applied
+ * @param entityChanges entities which have been inserted, deleted, or whose descriptor or children have changed
+ * @param stateChanges  states which have been inserted, deleted or updated
+ */
+public record MdibChangeSet(
+        VersionedMdib previous,
+        VersionedMdib current,
+        AbstractReport report,
+        List<EntityChange> entityChanges,
+        List<StateChange> stateChanges) {
+
+    /**
+     * @return true if the report did not change any entity or state, false otherwise
+     */
+    public boolean isEmpty() {
+        return entityChanges.isEmpty() && stateChanges.isEmpty();
+    }
+
+    /**
+     * Retrieves the changes of all entities whose descriptor before or after the change is of a type.
+     *
+     * @param type of the descriptors
+     * @param <T>  type of the descriptors
+     * @return all matching entity changes
+     */
+    public <T extends AbstractDescriptor> List<EntityChange> getEntityChanges(final Class<T> type) {
+        return entityChanges.stream()
+                .filter(change -> change.getBefore(type).isPresent()
+                        || change.getAfter(type).isPresent())
+                .toList();
+    }
+
+    /**
+     * Retrieves the changes of all states which are of a type before or after the change.
+     *
+     * @param type of the states
+     * @param <T>  type of the states
+     * @return all matching state changes
+     */
+    public <T extends AbstractState> List<StateChange> getStateChanges(final Class<T> type) {
+        return stateChanges.stream()
+                .filter(change -> type.isInstance(change.before()) || type.isInstance(change.after()))
+                .toList();
+    }
+
+    /**
+     * Change of an entity.
+     *
+     * @param handle of the descriptor
+     * @param before entity before the change, null if it has been inserted
+     * @param after  entity after the change, null if it has been deleted
+     */
+    public record EntityChange(String handle, @Nullable MdibEntity before, @Nullable MdibEntity after) {
+        /**
+         * @return true if the entity has been inserted, false otherwise
+         */
+        public boolean isInserted() {
+            return before == null;
+        }
+
+        /**
+         * @return true if the entity has been deleted, false otherwise
+         */
+        public boolean isDeleted() {
+            return after == null;
+        }
+
+        /**
+         * @param type of the descriptor
+         * @param <T>  type of the descriptor
+         * @return the descriptor before the change if present and of the given type
+         */
+        public <T extends AbstractDescriptor> Optional<T> getBefore(final Class<T> type) {
+            return Optional.ofNullable(before).flatMap(entity -> entity.getDescriptor(type));
+        }
+
+        /**
+         * @param type of the descriptor
+         * @param <T>  type of the descriptor
+         * @return the descriptor after the change if present and of the given type
+         */
+        public <T extends AbstractDescriptor> Optional<T> getAfter(final Class<T> type) {
+            return Optional.ofNullable(after).flatMap(entity -> entity.getDescriptor(type));
+        }
+    }
+
+    /**
+     * Change of a state.
+     *
+     * @param handle of the state, i.e. the descriptor handle for single states and the state handle for multi states
+     * @param before state before the change, null if it has been inserted
+     * @param after  state after the change, null if it has been deleted
+     */
+    public record StateChange(String handle, @Nullable AbstractState before, @Nullable AbstractState after) {
+        /**
+         * @return true if the state has been inserted, false otherwise
+         */
+        public boolean isInserted() {
+            return before == null;
+        }
+
+        /**
+         * @return true if the state has been deleted, false otherwise
+         */
+        public boolean isDeleted() {
+            return after == null;
+        }
+
+        /**
+         * @param type of the state
+         * @param <T>  type of the state
+         * @return the state before the change if present and of the given type
+         */
+        public <T extends AbstractState> Optional<T> getBefore(final Class<T> type) {
+            return Optional.ofNullable(before).filter(type::isInstance).map(type::cast);
+        }
+
+        /**
+         * @param type of the state
+         * @param <T>  type of the state
+         * @return the state after the change if present and of the given type
+         */
+        public <T extends AbstractState> Optional<T> getAfter(final Class<T> type) {
+            return Optional.ofNullable(after).filter(type::isInstance).map(type::cast);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.biceps.model.participant.Mdib;
+
+/**
+ * Run-wide store of MDIB snapshots taken while replaying the unique episodic report based history of a sequence.
+ *
+ * <p>
+ * A checkpoint holds the MDIB after all unique reports of the sequence up to and including its MdibVersion have been
+ * applied. Checkpoints are indexed by MdibVersion and by the latest timestamp of the reports they contain, allowing
+ * the {@linkplain MdibHistorian} to continue a replay from the nearest checkpoint instead of the initial MDIB.
+ * Snapshots are held using soft references, the garbage collector may reclaim them when memory runs low.
+ *
+ * <p>
+ * <em>Snapshots are shared between all callers and must therefore be treated as read-only.</em>
+ */
+@Singleton
+public class MdibCheckpointStore {
+    private static final Logger LOG = LogManager.getLogger(MdibCheckpointStore.class);
+
+    private final long intervalReports;
+    private final long intervalNanos;
+    private final Map<String, SequenceCheckpoints> checkpoints;
+
+    @Inject
+    MdibCheckpointStore(
+            @Named(TestSuiteConfig.CHECKPOINT_INTERVAL_REPORTS) final long intervalReports,
+            @Named(TestSuiteConfig.CHECKPOINT_INTERVAL_SECONDS) final long intervalSeconds) {
+        this.intervalReports = intervalReports;
+        this.intervalNanos = intervalSeconds > 0 ? TimeUnit.SECONDS.toNanos(intervalSeconds) : 0;
+        this.checkpoints = new ConcurrentHashMap<>();
+        LOG.debug(
+                "Writing mdib checkpoints every {} reports or {} seconds of received reports",
+                intervalReports,
+                intervalSeconds);
+    }
+
+    /**
+     * Determines whether a new checkpoint is due.
+     *
+     * @param reportsSinceCheckpoint number of reports applied since the last checkpoint or the initial mdib
+     * @param nanosSinceCheckpoint   time between the latest report of the last checkpoint or the initial mdib and the
+     *                               latest applied report
+     * @return true if a checkpoint shall be written, false otherwise
+     */
+    public boolean isCheckpointDue(final long reportsSinceCheckpoint, final long nanosSinceCheckpoint) {
+        if (reportsSinceCheckpoint <= 0) {
+            return false;
+        }
+        return (intervalReports > 0 && reportsSinceCheckpoint >= intervalReports)
+                || (intervalNanos > 0 && nanosSinceCheckpoint >= intervalNanos);
+    }
+
+    /**
+     * Stores a checkpoint, an existing checkpoint of the sequence with the same MdibVersion is kept.
+     *
+     * @param sequenceId of the sequence the checkpoint belongs to
+     * @param checkpoint to store
+     */
+    public void addCheckpoint(final String sequenceId, final Checkpoint checkpoint) {
+        final var sequenceCheckpoints = checkpoints.computeIfAbsent(sequenceId, key -> new SequenceCheckpoints());
+        final var reference = new SoftReference<>(checkpoint);
+        if (sequenceCheckpoints.byMdibVersion().putIfAbsent(checkpoint.mdibVersion(), reference) == null) {
+            // checkpoints of later versions contain all reports of earlier ones, prefer them for equal timestamps
+            sequenceCheckpoints
+                    .byTimestamp()
+                    .merge(
+                            checkpoint.timestamp(),
+                            reference,
+                            (present, added) -> isLaterCheckpoint(added, present) ? added : present);
+            LOG.debug(
+                    "Stored mdib checkpoint for sequence {} at mdib version {}", sequenceId, checkpoint.mdibVersion());
+        }
+    }
+
+    /**
+     * Checks whether a checkpoint for a sequence and MdibVersion is present.
+     *
+     * @param sequenceId  of the sequence
+     * @param mdibVersion of the checkpoint
+     * @return true if a checkpoint is present, false otherwise
+     */
+    public boolean hasCheckpoint(final String sequenceId, final long mdibVersion) {
+        final var sequenceCheckpoints = checkpoints.get(sequenceId);
+        if (sequenceCheckpoints == null) {
+            return false;
+        }
+        final var reference = sequenceCheckpoints.byMdibVersion().get(mdibVersion);
+        return reference != null && reference.get() != null;
+    }
+
+    /**
+     * Retrieves the checkpoint with the highest MdibVersion not exceeding the given version.
+     *
+     * @param sequenceId  of the sequence
+     * @param mdibVersion highest MdibVersion of the checkpoint, inclusive
+     * @return the checkpoint if present
+     */
+    public Optional<Checkpoint> findAtOrBeforeMdibVersion(final String sequenceId, final long mdibVersion) {
+        final var sequenceCheckpoints = checkpoints.get(sequenceId);
+        if (sequenceCheckpoints == null) {
+            return Optional.empty();
+        }
+        return findLatest(sequenceCheckpoints.byMdibVersion().headMap(mdibVersion, true));
+    }
+
+    /**
+     * Retrieves the checkpoint with the highest MdibVersion containing only reports received before a timestamp.
+     *
+     * @param sequenceId of the sequence
+     * @param timestamp  all reports of the checkpoint have been received before, exclusive
+     * @return the checkpoint if present
+     */
+    public Optional<Checkpoint> findBeforeTimestamp(final String sequenceId, final long timestamp) {
+        final var sequenceCheckpoints = checkpoints.get(sequenceId);
+        if (sequenceCheckpoints == null) {
+            return Optional.empty();
+        }
+        return findLatest(sequenceCheckpoints.byTimestamp().headMap(timestamp, false));
+    }
+
+    private static Optional<Checkpoint> findLatest(final NavigableMap<Long, SoftReference<Checkpoint>> candidates) {
+        for (final var reference : candidates.descendingMap().values()) {
+            final var checkpoint = reference.get();
+            if (checkpoint != null) {
+                return Optional.of(checkpoint);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isLaterCheckpoint(
+            final SoftReference<Checkpoint> candidate, final SoftReference<Checkpoint> other) {
+        final var candidateCheckpoint = candidate.get();
+        final var otherCheckpoint = other.get();
+        return otherCheckpoint == null
+                || (candidateCheckpoint != null && candidateCheckpoint.mdibVersion() > otherCheckpoint.mdibVersion());
+    }
+
+    /**
+     * Snapshot of the MDIB of a sequence.
+     *
+     * @param mdibVersion    MdibVersion of the MDIB, all unique reports up to and including it have been applied
+     * @param timestamp      latest timestamp of the applied reports
+     * @param appliedReports number of reports applied on the initial MDIB
+     * @param mdib           the snapshot
+     */
+    public record Checkpoint(long mdibVersion, long timestamp, long appliedReports, Mdib mdib) {}
+
+    private record SequenceCheckpoints(
+            NavigableMap<Long, SoftReference<Checkpoint>> byMdibVersion,
+            NavigableMap<Long, SoftReference<Checkpoint>> byTimestamp) {
+        SequenceCheckpoints() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentSkipListMap<>());
+        }
+    }
+}
@@ -8,28 +8,39 @@ package com.draeger.medical.sdccc.tests.util;
 
 import static org.junit.jupiter.api.Assertions.fail;
 
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import com.google.inject.Guice;
 import com.google.inject.Provider;
-import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
-import com.google.inject.assistedinject.FactoryModuleBuilder;
-import java.io.ByteArrayInputStream;
+import com.google.inject.name.Named;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import javax.xml.namespace.QName;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -37,34 +48,17 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.util.TriConsumer;
-import org.somda.sdc.biceps.common.CommonConfig;
-import org.somda.sdc.biceps.common.access.ReadTransaction;
-import org.somda.sdc.biceps.common.access.ReadTransactionImpl;
-import org.somda.sdc.biceps.common.access.factory.ReadTransactionFactory;
-import org.somda.sdc.biceps.common.preprocessing.DescriptorChildRemover;
-import org.somda.sdc.biceps.common.storage.MdibStorage;
-import org.somda.sdc.biceps.common.storage.MdibStorageImpl;
-import org.somda.sdc.biceps.common.storage.MdibStoragePreprocessingChain;
 import org.somda.sdc.biceps.common.storage.PreprocessingException;
-import org.somda.sdc.biceps.common.storage.StatePreprocessingSegment;
-import org.somda.sdc.biceps.common.storage.factory.MdibStorageFactory;
-import org.somda.sdc.biceps.common.storage.factory.MdibStoragePreprocessingChainFactory;
 import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
-import org.somda.sdc.biceps.consumer.access.RemoteMdibAccessImpl;
 import org.somda.sdc.biceps.consumer.access.factory.RemoteMdibAccessFactory;
-import org.somda.sdc.biceps.consumer.preprocessing.DuplicateContextStateHandleHandler;
 import org.somda.sdc.biceps.model.message.AbstractReport;
 import org.somda.sdc.biceps.model.message.GetMdibResponse;
 import org.somda.sdc.biceps.model.participant.Mdib;
 import org.somda.sdc.biceps.model.participant.MdibVersion;
-import org.somda.sdc.biceps.provider.preprocessing.ContextHandleDuplicateChecker;
-import org.somda.sdc.biceps.provider.preprocessing.DuplicateChecker;
-import org.somda.sdc.biceps.provider.preprocessing.DuplicateDescriptorChecker;
-import org.somda.sdc.common.guice.AbstractConfigurationModule;
-import org.somda.sdc.common.guice.DefaultCommonModule;
 import org.somda.sdc.dpws.soap.MarshallingService;
 import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
+import org.somda.sdc.glue.common.factory.MdibMapperFactory;
 import org.somda.sdc.glue.common.factory.ModificationsBuilderFactory;
 import org.somda.sdc.glue.consumer.report.ReportProcessingException;
 import org.somda.sdc.glue.consumer.report.ReportProcessor;
@@ -73,6 +67,11 @@ import org.somda.sdc.glue.consumer.report.helper.EpisodicReport;
 /**
  * The {@linkplain MdibHistorian} provides methods to generate histories of the Mdib during a test run. It currently
  * supports episodic report based histories.
+ *
+ * <p>
+ * Methods processing the histories of all known sequence ids replay different sequences in parallel if
+ * {@linkplain TestSuiteConfig#SEQUENCE_REPLAY_THREADS} is greater than one, their processors must be thread-safe in
+ * that case.
  */
 public class MdibHistorian {
     public static final String NO_MDIB_ERROR = "No initial mdib present";
@@ -84,9 +83,19 @@ public class MdibHistorian {
     private final TestRunObserver testRunObserver;
     private final MarshallingService marshalling;
     private final SoapUtil soapUtil;
+    private final DecodedMessageCache decodedMessageCache;
+    private final MdibHistorianBicepsInjector bicepsInjector;
     private final RemoteMdibAccessFactory remoteMdibAccessFactory;
+    private final MdibCheckpointStore checkpointStore;
+    private final MdibHistoryReplayCache replayCache;
+    private final MdibMapperFactory mdibMapperFactory;
     private final ModificationsBuilderFactory modificationsBuilderFactory;
     private final Provider<ReportProcessor> reportProcessorProvider;
+    private final long sequenceReplayThreads;
+    private final MessageDecodingService decodingService;
+    private final boolean decodeAheadReports;
+    private final boolean copyFreeReplays;
+    private final boolean verifyReplayImmutability;
 
     @AssistedInject
     MdibHistorian(
@@ -94,59 +103,35 @@ public class MdibHistorian {
             final @Assisted TestRunObserver testRunObserver,
             final MarshallingService marshalling,
             final SoapUtil soapUtil,
+            final DecodedMessageCache decodedMessageCache,
+            final MdibHistorianBicepsInjector bicepsInjector,
+            final MdibCheckpointStore checkpointStore,
+            final MdibHistoryReplayCache replayCache,
+            final MdibMapperFactory mdibMapperFactory,
             final ModificationsBuilderFactory modificationsBuilderFactory,
-            final Provider<ReportProcessor> reportProcessorProvider) {
+            final Provider<ReportProcessor> reportProcessorProvider,
+            @Named(TestSuiteConfig.SEQUENCE_REPLAY_THREADS) final long sequenceReplayThreads,
+            final MessageDecodingService decodingService,
+            @Named(TestSuiteConfig.DECODE_AHEAD_REPORTS) final boolean decodeAheadReports,
+            @Named(TestSuiteConfig.COPY_FREE_REPLAYS) final boolean copyFreeReplays,
+            @Named(TestSuiteConfig.VERIFY_REPLAY_IMMUTABILITY) final boolean verifyReplayImmutability) {
         this.messageStorage = messageStorage;
         this.testRunObserver = testRunObserver;
         this.marshalling = marshalling;
         this.soapUtil = soapUtil;
+        this.decodedMessageCache = decodedMessageCache;
+        this.checkpointStore = checkpointStore;
+        this.replayCache = replayCache;
+        this.mdibMapperFactory = mdibMapperFactory;
         this.modificationsBuilderFactory = modificationsBuilderFactory;
         this.reportProcessorProvider = reportProcessorProvider;
-
-        class MdibHistorianBicepsModule extends AbstractConfigurationModule {
-            @Override
-            protected void defaultConfigure() {
-                install(new FactoryModuleBuilder()
-                        .implement(MdibStoragePreprocessingChain.class, MdibStoragePreprocessingChain.class)
-                        .build(MdibStoragePreprocessingChainFactory.class));
-                install(new FactoryModuleBuilder()
-                        .implement(MdibStorage.class, MdibStorageImpl.class)
-                        .build(MdibStorageFactory.class));
-                install(new FactoryModuleBuilder()
-                        .implement(ReadTransaction.class, ReadTransactionImpl.class)
-                        .build(ReadTransactionFactory.class));
-                install(new FactoryModuleBuilder()
-                        .implement(RemoteMdibAccess.class, RemoteMdibAccessImpl.class)
-                        .build(RemoteMdibAccessFactory.class));
-            }
-        }
-
-        class MdibHistorianConfigurationModule extends AbstractConfigurationModule {
-            @Override
-            protected void defaultConfigure() {
-                bind(org.somda.sdc.common.CommonConfig.INSTANCE_IDENTIFIER, String.class, "");
-                bind(CommonConfig.STORE_NOT_ASSOCIATED_CONTEXT_STATES, Boolean.class, true);
-                bind(CommonConfig.COPY_MDIB_INPUT, Boolean.class, true);
-                bind(CommonConfig.COPY_MDIB_OUTPUT, Boolean.class, true);
-                bind(
-                        CommonConfig.CONSUMER_STATE_PREPROCESSING_SEGMENTS,
-                        new TypeLiteral<List<Class<? extends StatePreprocessingSegment>>>() {},
-                        List.of(DuplicateContextStateHandleHandler.class, ContextHandleDuplicateChecker.class));
-                bind(
-                        CommonConfig.CONSUMER_DESCRIPTION_PREPROCESSING_SEGMENTS,
-                        new TypeLiteral<>() {},
-                        List.of(
-                                DescriptorChildRemover.class, DuplicateChecker.class,
-                                DuplicateDescriptorChecker.class, ContextHandleDuplicateChecker.class));
-            }
-        }
-
-        final var historianBicepsModule = new MdibHistorianBicepsModule();
-        final var historianConfiguration = new MdibHistorianConfigurationModule();
-
-        final var injector =
-                Guice.createInjector(new DefaultCommonModule(), historianBicepsModule, historianConfiguration);
-        this.remoteMdibAccessFactory = injector.getInstance(RemoteMdibAccessFactory.class);
+        this.sequenceReplayThreads = sequenceReplayThreads;
+        this.decodingService = decodingService;
+        this.decodeAheadReports = decodeAheadReports;
+        this.copyFreeReplays = copyFreeReplays;
+        this.verifyReplayImmutability = verifyReplayImmutability;
+        this.bicepsInjector = bicepsInjector;
+        this.remoteMdibAccessFactory = bicepsInjector.getRemoteMdibAccessFactory();
     }
 
     /**
@@ -167,6 +152,25 @@ public class MdibHistorian {
      * @throws PreprocessingException if converting the initial mdib fails
      */
     public RemoteMdibAccess createNewStorage(final String sequenceId) throws PreprocessingException {
+        return createNewStorage(sequenceId, remoteMdibAccessFactory);
+    }
+
+    private RemoteMdibAccess createNewStorage(final String sequenceId, final RemoteMdibAccessFactory storageFactory)
+            throws PreprocessingException {
+        final var cachedMdib = replayCache.getInitialMdib(sequenceId);
+        if (cachedMdib.isPresent()) {
+            // the cached mdib is shared with other historians and must not be handed out
+            return convertToRemoteMdib((Mdib) cachedMdib.orElseThrow().clone(), storageFactory);
+        }
+
+        final var initialMdib = retrieveInitialMdib(sequenceId);
+        if (replayCache.isEnabled()) {
+            replayCache.addInitialMdib(sequenceId, (Mdib) initialMdib.clone());
+        }
+        return convertToRemoteMdib(initialMdib, storageFactory);
+    }
+
+    private Mdib retrieveInitialMdib(final String sequenceId) {
         final Mdib initialMdib;
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, GET_MDIB_RESPONSE)) {
@@ -182,8 +186,7 @@ public class MdibHistorian {
             // unreachable, silence warnings
             throw new RuntimeException(e);
         }
-
-        return convertToRemoteMdib(initialMdib);
+        return initialMdib;
     }
 
     /**
@@ -218,25 +221,42 @@ public class MdibHistorian {
     private HistorianResult getHistorianResultForEpisodicReportBasedHistory(
             final String sequenceId, final boolean ensureUnique)
             throws PreprocessingException, ReportProcessingException {
+        final var replay = replayEpisodicReports(sequenceId, ensureUnique, remoteMdibAccessFactory);
+        final var storage = replay.storage();
+        // initial mdib stream
+        final var initialMdibStream = Stream.of(storage);
+        return new HistorianResult(
+                replay.messages(), Stream.concat(initialMdibStream, replay.reports().map(report -> storage)));
+    }
+
+    /**
+     * Creates a new storage for a sequence and a stream of its episodic reports, each report is applied on the
+     * storage when it is reached in the stream.
+     */
+    private EpisodicReportReplay replayEpisodicReports(
+            final String sequenceId, final boolean ensureUnique, final RemoteMdibAccessFactory storageFactory)
+            throws PreprocessingException {
         // create new storage
-        final var storage = createNewStorage(sequenceId);
+        final var storage = createNewStorage(sequenceId, storageFactory);
         final var reportProcessor = reportProcessorProvider.get();
         reportProcessor.startApplyingReportsOnMdib(storage);
-        final var mdibVersionPredicate =
-                new InitialMdibVersionPredicateWithUUID(ImpliedValueUtil.getMdibVersion(storage.getMdibVersion()));
+        final var initialMdibVersion = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion());
+        final var mdibVersionPredicate = new InitialMdibVersionPredicateWithUUID(initialMdibVersion);
 
         try {
-            final var messages =
-                    messageStorage.getInboundMessagesByBodyType(Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
-            var preStream = messages.getStream()
-                    .sequential() // the stateful filter operation below is not threadsafe
-                    .map(this::unmarshallReportKeepUUID)
+            // only reports of this sequence which are not older than the initial mdib are loaded and decoded
+            final var messages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+                    sequenceId,
+                    initialMdibVersion.longValueExact(),
+                    Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            // the stateful filter operation below is not threadsafe
+            var preStream = decodeReports(messages.getStream().sequential())
                     .filter(report -> sequenceId.equals(report.getLeft().getSequenceId()))
                     .filter(mdibVersionPredicate);
             if (ensureUnique) {
                 preStream = filterReportDuplicates(preStream);
             }
-            final var stream = preStream.map(pair -> {
+            final var reports = preStream.map(pair -> {
                 final var report = pair.getLeft();
                 try {
                     final var cmp = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
@@ -270,13 +290,10 @@ public class MdibHistorian {
                 } catch (final Exception e) {
                     fail(e);
                 }
-                return storage;
+                return report;
             });
 
-            // initial mdib stream
-            final var initialMdibStream = Stream.of(storage);
-
-            return new HistorianResult(messages, Stream.concat(initialMdibStream, stream));
+            return new EpisodicReportReplay(storage, messages, reports);
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve reports from storage";
             LOG.error("{}: {}", errorMessage, e.getMessage());
@@ -309,9 +326,8 @@ public class MdibHistorian {
         try {
             final var messages = messageStorage.getInboundMessagesByTimestampAndBodyType(
                     sequenceId, timestamp, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
-            var preStream = messages.getStream()
-                    .sequential() // the stateful filter operation below is not threadsafe
-                    .map(this::unmarshallReportKeepUUID)
+            // the stateful filter operation below is not threadsafe
+            var preStream = decodeReports(messages.getStream().sequential())
                     .filter(report -> sequenceId.equals(report.getLeft().getSequenceId()))
                     .filter(mdibVersionPredicate);
 
@@ -372,6 +388,192 @@ public class MdibHistorian {
         }
     }
 
+    /**
+     * Determines the mdib of a sequence after all unique episodic reports received before a timestamp have been
+     * applied.
+     *
+     * <p>
+     * The reports are applied starting from the nearest checkpoint of the {@linkplain MdibCheckpointStore} if present,
+     * new checkpoints are written while applying them.
+     *
+     * @param sequenceId of the sequence to determine the mdib for
+     * @param timestamp  of the reports to apply, exclusive
+     * @return the mdib, empty if no report has been received before the timestamp
+     * @throws PreprocessingException    if converting the initial mdib or a checkpoint fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    public Optional<RemoteMdibAccess> uniqueStateUntilTimestamp(final String sequenceId, final long timestamp)
+            throws PreprocessingException, ReportProcessingException {
+        try (final var replay = startReplay(
+                sequenceId,
+                checkpointStore.findBeforeTimestamp(sequenceId, timestamp).orElse(null),
+                message -> message.getNanoTimestamp() < timestamp)) {
+            replay.applyWhile(report -> true);
+            return replay.getAppliedReports() > 0 ? Optional.of(replay.getStorage()) : Optional.empty();
+        }
+    }
+
+    /**
+     * Determines the mdib of a sequence at multiple timestamps using a single replay of its unique episodic reports.
+     *
+     * <p>
+     * The probes are processed in order of their timestamps. Each probe is processed with the mdib after all reports
+     * preceding the first report received at or after its timestamp have been applied. As long as reports are received
+     * in order of their mdib versions, this is the mdib {@linkplain #uniqueStateUntilTimestamp(String, long)}
+     * determines for the timestamp. The replay starts from the nearest checkpoint of the
+     * {@linkplain MdibCheckpointStore} before the earliest timestamp if present, new checkpoints are written while
+     * applying reports.
+     *
+     * <p>
+     * <em>The mdib passed to the processor is modified after the processor returns and must not be retained.</em>
+     *
+     * @param sequenceId        of the sequence to determine the mdibs for
+     * @param probes            to process, in any order
+     * @param timestampFunction determining the timestamp of a probe, reports received at or after it are not applied
+     * @param processor         called for each probe with the mdib, empty if no report has been received before the
+     *                          timestamp of the probe
+     * @param <T>               type of the probes
+     * @throws PreprocessingException    if converting the initial mdib or a checkpoint fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    public <T> void processUniqueStatesUntilTimestamps(
+            final String sequenceId,
+            final Collection<T> probes,
+            final ToLongFunction<T> timestampFunction,
+            final BiConsumer<T, Optional<RemoteMdibAccess>> processor)
+            throws PreprocessingException, ReportProcessingException {
+        if (probes.isEmpty()) {
+            return;
+        }
+        final var sortedProbes = probes.stream().sorted(Comparator.comparingLong(timestampFunction)).toList();
+        final var earliestTimestamp = timestampFunction.applyAsLong(sortedProbes.get(0));
+        try (final var replay = startReplay(
+                sequenceId,
+                checkpointStore.findBeforeTimestamp(sequenceId, earliestTimestamp).orElse(null),
+                message -> true)) {
+            for (final var probe : sortedProbes) {
+                replay.applyWhileReceivedBefore(timestampFunction.applyAsLong(probe));
+                processor.accept(
+                        probe, replay.getAppliedReports() > 0 ? Optional.of(replay.getStorage()) : Optional.empty());
+            }
+        }
+    }
+
+    /**
+     * Determines the mdib of a sequence after all unique episodic reports up to and including an mdib version have
+     * been applied.
+     *
+     * <p>
+     * The reports are applied starting from the nearest checkpoint of the {@linkplain MdibCheckpointStore} if present,
+     * new checkpoints are written while applying them.
+     *
+     * @param sequenceId  of the sequence to determine the mdib for
+     * @param mdibVersion of the reports to apply, inclusive
+     * @return the mdib, which is the initial mdib if it is newer than the given version
+     * @throws PreprocessingException    if converting the initial mdib or a checkpoint fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    public RemoteMdibAccess uniqueStateAtMdibVersion(final String sequenceId, final BigInteger mdibVersion)
+            throws PreprocessingException, ReportProcessingException {
+        try (final var replay = startReplayAtMdibVersion(sequenceId, mdibVersion)) {
+            return replay.getStorage();
+        }
+    }
+
+    /**
+     * Generates an mdib history for a sequence id starting at the mdib after all unique episodic reports up to and
+     * including an mdib version have been applied, followed by the mdib after each subsequent unique report.
+     *
+     * <p>
+     * The reports up to the mdib version are applied starting from the nearest checkpoint of the
+     * {@linkplain MdibCheckpointStore} if present, new checkpoints are written while applying reports.
+     *
+     * @param sequenceId  of the sequence to generate history for
+     * @param mdibVersion of the first mdib in the history
+     * @return a new result based on episodic reports
+     * @throws PreprocessingException    if converting the initial mdib or a checkpoint fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    public HistorianResult uniqueEpisodicReportBasedHistoryFromMdibVersion(
+            final String sequenceId, final BigInteger mdibVersion)
+            throws PreprocessingException, ReportProcessingException {
+        final var replay = startReplayAtMdibVersion(sequenceId, mdibVersion);
+        final var storage = replay.getStorage();
+        final var stream = StreamSupport.stream(
+                new Spliterators.AbstractSpliterator<RemoteMdibAccess>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                    @Override
+                    public boolean tryAdvance(final Consumer<? super RemoteMdibAccess> action) {
+                        try {
+                            if (replay.applyNext()) {
+                                action.accept(storage);
+                                return true;
+                            }
+                        } catch (final PreprocessingException | ReportProcessingException e) {
+                            fail(e);
+                        }
+                        return false;
+                    }
+                },
+                false);
+        return new HistorianResult(replay.getMessages(), Stream.concat(Stream.of(storage), stream));
+    }
+
+    private CheckpointedReplay startReplayAtMdibVersion(final String sequenceId, final BigInteger mdibVersion)
+            throws PreprocessingException, ReportProcessingException {
+        final var replay = startReplay(
+                sequenceId,
+                checkpointStore
+                        .findAtOrBeforeMdibVersion(sequenceId, mdibVersion.longValueExact())
+                        .orElse(null),
+                message -> true);
+        try {
+            replay.applyWhile(report -> ImpliedValueUtil.getReportMdibVersion(report).compareTo(mdibVersion) <= 0);
+        } catch (final PreprocessingException | ReportProcessingException | RuntimeException e) {
+            replay.close();
+            throw e;
+        }
+        return replay;
+    }
+
+    private CheckpointedReplay startReplay(
+            final String sequenceId,
+            @Nullable final MdibCheckpointStore.Checkpoint checkpoint,
+            final Predicate<MessageContent> messageFilter)
+            throws PreprocessingException {
+        final RemoteMdibAccess storage;
+        final long minimumMdibVersion;
+        if (checkpoint != null) {
+            LOG.debug(
+                    "Replaying reports of sequence {} from checkpoint at mdib version {}",
+                    sequenceId,
+                    checkpoint.mdibVersion());
+            // the snapshot is shared with other replays and must not be handed out
+            storage = convertToRemoteMdib((Mdib) checkpoint.mdib().clone());
+            minimumMdibVersion = checkpoint.mdibVersion() + 1;
+        } else {
+            storage = createNewStorage(sequenceId);
+            minimumMdibVersion = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion()).longValueExact();
+        }
+
+        try {
+            final var messages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+                    sequenceId, minimumMdibVersion, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            return new CheckpointedReplay(sequenceId, storage, checkpoint, messages, messageFilter);
+        } catch (IOException e) {
+            final var errorMessage = "Error while trying to retrieve reports from storage";
+            LOG.error("{}: {}", errorMessage, e.getMessage());
+            LOG.debug("{}", errorMessage, e);
+            testRunObserver.invalidateTestRun(errorMessage, e);
+            fail(e);
+            // unreachable code, silence warnings
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Mdib createSnapshot(final RemoteMdibAccess storage) {
+        return (Mdib) mdibMapperFactory.createMdibMapper(storage).mapMdib().clone();
+    }
+
     /**
      * Retrieves all episodic reports for a given sequence id.
      *
@@ -382,15 +584,9 @@ public class MdibHistorian {
     public Stream<AbstractReport> getAllReports(
             final String sequenceId, @Nullable final BigInteger minimumMdibVersion) {
         try {
-            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
-                    sequenceId, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            final var messages = getReportsAboveMdibVersion(sequenceId, minimumMdibVersion);
 
-            final var iter = messages.getStream().map(this::unmarshallReport);
-            if (minimumMdibVersion != null) {
-                return iter.filter(
-                        it -> ImpliedValueUtil.getReportMdibVersion(it).compareTo(minimumMdibVersion) >= 1);
-            }
-            return iter;
+            return decodeReports(messages.getStream()).map(Pair::getLeft);
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve initial mdib from storage";
             LOG.error("{}: {}", errorMessage, e.getMessage());
@@ -412,16 +608,10 @@ public class MdibHistorian {
     public Stream<AbstractReport> getAllUniqueReports(
             final String sequenceId, @Nullable final BigInteger minimumMdibVersion) {
         try {
-            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
-                    sequenceId, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
-
-            var iter = messages.getStream()
-                    .sequential() // the stateful filter operation below is not thread-safe
-                    .map(this::unmarshallReportKeepUUID);
-            if (minimumMdibVersion != null) {
-                iter = iter.filter(it ->
-                        ImpliedValueUtil.getReportMdibVersion(it.getLeft()).compareTo(minimumMdibVersion) >= 1);
-            }
+            final var messages = getReportsAboveMdibVersion(sequenceId, minimumMdibVersion);
+
+            // the stateful filter operation below is not thread-safe
+            final var iter = decodeReports(messages.getStream().sequential());
             return filterReportDuplicates(iter).map(Pair::getLeft);
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve initial mdib from storage";
@@ -433,11 +623,26 @@ public class MdibHistorian {
         }
     }
 
+    private MessageStorage.GetterResult<MessageContent> getReportsAboveMdibVersion(
+            final String sequenceId, @Nullable final BigInteger minimumMdibVersion) throws IOException {
+        final var reportTypes = Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]);
+        if (minimumMdibVersion == null) {
+            return messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, reportTypes);
+        }
+        // the version bound is evaluated by the database, only matching reports are decoded
+        return messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionAtLeast(
+                sequenceId, minimumMdibVersion.add(BigInteger.ONE).longValueExact(), reportTypes);
+    }
+
     private Stream<Pair<AbstractReport, String>> filterReportDuplicates(
             final Stream<Pair<AbstractReport, String>> iter) {
+        return iter.filter(createDuplicateReportFilter());
+    }
+
+    private Predicate<Pair<AbstractReport, String>> createDuplicateReportFilter() {
         final Pair<AbstractReport, String>[] last = new ImmutablePair[1];
 
-        return iter.filter(it -> {
+        return it -> {
             if (last[0] == null) {
                 last[0] = it;
                 return true;
@@ -477,7 +682,7 @@ public class MdibHistorian {
                     return true;
                 }
             }
-        });
+        };
     }
 
     /**
@@ -492,11 +697,35 @@ public class MdibHistorian {
     public Stream<AbstractReport> getAllReportsWithLowerMdibVersion(
             final String sequenceId, final BigInteger maximumMdibVersion, final QName... bodyTypes) {
         try {
-            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, bodyTypes);
+            // the version bound is evaluated by the database, only matching reports are decoded
+            final var messages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionLessThan(
+                    sequenceId, maximumMdibVersion.longValueExact(), bodyTypes);
 
-            final var iter = messages.getStream().map(this::unmarshallReport);
+            return decodeReports(messages.getStream()).map(Pair::getLeft);
+        } catch (IOException e) {
+            final var errorMessage = "Error while trying to retrieve reports from storage";
+            LOG.error("{}: {}", errorMessage, e.getMessage());
+            LOG.debug("{}", errorMessage, e);
+            fail(e);
+            // unreachable, silence warnings
+            throw new RuntimeException(e);
+        }
+    }
 
-            return iter.filter(it -> ImpliedValueUtil.getReportMdibVersion(it).compareTo(maximumMdibVersion) < 0);
+    /**
+     * Indexes the states contained in all reports of a given sequence id in a single pass over the reports.
+     *
+     * @param sequenceId   of the sequence to index the reports of
+     * @param handleFilter only states whose descriptor handle matches are indexed
+     * @param bodyTypes    to match messages against
+     * @return index of the reported states
+     */
+    public ReportedStateIndex createReportedStateIndex(
+            final String sequenceId, final Predicate<String> handleFilter, final QName... bodyTypes) {
+        try (final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, bodyTypes)) {
+            final var index = ReportedStateIndex.create(decodeReports(messages.getStream()), handleFilter);
+            LOG.debug("Indexed states of {} reports of sequence {}", index.getReportCount(), sequenceId);
+            return index;
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve reports from storage";
             LOG.error("{}: {}", errorMessage, e.getMessage());
@@ -555,6 +784,45 @@ public class MdibHistorian {
         return storage;
     }
 
+    /**
+     * Decodes reports in the order of the stream, ahead of their use on the threads of the
+     * {@linkplain MessageDecodingService} if enabled, so that the calling thread only applies reports.
+     */
+    private Stream<Pair<AbstractReport, String>> decodeReports(final Stream<MessageContent> messageContents) {
+        if (!decodeAheadReports) {
+            return messageContents.map(this::unmarshallReportKeepUUID);
+        }
+        return decodingService.decodeAll(messageContents, this::decodeReportAhead).map(this::unmarshallDecodedReport);
+    }
+
+    private DecodedReport decodeReportAhead(final MessageContent messageContent) {
+        try {
+            final var soapMessage = decodedMessageCache.getSoapMessage(messageContent, decodingService);
+            return new DecodedReport(
+                    messageContent, soapUtil.getBody(soapMessage, AbstractReport.class).orElse(null), null);
+        } catch (final MarshallingException e) {
+            // failures are reported once the thread applying the reports reaches the report
+            return new DecodedReport(messageContent, null, e);
+        }
+    }
+
+    private Pair<AbstractReport, String> unmarshallDecodedReport(final DecodedReport decodedReport) {
+        final var messageContent = decodedReport.messageContent();
+        final var report = decodedReport.report();
+        if (report == null) {
+            final var failMessage = "Could not unmarshall report in message " + messageContent.getMessageHash();
+            final var failure = decodedReport.failure();
+            if (failure != null) {
+                LOG.error("{}. {}", failMessage, failure.getMessage());
+                LOG.debug("{}.", failMessage, failure);
+            }
+            fail(failMessage);
+            // unreachable, silence warnings
+            throw new RuntimeException(failure);
+        }
+        return new ImmutablePair<>(report, messageContent.getUuid());
+    }
+
     private Pair<AbstractReport, String> unmarshallReportKeepUUID(final MessageContent messageContent) {
         return new ImmutablePair<>(unmarshallReport(messageContent), messageContent.getUuid());
     }
@@ -562,9 +830,8 @@ public class MdibHistorian {
     private AbstractReport unmarshallReport(final MessageContent messageContent) {
         final var failMessage = "Could not unmarshall report in message " + messageContent.getMessageHash();
         try {
-            final var currentMdib = marshalling.unmarshal(
-                    new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-            final var reportOpt = soapUtil.getBody(currentMdib, AbstractReport.class);
+            // reports are only read when applied, the storage copies its input
+            final var reportOpt = decodedMessageCache.getBody(messageContent, AbstractReport.class);
             if (reportOpt.isEmpty()) {
                 fail(failMessage);
                 // unreachable, silence warnings
@@ -582,9 +849,8 @@ public class MdibHistorian {
 
     private Mdib unmarshallMdib(final MessageContent messageContent) {
         final var failMessage = "Could not unmarshall Mdib in message " + messageContent.getMessageHash();
-        try {
-            final var currentMdib = marshalling.unmarshal(
-                    new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+        try (final var body = messageContent.openBodyStream()) {
+            final var currentMdib = marshalling.unmarshal(body);
             final var mdibOpt = soapUtil.getBody(currentMdib, GetMdibResponse.class);
             if (mdibOpt.isEmpty()) {
                 fail(failMessage);
@@ -592,7 +858,7 @@ public class MdibHistorian {
                 throw new RuntimeException();
             }
             return mdibOpt.orElseThrow().getMdib();
-        } catch (final MarshallingException e) {
+        } catch (final MarshallingException | IOException e) {
             LOG.error("{} {}", failMessage, e.getMessage());
             LOG.debug("{} {}", failMessage, e);
             fail(failMessage);
@@ -602,7 +868,12 @@ public class MdibHistorian {
     }
 
     private RemoteMdibAccess convertToRemoteMdib(final Mdib mdib) throws PreprocessingException {
-        final var mdibStorage = this.remoteMdibAccessFactory.createRemoteMdibAccess();
+        return convertToRemoteMdib(mdib, remoteMdibAccessFactory);
+    }
+
+    private RemoteMdibAccess convertToRemoteMdib(final Mdib mdib, final RemoteMdibAccessFactory storageFactory)
+            throws PreprocessingException {
+        final var mdibStorage = storageFactory.createRemoteMdibAccess();
         final var modifications =
                 modificationsBuilderFactory.createModificationsBuilder(mdib).get();
 
@@ -643,11 +914,9 @@ public class MdibHistorian {
      * @param processor  a consumer that processes each RemoteMdibAccess
      */
     public void processAllRemoteMdibAccess(final Consumer<RemoteMdibAccess> processor) throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processRemoteMdibAccessForSequence(processor, sequenceId);
-            });
-        }
+        forEachSequenceId(sequenceId -> {
+            processRemoteMdibAccessForSequence(processor, sequenceId);
+        });
     }
 
     /**
@@ -657,56 +926,109 @@ public class MdibHistorian {
      * @param processor a BiConsumer that processes a RemoteMdibAccess and its associated sequence id.
      */
     public void processAllRemoteMdibAccess(final BiConsumer<RemoteMdibAccess, String> processor) throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processRemoteMdibAccessForSequence(mdibAccess -> processor.accept(mdibAccess, sequenceId), sequenceId);
-            });
-        }
+        forEachSequenceId(sequenceId -> {
+            processRemoteMdibAccessForSequence(mdibAccess -> processor.accept(mdibAccess, sequenceId), sequenceId);
+        });
     }
 
     /**
-     * Processes each consecutive pair of RemoteMdibAccess instances from the episodic report based history
+     * Processes each version of the mdib from the episodic report based history for the specified sequence ID
+     * using the provided processor, starting with the initial mdib.
+     *
+     * <p>
+     * Unlike {@linkplain #processRemoteMdibAccessForSequence(Consumer, String)}, the processed versions are immutable
+     * and can be reused by other callers, while the {@linkplain MdibHistoryReplayCache} is enabled the history of a
+     * sequence is only replayed once for all callers.
+     *
+     * @param processor  a consumer that processes each version of the mdib
+     * @param sequenceId  of the sequence to retrieve reports for
+     */
+    public void processVersionsForSequence(final Consumer<VersionedMdib> processor, final String sequenceId) {
+        processHistory(sequenceId, processor, changes -> processor.accept(changes.current()));
+    }
+
+    /**
+     * Processes each version of the mdib from the episodic report based histories of all known sequence ids
+     * using the provided processor.
+     *
+     * @param processor  a consumer that processes each version of the mdib
+     * @see #processVersionsForSequence(Consumer, String)
+     */
+    public void processAllVersions(final Consumer<VersionedMdib> processor) throws IOException {
+        forEachSequenceId(sequenceId -> {
+            processVersionsForSequence(processor, sequenceId);
+        });
+    }
+
+    /**
+     * Processes each version of the mdib from the episodic report based histories of all known sequence ids
+     * using the provided processor.
+     *
+     * @param processor a BiConsumer that processes a version of the mdib and its associated sequence id.
+     * @see #processVersionsForSequence(Consumer, String)
+     */
+    public void processAllVersions(final BiConsumer<VersionedMdib, String> processor) throws IOException {
+        forEachSequenceId(sequenceId -> {
+            processVersionsForSequence(version -> processor.accept(version, sequenceId), sequenceId);
+        });
+    }
+
+    /**
+     * Processes the changes caused by each report of the episodic report based history of the specified sequenceId
+     * using the provided processor.
+     *
+     * <p>
+     * The history is replayed once, every change set only contains the entities and states changed by its report,
+     * along with the versions of the mdib before and after applying it. While the {@linkplain MdibHistoryReplayCache}
+     * is enabled, the recorded change sets are shared with all other callers.
+     *
+     * @param processor  a consumer that processes the change set of each report
+     * @param sequenceId  of the sequence to retrieve reports for
+     */
+    public void processAllChangeSetsForSequenceId(final Consumer<MdibChangeSet> processor, final String sequenceId) {
+        processHistory(sequenceId, initial -> {}, processor);
+    }
+
+    /**
+     * Processes the changes caused by each report of the episodic report based histories of all known sequence ids
+     * using the provided processor.
+     *
+     * @param processor a consumer that processes the change set of each report
+     */
+    public void processAllChangeSets(final Consumer<MdibChangeSet> processor) throws IOException {
+        forEachSequenceId(sequenceId -> {
+            processAllChangeSetsForSequenceId(processor, sequenceId);
+        });
+    }
+
+    /**
+     * Processes each consecutive pair of mdib versions from the episodic report based history
      * of the specified sequenceId using the provided processor.
      *
-     * @param processor  a consumer that processes each pair of RemoteMdibAccess
+     * <p>
+     * The history is replayed once, both versions of a pair share all entities not affected by the report between
+     * them.
+     *
+     * @param processor  a consumer that processes each pair of previous and current mdib version
      * @param sequenceId  of the sequence to retrieve reports for
      */
     public void processAllConsecutivePairsForSequenceId(
-            final BiConsumer<RemoteMdibAccess, RemoteMdibAccess> processor, final String sequenceId) {
-        try (final MdibHistorian.HistorianResult history = episodicReportBasedHistory(sequenceId);
-                final MdibHistorian.HistorianResult historyNext = episodicReportBasedHistory(sequenceId)) {
-
-            // skip the first entry so that history and historyNext are off by one entry
-            final var skippedElement = historyNext.next();
-            if (skippedElement == null) {
-                throw new NoTestData("Not enough input to compare mdib revisions");
-            }
-
-            RemoteMdibAccess first = history.next();
-            RemoteMdibAccess second = historyNext.next();
-            while (second != null) {
-                processor.accept(first, second);
-                first = history.next();
-                second = historyNext.next();
-            }
-        } catch (PreprocessingException | ReportProcessingException | NoTestData e) {
-            fail(e);
-        }
+            final BiConsumer<VersionedMdib, VersionedMdib> processor, final String sequenceId) {
+        processAllChangeSetsForSequenceId(
+                changes -> processor.accept(changes.previous(), changes.current()), sequenceId);
     }
 
     /**
-     * Processes each consecutive pair of RemoteMdibAccess instances from the episodic report based histories
+     * Processes each consecutive pair of mdib versions from the episodic report based histories
      * of all known sequence ids using the provided processor.
      *
-     * @param processor a consumer that processes each pair of RemoteMdibAccess
+     * @param processor a consumer that processes each pair of previous and current mdib version
      */
-    public void processAllConsecutivePairs(final BiConsumer<RemoteMdibAccess, RemoteMdibAccess> processor)
+    public void processAllConsecutivePairs(final BiConsumer<VersionedMdib, VersionedMdib> processor)
             throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processAllConsecutivePairsForSequenceId(processor, sequenceId);
-            });
-        }
+        forEachSequenceId(sequenceId -> {
+            processAllConsecutivePairsForSequenceId(processor, sequenceId);
+        });
     }
 
     /**
@@ -718,72 +1040,226 @@ public class MdibHistorian {
     public void processAllApplicableReports(
             final Predicate<AbstractReport> applicable, final BiConsumer<RemoteMdibAccess, AbstractReport> processor)
             throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                RemoteMdibAccess mdib = null;
-                try {
-                    mdib = createNewStorage(sequenceId);
-                } catch (PreprocessingException e) {
-                    fail(e);
-                }
+        forEachSequenceId(sequenceId -> {
+            RemoteMdibAccess mdib = null;
+            try {
+                mdib = createNewStorage(sequenceId);
+            } catch (PreprocessingException e) {
+                fail(e);
+            }
 
-                final var minimumMdibVersion = ImpliedValueUtil.getMdibVersion(mdib.getMdibVersion());
-                try (final var reports = getAllUniqueReports(sequenceId, minimumMdibVersion)) {
-                    for (final Iterator<AbstractReport> iterator = reports.iterator(); iterator.hasNext(); ) {
-                        final AbstractReport report = iterator.next();
+            final var minimumMdibVersion = ImpliedValueUtil.getMdibVersion(mdib.getMdibVersion());
+            try (final var reports = getAllUniqueReports(sequenceId, minimumMdibVersion)) {
+                for (final Iterator<AbstractReport> iterator = reports.iterator(); iterator.hasNext(); ) {
+                    final AbstractReport report = iterator.next();
 
-                        if (applicable.test(report)) {
-                            processor.accept(mdib, report);
-                        }
-                        mdib = applyReportOnStorage(mdib, report);
+                    if (applicable.test(report)) {
+                        processor.accept(mdib, report);
                     }
-                } catch (PreprocessingException | ReportProcessingException e) {
-                    fail(e);
+                    mdib = applyReportOnStorage(mdib, report);
                 }
-            });
-        }
+            } catch (PreprocessingException | ReportProcessingException e) {
+                fail(e);
+            }
+        });
     }
 
     /**
-     * Processes each consecutive pair of RemoteMdibAccess instances for which the AbstractReport is applicable
+     * Processes each consecutive pair of mdib versions for which the AbstractReport is applicable
      * across all known sequence ids.
      *
+     * <p>
+     * Every history is replayed once, the versions before and after an applicable report share all entities not
+     * affected by it.
+     *
      * @param applicable  a predicate that determines whether a given AbstractReport should be processed
-     * @param processor  a consumer that processes each pair of RemoteMdibAccess and an AbstractReport
+     * @param processor  a consumer that processes the versions before and after applying a report and the report
      *
      */
     public void processAllApplicableReportsConsecutivePairs(
             final Predicate<AbstractReport> applicable,
-            final TriConsumer<RemoteMdibAccess, RemoteMdibAccess, AbstractReport> processor)
+            final TriConsumer<VersionedMdib, VersionedMdib, AbstractReport> processor)
             throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                RemoteMdibAccess first = null;
-                RemoteMdibAccess second = null;
-                try {
-                    first = createNewStorage(sequenceId);
-                    second = createNewStorage(sequenceId);
-                } catch (PreprocessingException e) {
-                    fail(e);
+        forEachSequenceId(sequenceId -> {
+            RemoteMdibAccess mdib = null;
+            try {
+                mdib = createNewStorage(sequenceId);
+            } catch (PreprocessingException e) {
+                fail(e);
+            }
+
+            var previous = VersionedMdib.of(mdib);
+            final var minimumMdibVersion = ImpliedValueUtil.getMdibVersion(mdib.getMdibVersion());
+            try (final var reports = getAllUniqueReports(sequenceId, minimumMdibVersion)) {
+                for (final Iterator<AbstractReport> iterator = reports.iterator(); iterator.hasNext(); ) {
+                    final AbstractReport report = iterator.next();
+                    mdib = applyReportOnStorage(mdib, report);
+                    final var current = previous.update(mdib, VersionedMdib.getAffectedDescriptorHandles(report));
+                    if (applicable.test(report)) {
+                        processor.accept(previous, current, report);
+                    }
+                    previous = current;
                 }
+            } catch (PreprocessingException | ReportProcessingException e) {
+                fail(e);
+            }
+        });
+    }
 
-                final var minimumMdibVersion = ImpliedValueUtil.getMdibVersion(first.getMdibVersion());
-                try (final var reports = getAllUniqueReports(sequenceId, minimumMdibVersion)) {
-                    for (final Iterator<AbstractReport> iterator = reports.iterator(); iterator.hasNext(); ) {
-                        final AbstractReport report = iterator.next();
-                        if (applicable.test(report)) {
-                            second = applyReportOnStorage(second, report);
-                            processor.accept(first, second, report);
-                            first = applyReportOnStorage(first, report);
-                        } else {
-                            first = applyReportOnStorage(first, report);
-                            second = applyReportOnStorage(second, report);
-                        }
+    /**
+     * Performs an action for every known sequence id, in parallel for different sequence ids if more than one sequence
+     * replay thread is configured.
+     *
+     * <p>
+     * When running in parallel, failures are collected until all sequences have been processed. The failure of the
+     * earliest sequence is rethrown with the failures of all later sequences attached as suppressed exceptions, so
+     * that the reported failure does not depend on the scheduling of the threads.
+     */
+    private void forEachSequenceId(final Consumer<String> action) throws IOException {
+        final List<String> sequenceIds;
+        try (final Stream<String> knownSequenceIds = this.getKnownSequenceIds()) {
+            sequenceIds = knownSequenceIds.toList();
+        }
+        final int threadCount = (int) Math.min(sequenceReplayThreads, sequenceIds.size());
+        if (threadCount <= 1) {
+            sequenceIds.forEach(action);
+            return;
+        }
+
+        final var failures = new AtomicReferenceArray<Throwable>(sequenceIds.size());
+        final var pool = new ForkJoinPool(threadCount);
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(sequenceIds.size());
+            for (int i = 0; i < sequenceIds.size(); i++) {
+                final var index = i;
+                tasks.add(pool.submit(() -> {
+                    try {
+                        action.accept(sequenceIds.get(index));
+                    } catch (final RuntimeException | Error e) {
+                        failures.set(index, e);
                     }
-                } catch (PreprocessingException | ReportProcessingException e) {
-                    fail(e);
+                }));
+            }
+            tasks.forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+
+        Throwable failure = null;
+        for (int i = 0; i < failures.length(); i++) {
+            final var sequenceFailure = failures.get(i);
+            if (sequenceFailure == null) {
+                continue;
+            }
+            if (failure == null) {
+                failure = sequenceFailure;
+            } else {
+                failure.addSuppressed(sequenceFailure);
+            }
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        } else if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+    }
+
+    private void processHistory(
+            final String sequenceId,
+            final Consumer<VersionedMdib> initialProcessor,
+            final Consumer<MdibChangeSet> processor) {
+        final Consumer<VersionedMdib> checkedInitialProcessor;
+        final Consumer<MdibChangeSet> checkedProcessor;
+        if (verifyReplayImmutability) {
+            checkedInitialProcessor = version -> {
+                final var hash = version.computeContentHash();
+                initialProcessor.accept(version);
+                checkUnmodified(sequenceId, version, hash, "while processing it");
+            };
+            checkedProcessor = changes -> {
+                final var previousHash = changes.previous().computeContentHash();
+                final var currentHash = changes.current().computeContentHash();
+                processor.accept(changes);
+                checkUnmodified(sequenceId, changes.previous(), previousHash, "while processing it");
+                checkUnmodified(sequenceId, changes.current(), currentHash, "while processing it");
+            };
+        } else {
+            checkedInitialProcessor = initialProcessor;
+            checkedProcessor = processor;
+        }
+
+        if (!replayCache.isEnabled()) {
+            replayHistory(sequenceId, checkedInitialProcessor, checkedProcessor);
+            return;
+        }
+        // the complete history is recorded before processing it, a failing processor must not prevent other
+        // callers from reusing it
+        final var history = replayCache.getOrRecordHistory(sequenceId, () -> recordHistory(sequenceId));
+        checkedInitialProcessor.accept(history.initial());
+        history.changeSets().forEach(checkedProcessor);
+    }
+
+    private MdibHistoryReplayCache.ReplayedHistory recordHistory(final String sequenceId) {
+        final var initial = new AtomicReference<VersionedMdib>();
+        final List<MdibChangeSet> changeSets = new ArrayList<>();
+        replayHistory(sequenceId, initial::set, changeSets::add);
+        return new MdibHistoryReplayCache.ReplayedHistory(initial.get(), List.copyOf(changeSets));
+    }
+
+    private void replayHistory(
+            final String sequenceId,
+            final Consumer<VersionedMdib> initialProcessor,
+            final Consumer<MdibChangeSet> processor) {
+        try {
+            // the storage is only read when creating versions, it does not need to copy its output
+            final var replay = replayEpisodicReports(sequenceId, false, getReplayStorageFactory());
+            try (final var messages = replay.messages();
+                    final var reports = replay.reports()) {
+                // the initial version has to be taken before the first report is applied by the iterator
+                var previous = VersionedMdib.of(replay.storage());
+                var previousHash = verifyReplayImmutability ? previous.computeContentHash() : 0;
+                initialProcessor.accept(previous);
+                for (final Iterator<AbstractReport> iterator = reports.iterator(); iterator.hasNext(); ) {
+                    final var report = iterator.next();
+                    if (verifyReplayImmutability) {
+                        checkUnmodified(sequenceId, previous, previousHash, "while applying the next report");
+                    }
+                    final var changes = previous.updateWithChanges(replay.storage(), report);
+                    if (verifyReplayImmutability) {
+                        previousHash = changes.current().computeContentHash();
+                    }
+                    processor.accept(changes);
+                    previous = changes.current();
                 }
-            });
+            }
+        } catch (PreprocessingException e) {
+            fail(e);
+        }
+    }
+
+    private RemoteMdibAccessFactory getReplayStorageFactory() {
+        return copyFreeReplays ? bicepsInjector.getCopyFreeRemoteMdibAccessFactory() : remoteMdibAccessFactory;
+    }
+
+    /**
+     * Starts replaying the history of a sequence incrementally, allowing the replay to be extended with reports
+     * stored later on instead of replaying all reports again.
+     *
+     * @param sequenceId of the sequence to replay
+     * @return a new incremental replay starting at the initial mdib of the sequence
+     * @throws PreprocessingException if converting the initial mdib fails
+     */
+    public IncrementalReplay startIncrementalReplay(final String sequenceId) throws PreprocessingException {
+        return new IncrementalReplay(sequenceId, createNewStorage(sequenceId, getReplayStorageFactory()));
+    }
+
+    private static void checkUnmodified(
+            final String sequenceId, final VersionedMdib version, final int expectedHash, final String cause) {
+        if (version.computeContentHash() != expectedHash) {
+            fail(String.format(
+                    "The mdib with mdib version %s of the history of sequence %s has been modified %s,"
+                            + " mdibs of shared histories must be treated as read-only",
+                    ImpliedValueUtil.getMdibVersion(version.getMdibVersion()), sequenceId, cause));
         }
     }
 
@@ -827,4 +1303,315 @@ public class MdibHistorian {
             this.messageContent.close();
         }
     }
+
+    /**
+     * Applies the unique episodic reports of a sequence on an mdib one after another, writing checkpoints to the
+     * {@linkplain MdibCheckpointStore} when due.
+     *
+     * <p>
+     * Checkpoints are only written before applying a report with a higher mdib version than the mdib, i.e. once all
+     * reports of the current version have been applied, and only as long as no report has been skipped by the
+     * message filter.
+     */
+    private final class CheckpointedReplay implements AutoCloseable {
+        private final String sequenceId;
+        private final RemoteMdibAccess storage;
+        private final MessageStorage.GetterResult<MessageContent> messages;
+        private final Iterator<MessageContent> messageIterator;
+        private final Predicate<MessageContent> messageFilter;
+        private final Predicate<Pair<AbstractReport, String>> duplicateFilter;
+
+        private long appliedReports;
+        private long latestTimestamp;
+        private long checkpointReports;
+        private long checkpointTimestamp;
+        private boolean complete;
+        private AbstractReport pendingReport;
+        private long pendingTimestamp;
+
+        private CheckpointedReplay(
+                final String sequenceId,
+                final RemoteMdibAccess storage,
+                @Nullable final MdibCheckpointStore.Checkpoint checkpoint,
+                final MessageStorage.GetterResult<MessageContent> messages,
+                final Predicate<MessageContent> messageFilter) {
+            this.sequenceId = sequenceId;
+            this.storage = storage;
+            this.messages = messages;
+            this.messageIterator = messages.getStream().sequential().iterator();
+            this.messageFilter = messageFilter;
+            this.duplicateFilter = createDuplicateReportFilter();
+            this.complete = true;
+            if (checkpoint != null) {
+                this.appliedReports = checkpoint.appliedReports();
+                this.latestTimestamp = checkpoint.timestamp();
+                this.checkpointReports = checkpoint.appliedReports();
+                this.checkpointTimestamp = checkpoint.timestamp();
+            } else {
+                // no report has been applied yet, the interval starts with the first one
+                this.checkpointTimestamp = -1;
+            }
+        }
+
+        private RemoteMdibAccess getStorage() {
+            return storage;
+        }
+
+        private MessageStorage.GetterResult<MessageContent> getMessages() {
+            return messages;
+        }
+
+        private long getAppliedReports() {
+            return appliedReports;
+        }
+
+        private void applyWhile(final Predicate<AbstractReport> condition)
+                throws PreprocessingException, ReportProcessingException {
+            while (true) {
+                final var report = peek();
+                if (report == null || !condition.test(report)) {
+                    return;
+                }
+                applyNext();
+            }
+        }
+
+        private void applyWhileReceivedBefore(final long timestamp)
+                throws PreprocessingException, ReportProcessingException {
+            while (peek() != null && pendingTimestamp < timestamp) {
+                applyNext();
+            }
+        }
+
+        private boolean applyNext() throws PreprocessingException, ReportProcessingException {
+            final var report = peek();
+            if (report == null) {
+                return false;
+            }
+            pendingReport = null;
+
+            final var currentVersion = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion());
+            if (ImpliedValueUtil.getReportMdibVersion(report).compareTo(currentVersion) > 0) {
+                writeCheckpointIfDue(currentVersion);
+            }
+
+            applyReportOnStorage(storage, report);
+            appliedReports++;
+            latestTimestamp = Math.max(latestTimestamp, pendingTimestamp);
+            if (checkpointTimestamp < 0) {
+                checkpointTimestamp = pendingTimestamp;
+            }
+            return true;
+        }
+
+        @Nullable
+        private AbstractReport peek() {
+            while (pendingReport == null && messageIterator.hasNext()) {
+                final var message = messageIterator.next();
+                if (!messageFilter.test(message)) {
+                    // the mdib no longer contains all reports up to its version
+                    complete = false;
+                    continue;
+                }
+                final var report = unmarshallReport(message);
+                if (duplicateFilter.test(new ImmutablePair<>(report, message.getUuid()))) {
+                    pendingReport = report;
+                    pendingTimestamp = message.getNanoTimestamp();
+                }
+            }
+            return pendingReport;
+        }
+
+        private void writeCheckpointIfDue(final BigInteger currentVersion) {
+            if (!complete
+                    || !checkpointStore.isCheckpointDue(
+                            appliedReports - checkpointReports, latestTimestamp - checkpointTimestamp)) {
+                return;
+            }
+            final long mdibVersion = currentVersion.longValueExact();
+            if (!checkpointStore.hasCheckpoint(sequenceId, mdibVersion)) {
+                checkpointStore.addCheckpoint(
+                        sequenceId,
+                        new MdibCheckpointStore.Checkpoint(
+                                mdibVersion, latestTimestamp, appliedReports, createSnapshot(storage)));
+            }
+            checkpointReports = appliedReports;
+            checkpointTimestamp = latestTimestamp;
+        }
+
+        @Override
+        public void close() {
+            messages.close();
+        }
+    }
+
+    /**
+     * Replay of the history of a sequence which is extended with the reports stored since its last extension.
+     *
+     * <p>
+     * Reports are applied in the order of a complete replay, i.e. ordered by MdibVersion. Reports which are stored
+     * after the replay has passed their MdibVersion cannot be applied in that order anymore. Callers must detect these
+     * using {@linkplain #hasPassed(BigInteger)}, {@linkplain #wasRecentlyApplied(String)} and
+     * {@linkplain #isInOrder()} and discard the replay in that case.
+     */
+    public final class IncrementalReplay {
+        private final String sequenceId;
+        private final RemoteMdibAccess storage;
+        private final VersionedMdib initial;
+        private final BigInteger initialMdibVersion;
+        private final Predicate<Pair<AbstractReport, String>> initialMdibVersionPredicate;
+        private final List<MdibChangeSet> changeSets;
+
+        private VersionedMdib current;
+        private BigInteger appliedMdibVersion;
+        private Set<String> uuidsAtAppliedMdibVersion;
+        private Set<String> previouslyApplied;
+        private Set<String> recentlyApplied;
+        private boolean inOrder;
+
+        private IncrementalReplay(final String sequenceId, final RemoteMdibAccess storage) {
+            this.sequenceId = sequenceId;
+            this.storage = storage;
+            this.initial = VersionedMdib.of(storage);
+            this.initialMdibVersion = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion());
+            this.initialMdibVersionPredicate = new InitialMdibVersionPredicateWithUUID(initialMdibVersion);
+            this.changeSets = new ArrayList<>();
+            this.current = initial;
+            this.appliedMdibVersion = initialMdibVersion;
+            this.uuidsAtAppliedMdibVersion = new HashSet<>();
+            this.previouslyApplied = Set.of();
+            this.recentlyApplied = Set.of();
+            this.inOrder = true;
+        }
+
+        /**
+         * Applies the reports of the sequence which have been stored since the previous extension.
+         *
+         * @param complete false to hold back the reports of the highest MdibVersion stored so far, as further reports
+         *                 of that version may still be stored, true to apply all stored reports
+         * @return number of reports applied
+         * @throws IOException               on errors retrieving messages from storage
+         * @throws PreprocessingException    if writing to the mdib fails
+         * @throws ReportProcessingException if applying a report fails
+         */
+        public int extend(final boolean complete)
+                throws IOException, PreprocessingException, ReportProcessingException {
+            final Set<String> applied = new HashSet<>();
+            final List<Pair<AbstractReport, String>> versionGroup = new ArrayList<>();
+            // reports of the applied version are loaded again and skipped if they have been applied already
+            try (final var messages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+                            sequenceId,
+                            appliedMdibVersion.longValueExact(),
+                            Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+                    final var reports = decodeReports(messages.getStream().sequential())
+                            .filter(report -> sequenceId.equals(report.getLeft().getSequenceId()))
+                            .filter(initialMdibVersionPredicate)) {
+                for (final Iterator<Pair<AbstractReport, String>> iterator = reports.iterator(); iterator.hasNext(); ) {
+                    final var pair = iterator.next();
+                    if (!versionGroup.isEmpty()
+                            && ImpliedValueUtil.getReportMdibVersion(pair.getLeft())
+                                            .compareTo(ImpliedValueUtil.getReportMdibVersion(
+                                                    versionGroup.get(0).getLeft()))
+                                    > 0) {
+                        applyVersionGroup(versionGroup, applied);
+                        versionGroup.clear();
+                    }
+                    versionGroup.add(pair);
+                }
+                if (complete) {
+                    applyVersionGroup(versionGroup, applied);
+                }
+            }
+            previouslyApplied = recentlyApplied;
+            recentlyApplied = applied;
+            LOG.debug(
+                    "Extended incremental replay of sequence {} by {} reports up to mdib version {}",
+                    sequenceId,
+                    applied.size(),
+                    appliedMdibVersion);
+            return applied.size();
+        }
+
+        private void applyVersionGroup(final List<Pair<AbstractReport, String>> versionGroup, final Set<String> applied)
+                throws PreprocessingException, ReportProcessingException {
+            for (final var pair : versionGroup) {
+                final var report = pair.getLeft();
+                final var mdibVersion = ImpliedValueUtil.getReportMdibVersion(report);
+                final int cmp = mdibVersion.compareTo(appliedMdibVersion);
+                if (cmp < 0 || uuidsAtAppliedMdibVersion.contains(pair.getRight())) {
+                    continue;
+                }
+                if (cmp > 0) {
+                    appliedMdibVersion = mdibVersion;
+                    uuidsAtAppliedMdibVersion = new HashSet<>();
+                } else if (!applied.containsAll(uuidsAtAppliedMdibVersion)) {
+                    // other reports of this version have been applied by a previous extension
+                    inOrder = false;
+                }
+                applyReportOnStorage(storage, report);
+                final var changes = current.updateWithChanges(storage, report);
+                changeSets.add(changes);
+                current = changes.current();
+                uuidsAtAppliedMdibVersion.add(pair.getRight());
+                applied.add(pair.getRight());
+            }
+        }
+
+        /**
+         * @param mdibVersion MdibVersion of a report
+         * @return true if reports of the MdibVersion can no longer be applied in order, false otherwise
+         */
+        public boolean hasPassed(final BigInteger mdibVersion) {
+            final int cmp = mdibVersion.compareTo(appliedMdibVersion);
+            return cmp < 0 || cmp == 0 && !uuidsAtAppliedMdibVersion.isEmpty();
+        }
+
+        /**
+         * @param messageUuid uuid of the message containing a report
+         * @return true if the report has been applied by one of the last two extensions, false otherwise
+         */
+        public boolean wasRecentlyApplied(final String messageUuid) {
+            return recentlyApplied.contains(messageUuid) || previouslyApplied.contains(messageUuid);
+        }
+
+        /**
+         * @return false if reports of an MdibVersion have been applied by different extensions, in which case their
+         *         order may differ from a complete replay, true otherwise
+         */
+        public boolean isInOrder() {
+            return inOrder;
+        }
+
+        public BigInteger getInitialMdibVersion() {
+            return initialMdibVersion;
+        }
+
+        public BigInteger getAppliedMdibVersion() {
+            return appliedMdibVersion;
+        }
+
+        /**
+         * @return number of reports applied so far, each of which is recorded as change set
+         */
+        public int getReportCount() {
+            return changeSets.size();
+        }
+
+        /**
+         * @return the history replayed so far, sharing all versions with this replay
+         */
+        public MdibHistoryReplayCache.ReplayedHistory toHistory() {
+            return new MdibHistoryReplayCache.ReplayedHistory(initial, List.copyOf(changeSets));
+        }
+    }
+
+    private record DecodedReport(
+            MessageContent messageContent,
+            @Nullable AbstractReport report,
+            @Nullable MarshallingException failure) {}
+
+    private record EpisodicReportReplay(
+            RemoteMdibAccess storage,
+            MessageStorage.GetterResult<MessageContent> messages,
+            Stream<AbstractReport> reports) {}
 }
@@ -0,0 +1,148 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.assistedinject.FactoryModuleBuilder;
+import java.util.List;
+import org.somda.sdc.biceps.common.CommonConfig;
+import org.somda.sdc.biceps.common.access.ReadTransaction;
+import org.somda.sdc.biceps.common.access.ReadTransactionImpl;
+import org.somda.sdc.biceps.common.access.factory.ReadTransactionFactory;
+import org.somda.sdc.biceps.common.preprocessing.DescriptorChildRemover;
+import org.somda.sdc.biceps.common.storage.MdibStorage;
+import org.somda.sdc.biceps.common.storage.MdibStorageImpl;
+import org.somda.sdc.biceps.common.storage.MdibStoragePreprocessingChain;
+import org.somda.sdc.biceps.common.storage.StatePreprocessingSegment;
+import org.somda.sdc.biceps.common.storage.factory.MdibStorageFactory;
+import org.somda.sdc.biceps.common.storage.factory.MdibStoragePreprocessingChainFactory;
+import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
+import org.somda.sdc.biceps.consumer.access.RemoteMdibAccessImpl;
+import org.somda.sdc.biceps.consumer.access.factory.RemoteMdibAccessFactory;
+import org.somda.sdc.biceps.consumer.preprocessing.DuplicateContextStateHandleHandler;
+import org.somda.sdc.biceps.provider.preprocessing.ContextHandleDuplicateChecker;
+import org.somda.sdc.biceps.provider.preprocessing.DuplicateChecker;
+import org.somda.sdc.biceps.provider.preprocessing.DuplicateDescriptorChecker;
+import org.somda.sdc.common.guice.AbstractConfigurationModule;
+import org.somda.sdc.common.guice.DefaultCommonModule;
+
+/**
+ * Holds the BICEPS injector used by every {@linkplain MdibHistorian} to create the MDIBs of its histories.
+ *
+ * <p>
+ * The injector differs from the client injector in its preprocessing configuration, bootstrapping it is
+ * comparatively expensive and is therefore only done once, all historians share the factories created from it.
+ *
+ * <p>
+ * A second injector, which is only bootstrapped once it is needed, creates MDIBs handing out their stored entities
+ * instead of copies. These MDIBs are only used for replays whose output is never modified.
+ */
+@Singleton
+public class MdibHistorianBicepsInjector {
+    private final Injector injector;
+    private final RemoteMdibAccessFactory remoteMdibAccessFactory;
+    private volatile RemoteMdibAccessFactory copyFreeRemoteMdibAccessFactory;
+
+    @Inject
+    MdibHistorianBicepsInjector() {
+        this.injector = createInjector(true);
+        this.remoteMdibAccessFactory = injector.getInstance(RemoteMdibAccessFactory.class);
+    }
+
+    /**
+     * @return the shared factory for MDIBs used in histories
+     */
+    public RemoteMdibAccessFactory getRemoteMdibAccessFactory() {
+        return remoteMdibAccessFactory;
+    }
+
+    /**
+     * Retrieves the shared factory for MDIBs handing out their stored entities instead of copies.
+     *
+     * <p>
+     * <em>Entities retrieved from these MDIBs must never be modified, neither by the caller nor by anyone the
+     * entities are passed on to.</em>
+     *
+     * @return the shared factory for copy-free MDIBs
+     */
+    public RemoteMdibAccessFactory getCopyFreeRemoteMdibAccessFactory() {
+        var factory = copyFreeRemoteMdibAccessFactory;
+        if (factory == null) {
+            synchronized (this) {
+                factory = copyFreeRemoteMdibAccessFactory;
+                if (factory == null) {
+                    factory = createInjector(false).getInstance(RemoteMdibAccessFactory.class);
+                    copyFreeRemoteMdibAccessFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * @return the shared BICEPS injector for histories
+     */
+    public Injector getInjector() {
+        return injector;
+    }
+
+    private static Injector createInjector(final boolean copyOutput) {
+        return Guice.createInjector(
+                new DefaultCommonModule(),
+                new MdibHistorianBicepsModule(),
+                new MdibHistorianConfigurationModule(copyOutput));
+    }
+
+    private static final class MdibHistorianBicepsModule extends AbstractConfigurationModule {
+        @Override
+        protected void defaultConfigure() {
+            install(new FactoryModuleBuilder()
+                    .implement(MdibStoragePreprocessingChain.class, MdibStoragePreprocessingChain.class)
+                    .build(MdibStoragePreprocessingChainFactory.class));
+            install(new FactoryModuleBuilder()
+                    .implement(MdibStorage.class, MdibStorageImpl.class)
+                    .build(MdibStorageFactory.class));
+            install(new FactoryModuleBuilder()
+                    .implement(ReadTransaction.class, ReadTransactionImpl.class)
+                    .build(ReadTransactionFactory.class));
+            install(new FactoryModuleBuilder()
+                    .implement(RemoteMdibAccess.class, RemoteMdibAccessImpl.class)
+                    .build(RemoteMdibAccessFactory.class));
+        }
+    }
+
+    private static final class MdibHistorianConfigurationModule extends AbstractConfigurationModule {
+        private final boolean copyOutput;
+
+        private MdibHistorianConfigurationModule(final boolean copyOutput) {
+            this.copyOutput = copyOutput;
+        }
+
+        @Override
+        protected void defaultConfigure() {
+            bind(org.somda.sdc.common.CommonConfig.INSTANCE_IDENTIFIER, String.class, "");
+            bind(CommonConfig.STORE_NOT_ASSOCIATED_CONTEXT_STATES, Boolean.class, true);
+            // reports are shared with the decoded message cache and modified by preprocessing, always copy them
+            bind(CommonConfig.COPY_MDIB_INPUT, Boolean.class, true);
+            bind(CommonConfig.COPY_MDIB_OUTPUT, Boolean.class, copyOutput);
+            bind(
+                    CommonConfig.CONSUMER_STATE_PREPROCESSING_SEGMENTS,
+                    new TypeLiteral<List<Class<? extends StatePreprocessingSegment>>>() {},
+                    List.of(DuplicateContextStateHandleHandler.class, ContextHandleDuplicateChecker.class));
+            bind(
+                    CommonConfig.CONSUMER_DESCRIPTION_PREPROCESSING_SEGMENTS,
+                    new TypeLiteral<>() {},
+                    List.of(
+                            DescriptorChildRemover.class, DuplicateChecker.class,
+                            DuplicateDescriptorChecker.class, ContextHandleDuplicateChecker.class));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.biceps.model.participant.Mdib;
+
+/**
+ * Run-wide cache of replayed episodic report based mdib histories.
+ *
+ * <p>
+ * Most invariant tests traverse the complete history of every sequence. While the cache is enabled, the first
+ * traversal of a sequence by the {@linkplain MdibHistorian} records all versions of its history, every further
+ * traversal iterates the recorded versions instead of decoding and applying all reports again. Consecutive versions
+ * share all unchanged entities, so a recorded history only requires memory proportional to the changes within it.
+ * Histories are held using soft references, the garbage collector may reclaim them when memory runs low.
+ *
+ * <p>
+ * Additionally, the decoded initial MDIB of every sequence is kept while the cache is enabled, allowing the
+ * {@linkplain MdibHistorian} to create new storages for a sequence from a copy of it instead of retrieving and
+ * unmarshalling the first GetMdibResponse again.
+ *
+ * <p>
+ * The cache must only be enabled while no further messages are added to the storage, i.e. during the invariant
+ * test phase, as recorded histories do not contain messages received afterward.
+ *
+ * <p>
+ * <em>Recorded versions are shared between all callers and must therefore be treated as read-only.</em>
+ */
+@Singleton
+public class MdibHistoryReplayCache {
+    private static final Logger LOG = LogManager.getLogger(MdibHistoryReplayCache.class);
+
+    private final Map<String, SoftReference<ReplayedHistory>> histories;
+    private final Map<String, Mdib> initialMdibs;
+    private final Map<String, Object> recordingLocks;
+    private final AtomicLong replays;
+    private final AtomicLong reuses;
+    private final AtomicLong initialMdibReuses;
+    private volatile boolean enabled;
+
+    @Inject
+    MdibHistoryReplayCache() {
+        this.histories = new ConcurrentHashMap<>();
+        this.initialMdibs = new ConcurrentHashMap<>();
+        this.recordingLocks = new ConcurrentHashMap<>();
+        this.replays = new AtomicLong();
+        this.reuses = new AtomicLong();
+        this.initialMdibReuses = new AtomicLong();
+        this.enabled = false;
+    }
+
+    /**
+     * Enables recording and reusing histories.
+     */
+    public void enable() {
+        LOG.debug("Enabling shared mdib history replays");
+        enabled = true;
+    }
+
+    /**
+     * Disables recording and reusing histories and discards all recorded histories and initial mdibs.
+     */
+    public void disable() {
+        LOG.debug("Disabling shared mdib history replays");
+        enabled = false;
+        histories.clear();
+        initialMdibs.clear();
+    }
+
+    /**
+     * @return true if histories are recorded and reused, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Retrieves the recorded history of a sequence.
+     *
+     * @param sequenceId of the sequence
+     * @return the recorded history, empty if the cache is disabled, the sequence has not been replayed yet or the
+     *         history has been reclaimed
+     */
+    public Optional<ReplayedHistory> getHistory(final String sequenceId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        final var reference = histories.get(sequenceId);
+        final var history = reference == null ? null : reference.get();
+        if (history == null) {
+            return Optional.empty();
+        }
+        reuses.incrementAndGet();
+        return Optional.of(history);
+    }
+
+    /**
+     * Records the complete history of a sequence, does nothing if the cache is disabled.
+     *
+     * @param sequenceId of the sequence
+     * @param history    containing all versions of the sequence
+     */
+    public void addHistory(final String sequenceId, final ReplayedHistory history) {
+        if (!enabled) {
+            return;
+        }
+        histories.put(sequenceId, new SoftReference<>(history));
+        replays.incrementAndGet();
+        LOG.debug(
+                "Recorded mdib history of sequence {} with {} reports",
+                sequenceId,
+                history.changeSets().size());
+    }
+
+    /**
+     * Retrieves the recorded history of a sequence, recording it first if it is not available.
+     *
+     * <p>
+     * Concurrent callers requesting the same sequence wait for a single recording instead of replaying the history
+     * themselves, callers requesting different sequences are not blocked.
+     *
+     * @param sequenceId of the sequence
+     * @param recorder   replaying the complete history of the sequence
+     * @return the recorded history, or the history provided by the recorder if the cache is disabled
+     */
+    public ReplayedHistory getOrRecordHistory(final String sequenceId, final Supplier<ReplayedHistory> recorder) {
+        final var existing = getHistory(sequenceId);
+        if (existing.isPresent() || !enabled) {
+            return existing.orElseGet(recorder);
+        }
+        synchronized (recordingLocks.computeIfAbsent(sequenceId, key -> new Object())) {
+            // another caller may have recorded the history while this one was waiting
+            return getHistory(sequenceId).orElseGet(() -> {
+                final var history = recorder.get();
+                addHistory(sequenceId, history);
+                return history;
+            });
+        }
+    }
+
+    /**
+     * Retrieves the initial mdib of a sequence.
+     *
+     * @param sequenceId of the sequence
+     * @return the initial mdib, empty if the cache is disabled or the initial mdib has not been added yet
+     */
+    public Optional<Mdib> getInitialMdib(final String sequenceId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        final var mdib = initialMdibs.get(sequenceId);
+        if (mdib == null) {
+            return Optional.empty();
+        }
+        initialMdibReuses.incrementAndGet();
+        return Optional.of(mdib);
+    }
+
+    /**
+     * Keeps the initial mdib of a sequence, does nothing if the cache is disabled.
+     *
+     * @param sequenceId of the sequence
+     * @param mdib       decoded from the first GetMdibResponse of the sequence, must not be modified afterward
+     */
+    public void addInitialMdib(final String sequenceId, final Mdib mdib) {
+        if (!enabled) {
+            return;
+        }
+        initialMdibs.putIfAbsent(sequenceId, mdib);
+    }
+
+    /**
+     * @return human-readable number of recorded and reused histories and initial mdibs
+     */
+    public String getStats() {
+        return String.format(
+                "%d histories replayed, %d replays reused, %d initial mdibs reused",
+                replays.get(), reuses.get(), initialMdibReuses.get());
+    }
+
+    /**
+     * Complete episodic report based history of a sequence.
+     *
+     * @param initial    version of the initial mdib of the sequence
+     * @param changeSets changes caused by each report of the sequence, in order of application
+     */
+    public record ReplayedHistory(VersionedMdib initial, List<MdibChangeSet> changeSets) {}
+}
@@ -0,0 +1,277 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.xml.transform.stream.StreamSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.soap.SoapConfig;
+import org.somda.sdc.dpws.soap.SoapMessage;
+import org.somda.sdc.dpws.soap.SoapUtil;
+import org.somda.sdc.dpws.soap.exception.MarshallingException;
+import org.somda.sdc.dpws.soap.model.Envelope;
+
+/**
+ * Decodes stored messages using a single JAXB context and one unmarshaller per thread.
+ *
+ * <p>
+ * Creating an unmarshaller for every message is comparatively expensive, this service instead keeps one
+ * unmarshaller confined to each thread using it. Messages can be decoded on the calling thread or fanned out across
+ * a pool of decoding threads while preserving their order. No schema validation is performed, stored messages are
+ * expected to have been validated when they were received.
+ */
+@Singleton
+public class MessageDecodingService {
+    private static final Logger LOG = LogManager.getLogger(MessageDecodingService.class);
+
+    private static final String PKG_DELIM = ":";
+    private static final String DPWS_BASE = "org.somda.sdc.dpws.";
+    private static final String SOAP_BASE = DPWS_BASE + "soap.";
+    private static final String BICEPS_BASE = "org.somda.sdc.biceps.model.";
+    private static final List<String> PACKAGES = List.of(
+            SOAP_BASE + "model",
+            SOAP_BASE + "wsaddressing.model",
+            SOAP_BASE + "wsdiscovery.model",
+            SOAP_BASE + "wseventing.model",
+            SOAP_BASE + "wstransfer.model",
+            SOAP_BASE + "wsmetadataexchange.model",
+            DPWS_BASE + "model",
+            BICEPS_BASE + "extension",
+            BICEPS_BASE + "participant",
+            BICEPS_BASE + "message");
+    // number of messages decoded ahead per decoding thread
+    private static final int WINDOW_SIZE_PER_THREAD = 4;
+
+    private final SoapUtil soapUtil;
+    private final JAXBContext jaxbContext;
+    private final ThreadLocal<Unmarshaller> unmarshallers;
+    private final ExecutorService executor;
+    private final int windowSize;
+
+    @Inject
+    MessageDecodingService(
+            final SoapUtil soapUtil,
+            @Named(SoapConfig.JAXB_CONTEXT_PATH) final String contextPath,
+            @Named(TestSuiteConfig.DECODING_THREADS) final long decodingThreads) {
+        this.soapUtil = soapUtil;
+
+        // the configured context path only contains the packages contributed on top of DPWS
+        final Set<String> packages = new LinkedHashSet<>(PACKAGES);
+        Arrays.stream(contextPath.split(PKG_DELIM))
+                .map(String::strip)
+                .filter(pkg -> !pkg.isEmpty())
+                .forEach(packages::add);
+        try {
+            this.jaxbContext = JAXBContext.newInstance(String.join(PKG_DELIM, packages));
+        } catch (final JAXBException e) {
+            LOG.error("JAXB context for decoding messages could not be created", e);
+            throw new RuntimeException("JAXB context for decoding messages could not be created", e);
+        }
+        this.unmarshallers = ThreadLocal.withInitial(this::createUnmarshaller);
+
+        final int threadCount =
+                decodingThreads > 0 ? (int) decodingThreads : Runtime.getRuntime().availableProcessors();
+        LOG.debug("Using {} message decoding threads", threadCount);
+        this.windowSize = threadCount * WINDOW_SIZE_PER_THREAD;
+        this.executor = Executors.newFixedThreadPool(
+                threadCount,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("MessageDecoding-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Decodes a single message on the calling thread.
+     *
+     * @param messageContent to decode
+     * @return the decoded message
+     * @throws MarshallingException if the body cannot be unmarshalled
+     */
+    public SoapMessage decode(final MessageContent messageContent) throws MarshallingException {
+        try {
+            final Envelope envelope = unmarshallers
+                    .get()
+                    .unmarshal(new StreamSource(new StringReader(messageContent.getBody())), Envelope.class)
+                    .getValue();
+            return soapUtil.createMessage(envelope);
+        } catch (final JAXBException e) {
+            throw new MarshallingException(e);
+        }
+    }
+
+    /**
+     * Decodes all messages of a stream using the decoding threads, preserving the order of the stream.
+     *
+     * <p>
+     * The input stream is consumed on the thread consuming the returned stream and only a bounded number of messages
+     * is decoded ahead. Closing the returned stream closes the input stream.
+     *
+     * @param messageContents to decode
+     * @return stream of the decoded messages in the order of the input stream,
+     * a {@linkplain DecodingException} is thrown when reaching a message which could not be decoded
+     */
+    public Stream<DecodedMessage> decodeAll(final Stream<MessageContent> messageContents) {
+        return decodeAll(messageContents, this::decodeMessage);
+    }
+
+    /**
+     * Applies a decoder on all messages of a stream using the decoding threads, preserving the order of the stream.
+     *
+     * <p>
+     * The input stream is consumed on the thread consuming the returned stream and only a bounded number of messages
+     * is decoded ahead. Closing the returned stream closes the input stream.
+     *
+     * @param messageContents to decode
+     * @param decoder         to apply on each message, called concurrently on the decoding threads
+     * @param <T>             type of the decoded messages
+     * @return stream of the decoded messages in the order of the input stream,
+     * a {@linkplain DecodingException} is thrown when reaching a message which could not be decoded
+     */
+    public <T> Stream<T> decodeAll(final Stream<MessageContent> messageContents, final MessageDecoder<T> decoder) {
+        final DecodingIterator<T> iterator = new DecodingIterator<>(messageContents.iterator(), decoder);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(iterator::cancel)
+                .onClose(messageContents::close);
+    }
+
+    /**
+     * Stops the decoding threads once the messages currently being decoded ahead have been decoded.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Unmarshaller createUnmarshaller() {
+        try {
+            return jaxbContext.createUnmarshaller();
+        } catch (final JAXBException e) {
+            throw new IllegalStateException("Could not create unmarshaller", e);
+        }
+    }
+
+    private DecodedMessage decodeMessage(final MessageContent messageContent) throws MarshallingException {
+        return new DecodedMessage(messageContent, decode(messageContent));
+    }
+
+    /**
+     * A stored message and its decoded representation.
+     *
+     * @param messageContent the stored message
+     * @param soapMessage    the decoded message
+     */
+    public record DecodedMessage(MessageContent messageContent, SoapMessage soapMessage) {}
+
+    /**
+     * Decodes a single stored message.
+     *
+     * @param <T> type of the decoded message
+     */
+    @FunctionalInterface
+    public interface MessageDecoder<T> {
+        /**
+         * Decodes a message.
+         *
+         * @param messageContent to decode
+         * @return the decoded message
+         * @throws MarshallingException if the body cannot be unmarshalled
+         */
+        T decode(MessageContent messageContent) throws MarshallingException;
+    }
+
+    /**
+     * Thrown when consuming a message which could not be decoded.
+     */
+    public static class DecodingException extends RuntimeException {
+        /**
+         * Creates a new {@linkplain DecodingException}.
+         *
+         * @param messageContent the message which could not be decoded
+         * @param cause          the reason for the failure
+         */
+        public DecodingException(final MessageContent messageContent, final Throwable cause) {
+            super("Could not decode message " + messageContent.getMessageHash(), cause);
+        }
+    }
+
+    private final class DecodingIterator<T> implements Iterator<T> {
+        private final Iterator<MessageContent> source;
+        private final MessageDecoder<T> decoder;
+        private final Deque<Pending<T>> window;
+
+        private DecodingIterator(final Iterator<MessageContent> source, final MessageDecoder<T> decoder) {
+            this.source = source;
+            this.decoder = decoder;
+            this.window = new ArrayDeque<>(windowSize);
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !window.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            fill();
+            final Pending<T> pending = window.pollFirst();
+            if (pending == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return pending.future().get();
+            } catch (final ExecutionException e) {
+                throw new DecodingException(pending.messageContent(), e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DecodingException(pending.messageContent(), e);
+            }
+        }
+
+        private void fill() {
+            while (window.size() < windowSize && source.hasNext()) {
+                final MessageContent messageContent = source.next();
+                window.addLast(new Pending<>(messageContent, executor.submit(() -> decoder.decode(messageContent))));
+            }
+        }
+
+        private void cancel() {
+            window.forEach(pending -> pending.future().cancel(false));
+            window.clear();
+        }
+    }
+
+    private record Pending<T>(MessageContent messageContent, Future<T> future) {}
+}
@@ -0,0 +1,235 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.util.Constants;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.biceps.common.storage.PreprocessingException;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.glue.consumer.report.ReportProcessingException;
+
+/**
+ * Records the mdib histories of all sequences while messages are being collected.
+ *
+ * <p>
+ * Replaying the histories of long test runs makes up most of the time spent in the invariant tests. While messages are
+ * being collected, the recorder is periodically updated and extends a {@linkplain MdibHistorian.IncrementalReplay} of
+ * every sequence with the reports stored since the previous update. Once the test client has disconnected, only the
+ * reports received last remain to be applied, and the recorded histories are handed to the
+ * {@linkplain MdibHistoryReplayCache} so that the invariant tests do not have to replay them again.
+ *
+ * <p>
+ * The recorder is registered as ingest listener of the {@linkplain MessageStorage} and notes the MdibVersion of every
+ * report before it is written to the database. Reports stored after the replay of their sequence has already passed
+ * their MdibVersion, e.g. because they have been received out of order, cannot be applied incrementally. The recording
+ * of such a sequence is discarded, as is the recording of a sequence whose report could not be applied, and its history
+ * is replayed completely during the invariant tests instead, where failures are reported by the tests using it.
+ *
+ * <p>
+ * The recorded change sets are kept in memory until the invariant tests have finished. To bound the memory used on
+ * long test runs, the recording of a sequence is discarded as well once the recordings of all sequences exceed the
+ * configured maximum number of reports, and its history is replayed completely during the invariant tests instead.
+ */
+@Singleton
+public class OnlineHistoryRecorder {
+    private static final Logger LOG = LogManager.getLogger(OnlineHistoryRecorder.class);
+    private static final Set<String> REPORT_BODIES = Constants.RELEVANT_REPORT_BODIES.stream()
+            .map(QName::toString)
+            .collect(Collectors.toUnmodifiableSet());
+    private static final String GET_MDIB_RESPONSE_BODY = Constants.MSG_GET_MDIB_RESPONSE.toString();
+
+    private final MdibHistoryReplayCache replayCache;
+    private final long maximumReports;
+    private final Queue<IngestedMessage> ingestedMessages;
+    private final Map<String, MdibHistorian.IncrementalReplay> replays;
+    private final Set<String> sequencesWithInitialMdib;
+    private final Set<String> discardedSequences;
+
+    @Inject
+    OnlineHistoryRecorder(
+            final MdibHistoryReplayCache replayCache,
+            @Named(TestSuiteConfig.ONLINE_HISTORY_RECORDING_MAX_REPORTS) final long maximumReports) {
+        this.replayCache = replayCache;
+        this.maximumReports = maximumReports;
+        this.ingestedMessages = new ConcurrentLinkedQueue<>();
+        this.replays = new LinkedHashMap<>();
+        this.sequencesWithInitialMdib = new LinkedHashSet<>();
+        this.discardedSequences = new HashSet<>();
+    }
+
+    /**
+     * Notes the MdibVersions of an ingested message.
+     *
+     * <p>
+     * Intended to be registered as ingest listener of the message storage, it is thread-safe.
+     *
+     * @param messageContent ingested message content
+     */
+    public void onIngest(final MessageContent messageContent) {
+        if (messageContent.getDirection() != CommunicationLog.Direction.INBOUND) {
+            return;
+        }
+        for (final var group : messageContent.getMdibVersionGroups()) {
+            final var bodyElement = group.getBodyElement();
+            final boolean isMdib = GET_MDIB_RESPONSE_BODY.equals(bodyElement);
+            if (group.getSequenceId() != null && (isMdib || REPORT_BODIES.contains(bodyElement))) {
+                ingestedMessages.add(new IngestedMessage(
+                        messageContent.getUuid(),
+                        group.getSequenceId(),
+                        BigInteger.valueOf(group.getMdibVersion()),
+                        isMdib));
+            }
+        }
+    }
+
+    /**
+     * Flushes the storage and extends the recorded histories with all reports stored since the previous update.
+     *
+     * <p>
+     * Reports of the highest MdibVersion of each sequence are held back until a report with a higher MdibVersion has
+     * been stored, as further reports of the same version may still be on their way.
+     *
+     * @param storage   to flush
+     * @param historian to replay the histories with
+     */
+    public synchronized void update(final MessageStorage storage, final MdibHistorian historian) {
+        final var ingested = drainIngestedMessages();
+        // every drained message is written to the database by the flush
+        storage.flush();
+        extendReplays(historian, ingested, false);
+    }
+
+    /**
+     * Flushes the storage, applies all remaining reports and adds the recorded histories to the replay cache.
+     *
+     * <p>
+     * Must only be called once no further messages are added to the storage and the replay cache has been enabled.
+     *
+     * @param storage   to flush
+     * @param historian to replay the histories with
+     */
+    public synchronized void finish(final MessageStorage storage, final MdibHistorian historian) {
+        final var ingested = drainIngestedMessages();
+        storage.flush();
+        extendReplays(historian, ingested, true);
+        replays.forEach((sequenceId, replay) -> replayCache.addHistory(sequenceId, replay.toHistory()));
+        LOG.info(
+                "Recorded mdib histories of {} sequences while collecting messages, {} sequences are replayed again",
+                replays.size(),
+                discardedSequences.size());
+        replays.clear();
+        sequencesWithInitialMdib.clear();
+        discardedSequences.clear();
+    }
+
+    private Map<String, List<IngestedMessage>> drainIngestedMessages() {
+        final Map<String, List<IngestedMessage>> ingested = new HashMap<>();
+        for (var message = ingestedMessages.poll(); message != null; message = ingestedMessages.poll()) {
+            ingested.computeIfAbsent(message.sequenceId(), key -> new ArrayList<>()).add(message);
+        }
+        return ingested;
+    }
+
+    private void extendReplays(
+            final MdibHistorian historian,
+            final Map<String, List<IngestedMessage>> ingested,
+            final boolean complete) {
+        ingested.forEach((sequenceId, messages) -> {
+            if (messages.stream().anyMatch(IngestedMessage::isMdib)) {
+                sequencesWithInitialMdib.add(sequenceId);
+            }
+        });
+
+        for (final var sequenceId : sequencesWithInitialMdib) {
+            if (discardedSequences.contains(sequenceId)) {
+                continue;
+            }
+            try {
+                var replay = replays.get(sequenceId);
+                if (replay == null) {
+                    replay = historian.startIncrementalReplay(sequenceId);
+                    replays.put(sequenceId, replay);
+                }
+                replay.extend(complete);
+                final var missedMessage = findMissedMessage(replay, ingested.getOrDefault(sequenceId, List.of()));
+                if (missedMessage != null) {
+                    discard(
+                            sequenceId,
+                            String.format(
+                                    "message %s with mdib version %s has been stored after applying mdib version %s",
+                                    missedMessage.uuid(), missedMessage.mdibVersion(), replay.getAppliedMdibVersion()));
+                } else if (!replay.isInOrder()) {
+                    discard(sequenceId, "reports of the same mdib version have been stored after a later one");
+                } else if (maximumReports > 0 && getRecordedReports() > maximumReports) {
+                    discard(
+                            sequenceId,
+                            String.format("the recorded histories exceed the maximum of %s reports", maximumReports));
+                }
+            } catch (final IOException
+                    | PreprocessingException
+                    | ReportProcessingException
+                    | RuntimeException
+                    | AssertionError e) {
+                LOG.debug("Could not extend the recorded mdib history of sequence {}", sequenceId, e);
+                discard(sequenceId, "applying the reports failed");
+            }
+        }
+    }
+
+    private long getRecordedReports() {
+        long reports = 0;
+        for (final var replay : replays.values()) {
+            reports += replay.getReportCount();
+        }
+        return reports;
+    }
+
+    @Nullable
+    private static IngestedMessage findMissedMessage(
+            final MdibHistorian.IncrementalReplay replay, final List<IngestedMessage> ingested) {
+        for (final var message : ingested) {
+            // only the first initial mdib of a sequence is used, later ones do not affect the history
+            if (!message.isMdib()
+                    && !replay.wasRecentlyApplied(message.uuid())
+                    && message.mdibVersion().compareTo(replay.getInitialMdibVersion()) >= 0
+                    && replay.hasPassed(message.mdibVersion())) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private void discard(final String sequenceId, final String reason) {
+        LOG.info("Discarding the recorded mdib history of sequence {}, {}", sequenceId, reason);
+        replays.remove(sequenceId);
+        discardedSequences.add(sequenceId);
+    }
+
+    private record IngestedMessage(String uuid, String sequenceId, BigInteger mdibVersion, boolean isMdib) {}
+}
@@ -0,0 +1,325 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable map from handles to values, implemented as a hash array mapped trie.
+ *
+ * <p>
+ * Adding or removing an entry creates a new map which shares all unaffected nodes with the previous one, so that
+ * keeping many versions of a large map only requires memory proportional to the entries changed between them.
+ *
+ * @param <V> type of the values
+ */
+public final class PersistentHandleMap<V> {
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final PersistentHandleMap<?> EMPTY = new PersistentHandleMap<>(null, 0);
+
+    @Nullable
+    private final Node<V> root;
+
+    private final int size;
+
+    private PersistentHandleMap(@Nullable final Node<V> root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <V> type of the values
+     * @return map without any entries
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentHandleMap<V> empty() {
+        return (PersistentHandleMap<V>) EMPTY;
+    }
+
+    /**
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the value for a handle.
+     *
+     * @param handle to retrieve value for
+     * @return the value or null if the map does not contain the handle
+     */
+    @Nullable
+    public V get(final String handle) {
+        if (root == null) {
+            return null;
+        }
+        return root.get(handle.hashCode(), handle, 0);
+    }
+
+    /**
+     * Creates a map containing all entries of this map and the given entry, replacing the value of an existing entry
+     * for the same handle.
+     *
+     * @param handle of the entry
+     * @param value  of the entry
+     * @return the new map, or this map if it already contains the same value for the handle
+     */
+    public PersistentHandleMap<V> with(final String handle, final V value) {
+        final var hash = handle.hashCode();
+        if (root == null) {
+            return new PersistentHandleMap<>(new Leaf<>(hash, handle, value), 1);
+        }
+        final var newRoot = root.put(hash, handle, value, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        final var added = root.get(hash, handle, 0) == null;
+        return new PersistentHandleMap<>(newRoot, added ? size + 1 : size);
+    }
+
+    /**
+     * Creates a map containing all entries of this map except the one for the given handle.
+     *
+     * @param handle of the entry to remove
+     * @return the new map, or this map if it does not contain the handle
+     */
+    public PersistentHandleMap<V> without(final String handle) {
+        if (root == null) {
+            return this;
+        }
+        final var newRoot = root.remove(handle.hashCode(), handle, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHandleMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Performs an action for every value of the map, the order of the values is unspecified.
+     *
+     * @param action to perform
+     */
+    public void forEachValue(final Consumer<? super V> action) {
+        if (root != null) {
+            root.forEachValue(action);
+        }
+    }
+
+    /**
+     * @return all values of the map in unspecified order
+     */
+    public List<V> values() {
+        final List<V> values = new ArrayList<>(size);
+        forEachValue(values::add);
+        return values;
+    }
+
+    private static int levelIndex(final int hash, final int shift) {
+        return (hash >>> shift) & LEVEL_MASK;
+    }
+
+    private static <V> Node<V> merge(final Leaf<V> first, final Leaf<V> second, final int shift) {
+        if (first.hash() == second.hash()) {
+            return new CollisionNode<>(first.hash(), List.of(first, second));
+        }
+        final var firstIndex = levelIndex(first.hash(), shift);
+        final var secondIndex = levelIndex(second.hash(), shift);
+        if (firstIndex == secondIndex) {
+            return new BitmapNode<>(1 << firstIndex, List.of(merge(first, second, shift + BITS_PER_LEVEL)));
+        }
+        final var bitmap = (1 << firstIndex) | (1 << secondIndex);
+        return firstIndex < secondIndex
+                ? new BitmapNode<>(bitmap, List.of(first, second))
+                : new BitmapNode<>(bitmap, List.of(second, first));
+    }
+
+    private sealed interface Node<V> permits Leaf, BitmapNode, CollisionNode {
+        @Nullable
+        V get(int hash, String handle, int shift);
+
+        Node<V> put(int hash, String handle, V value, int shift);
+
+        @Nullable
+        Node<V> remove(int hash, String handle, int shift);
+
+        void forEachValue(Consumer<? super V> action);
+    }
+
+    private record Leaf<V>(int hash, String handle, V value) implements Node<V> {
+        @Override
+        @Nullable
+        public V get(final int searchHash, final String searchHandle, final int shift) {
+            return hash == searchHash && handle.equals(searchHandle) ? value : null;
+        }
+
+        @Override
+        public Node<V> put(final int newHash, final String newHandle, final V newValue, final int shift) {
+            if (hash == newHash && handle.equals(newHandle)) {
+                return value == newValue ? this : new Leaf<>(hash, handle, newValue);
+            }
+            return merge(this, new Leaf<>(newHash, newHandle, newValue), shift);
+        }
+
+        @Override
+        @Nullable
+        public Node<V> remove(final int removedHash, final String removedHandle, final int shift) {
+            return hash == removedHash && handle.equals(removedHandle) ? null : this;
+        }
+
+        @Override
+        public void forEachValue(final Consumer<? super V> action) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Inner node holding up to 32 children, the bitmap marks which slots of the current hash level are occupied.
+     */
+    private record BitmapNode<V>(int bitmap, List<Node<V>> children) implements Node<V> {
+        @Override
+        @Nullable
+        public V get(final int hash, final String handle, final int shift) {
+            final var bit = 1 << levelIndex(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            return children.get(childIndex(bit)).get(hash, handle, shift + BITS_PER_LEVEL);
+        }
+
+        @Override
+        public Node<V> put(final int hash, final String handle, final V value, final int shift) {
+            final var bit = 1 << levelIndex(hash, shift);
+            final var index = childIndex(bit);
+            if ((bitmap & bit) == 0) {
+                final var newChildren = new ArrayList<Node<V>>(children.size() + 1);
+                newChildren.addAll(children);
+                newChildren.add(index, new Leaf<>(hash, handle, value));
+                return new BitmapNode<>(bitmap | bit, List.copyOf(newChildren));
+            }
+            final var child = children.get(index);
+            final var newChild = child.put(hash, handle, value, shift + BITS_PER_LEVEL);
+            if (newChild == child) {
+                return this;
+            }
+            return new BitmapNode<>(bitmap, replaceChild(index, newChild));
+        }
+
+        @Override
+        @Nullable
+        public Node<V> remove(final int hash, final String handle, final int shift) {
+            final var bit = 1 << levelIndex(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final var index = childIndex(bit);
+            final var child = children.get(index);
+            final var newChild = child.remove(hash, handle, shift + BITS_PER_LEVEL);
+            if (newChild == child) {
+                return this;
+            }
+            if (newChild != null) {
+                return new BitmapNode<>(bitmap, replaceChild(index, newChild));
+            }
+            if (children.size() == 1) {
+                return null;
+            }
+            final var newChildren = new ArrayList<>(children);
+            newChildren.remove(index);
+            if (newChildren.size() == 1 && newChildren.get(0) instanceof Leaf<V> remaining) {
+                // a single leaf does not need an inner node, it can be moved up a level
+                return remaining;
+            }
+            return new BitmapNode<>(bitmap & ~bit, List.copyOf(newChildren));
+        }
+
+        @Override
+        public void forEachValue(final Consumer<? super V> action) {
+            for (final var child : children) {
+                child.forEachValue(action);
+            }
+        }
+
+        private int childIndex(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private List<Node<V>> replaceChild(final int index, final Node<V> newChild) {
+            final var newChildren = new ArrayList<>(children);
+            newChildren.set(index, newChild);
+            return List.copyOf(newChildren);
+        }
+    }
+
+    /**
+     * Node holding all entries whose handles share the same hash code.
+     */
+    private record CollisionNode<V>(int hash, List<Leaf<V>> leaves) implements Node<V> {
+        @Override
+        @Nullable
+        public V get(final int searchHash, final String handle, final int shift) {
+            if (hash != searchHash) {
+                return null;
+            }
+            for (final var leaf : leaves) {
+                if (leaf.handle().equals(handle)) {
+                    return leaf.value();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Node<V> put(final int newHash, final String handle, final V value, final int shift) {
+            if (hash != newHash) {
+                // nest this node below a new inner node, splitting at the first level the hashes differ
+                return new BitmapNode<V>(1 << levelIndex(hash, shift), List.of(this))
+                        .put(newHash, handle, value, shift);
+            }
+            final var newLeaves = new ArrayList<>(leaves);
+            for (int i = 0; i < newLeaves.size(); i++) {
+                final var leaf = newLeaves.get(i);
+                if (leaf.handle().equals(handle)) {
+                    if (leaf.value() == value) {
+                        return this;
+                    }
+                    newLeaves.set(i, new Leaf<>(hash, handle, value));
+                    return new CollisionNode<>(hash, List.copyOf(newLeaves));
+                }
+            }
+            newLeaves.add(new Leaf<>(hash, handle, value));
+            return new CollisionNode<>(hash, List.copyOf(newLeaves));
+        }
+
+        @Override
+        @Nullable
+        public Node<V> remove(final int removedHash, final String handle, final int shift) {
+            if (hash != removedHash) {
+                return this;
+            }
+            final var newLeaves = new ArrayList<>(leaves);
+            if (!newLeaves.removeIf(leaf -> leaf.handle().equals(handle))) {
+                return this;
+            }
+            return newLeaves.size() == 1 ? newLeaves.get(0) : new CollisionNode<>(hash, List.copyOf(newLeaves));
+        }
+
+        @Override
+        public void forEachValue(final Consumer<? super V> action) {
+            for (final var leaf : leaves) {
+                action.accept(leaf.value());
+            }
+        }
+    }
+}
@@ -9,25 +9,33 @@ package com.draeger.medical.sdccc.tests.util;
 import com.draeger.medical.sdccc.manipulation.precondition.ManipulationPrecondition;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
 import com.draeger.medical.sdccc.manipulation.precondition.SimplePrecondition;
+import com.draeger.medical.sdccc.messages.DataRequirement;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
+import com.draeger.medical.sdccc.tests.annotations.RequireReports;
 import com.google.inject.Inject;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Arrays;
+import javax.xml.namespace.QName;
 import org.junit.jupiter.engine.descriptor.MethodBasedTestDescriptor;
 import org.junit.platform.engine.FilterResult;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.somda.sdc.biceps.common.CommonConstants;
 
 /**
  * A {@linkplain PostDiscoveryFilter} for invariant tests which registers
- * all preconditions with the {@linkplain PreconditionRegistry}.
+ * all preconditions with the {@linkplain PreconditionRegistry}
+ * and all required reports with the {@linkplain DataCollectionGoal}.
  */
 public class PreconditionFilter implements PostDiscoveryFilter {
 
     private final PreconditionRegistry preconditionRegistry;
+    private final DataCollectionGoal dataCollectionGoal;
 
     @Inject
-    PreconditionFilter(final PreconditionRegistry preconditionRegistry) {
+    PreconditionFilter(final PreconditionRegistry preconditionRegistry, final DataCollectionGoal dataCollectionGoal) {
         this.preconditionRegistry = preconditionRegistry;
+        this.dataCollectionGoal = dataCollectionGoal;
     }
 
     @Override
@@ -45,10 +53,28 @@ public class PreconditionFilter implements PostDiscoveryFilter {
         } else {
             final var method = (MethodBasedTestDescriptor) object;
             RequirePrecondition requiredInteraction;
+            RequireReports requiredReports;
             try {
                 requiredInteraction = method.getTestMethod().getAnnotation(RequirePrecondition.class);
+                requiredReports = method.getTestMethod().getAnnotation(RequireReports.class);
             } catch (final NullPointerException e) {
                 requiredInteraction = null;
+                requiredReports = null;
+            }
+
+            if (requiredReports != null) {
+                final QName[] bodyTypes = Arrays.stream(requiredReports.value())
+                        .map(report -> new QName(CommonConstants.NAMESPACE_MESSAGE, report))
+                        .toArray(QName[]::new);
+                if (requiredReports.all()) {
+                    for (final QName bodyType : bodyTypes) {
+                        dataCollectionGoal.registerRequiredReports(
+                                new DataRequirement(requiredReports.minimumCount(), bodyType));
+                    }
+                } else {
+                    dataCollectionGoal.registerRequiredReports(
+                            new DataRequirement(requiredReports.minimumCount(), bodyTypes));
+                }
             }
 
             if (requiredInteraction == null) {
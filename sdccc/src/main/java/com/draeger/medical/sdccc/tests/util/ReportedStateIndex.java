@@ -0,0 +1,208 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
+import org.somda.sdc.biceps.model.message.AbstractReport;
+import org.somda.sdc.biceps.model.message.EpisodicAlertReport;
+import org.somda.sdc.biceps.model.message.EpisodicComponentReport;
+import org.somda.sdc.biceps.model.message.EpisodicContextReport;
+import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
+import org.somda.sdc.biceps.model.message.EpisodicOperationalStateReport;
+import org.somda.sdc.biceps.model.message.ObservedValueStream;
+import org.somda.sdc.biceps.model.message.WaveformStream;
+import org.somda.sdc.biceps.model.participant.AbstractState;
+import org.somda.sdc.biceps.model.participant.SampleArrayValue;
+
+/**
+ * Index of the states contained in the reports of a sequence, built in a single pass over the reports.
+ *
+ * <p>
+ * States are indexed by their descriptor handle and state version, and ordered by the MdibVersion of the report
+ * containing them. Questions like "has this state been reported before MdibVersion V" can therefore be answered by a
+ * lookup instead of decoding and scanning all reports of the sequence again.
+ *
+ * <p>
+ * States of episodic alert, component, context, metric and operational state reports and of waveform streams are
+ * indexed as is, values of observed value streams are indexed by the handle of their metric.
+ */
+public final class ReportedStateIndex {
+
+    private final Map<String, Map<BigInteger, List<ReportedState>>> reportedStates;
+    private final long reportCount;
+
+    private ReportedStateIndex(
+            final Map<String, Map<BigInteger, List<ReportedState>>> reportedStates, final long reportCount) {
+        this.reportedStates = reportedStates;
+        this.reportCount = reportCount;
+    }
+
+    /**
+     * Creates an index of the states contained in reports.
+     *
+     * @param reports      to index, paired with the uuid of the message containing them
+     * @param handleFilter only states whose descriptor handle matches are indexed
+     * @return the index
+     */
+    static ReportedStateIndex create(
+            final Stream<Pair<AbstractReport, String>> reports, final Predicate<String> handleFilter) {
+        final Map<String, Map<BigInteger, List<ReportedState>>> reportedStates = new HashMap<>();
+        final var reportCount = new AtomicLong();
+        reports.forEachOrdered(pair -> {
+            reportCount.incrementAndGet();
+            final var report = pair.getLeft();
+            final var mdibVersion = ImpliedValueUtil.getReportMdibVersion(report);
+            for (final var reportedState : extractReportedStates(report, mdibVersion, pair.getRight())) {
+                if (handleFilter.test(reportedState.handle())) {
+                    reportedStates
+                            .computeIfAbsent(reportedState.handle(), handle -> new HashMap<>())
+                            .computeIfAbsent(reportedState.stateVersion(), version -> new ArrayList<>())
+                            .add(reportedState);
+                }
+            }
+        });
+        // stable sort, states of reports with equal versions remain in order of reception
+        reportedStates.values().forEach(byStateVersion -> byStateVersion
+                .values()
+                .forEach(states -> states.sort(Comparator.comparing(ReportedState::mdibVersion))));
+        return new ReportedStateIndex(reportedStates, reportCount.get());
+    }
+
+    /**
+     * @return number of reports which have been indexed
+     */
+    public long getReportCount() {
+        return reportCount;
+    }
+
+    /**
+     * Retrieves all reported states of a descriptor handle with a state version.
+     *
+     * @param handle       descriptor handle of the states
+     * @param stateVersion of the states, an absent state version is indexed as its implied value
+     * @return matching states in order of the MdibVersion of their reports
+     */
+    public List<ReportedState> getReportedStates(final String handle, final BigInteger stateVersion) {
+        final var byStateVersion = reportedStates.get(handle);
+        if (byStateVersion == null) {
+            return List.of();
+        }
+        return List.copyOf(byStateVersion.getOrDefault(stateVersion, List.of()));
+    }
+
+    /**
+     * Retrieves all reported states of a descriptor handle with a state version which have been reported with a
+     * lower MdibVersion.
+     *
+     * @param handle             descriptor handle of the states
+     * @param stateVersion       of the states, an absent state version is indexed as its implied value
+     * @param maximumMdibVersion MdibVersion the reports must be lower than, exclusive
+     * @return matching states in order of the MdibVersion of their reports
+     */
+    public Stream<ReportedState> findReportedStatesBefore(
+            final String handle, final BigInteger stateVersion, final BigInteger maximumMdibVersion) {
+        final var byStateVersion = reportedStates.get(handle);
+        if (byStateVersion == null) {
+            return Stream.empty();
+        }
+        return byStateVersion.getOrDefault(stateVersion, List.of()).stream()
+                .takeWhile(state -> state.mdibVersion().compareTo(maximumMdibVersion) < 0);
+    }
+
+    private static List<ReportedState> extractReportedStates(
+            final AbstractReport report, final BigInteger mdibVersion, final String messageUuid) {
+        final List<ReportedState> result = new ArrayList<>();
+        if (report instanceof ObservedValueStream observedValueStream) {
+            for (final var value : observedValueStream.getValue()) {
+                result.add(new ReportedState(
+                        value.getMetric(),
+                        ImpliedValueUtil.getValueStateVersion(value),
+                        mdibVersion,
+                        messageUuid,
+                        report.getClass(),
+                        null,
+                        value.getValue()));
+            }
+            return result;
+        }
+        for (final var state : extractStates(report)) {
+            result.add(new ReportedState(
+                    state.getDescriptorHandle(),
+                    Objects.requireNonNullElse(state.getStateVersion(), BigInteger.ZERO),
+                    mdibVersion,
+                    messageUuid,
+                    report.getClass(),
+                    state,
+                    null));
+        }
+        return result;
+    }
+
+    private static List<AbstractState> extractStates(final AbstractReport report) {
+        final List<AbstractState> states = new ArrayList<>();
+        if (report instanceof EpisodicAlertReport alertReport) {
+            for (var part : alertReport.getReportPart()) {
+                states.addAll(part.getAlertState());
+            }
+        }
+        if (report instanceof EpisodicComponentReport componentReport) {
+            for (var part : componentReport.getReportPart()) {
+                states.addAll(part.getComponentState());
+            }
+        }
+        if (report instanceof EpisodicMetricReport metricReport) {
+            for (var part : metricReport.getReportPart()) {
+                states.addAll(part.getMetricState());
+            }
+        }
+        if (report instanceof EpisodicOperationalStateReport operationalStateReport) {
+            for (var part : operationalStateReport.getReportPart()) {
+                states.addAll(part.getOperationState());
+            }
+        }
+        if (report instanceof WaveformStream waveformStream) {
+            states.addAll(waveformStream.getState());
+        }
+        if (report instanceof EpisodicContextReport contextReport) {
+            for (var part : contextReport.getReportPart()) {
+                states.addAll(part.getContextState());
+            }
+        }
+        return states;
+    }
+
+    /**
+     * State or observed value contained in a report.
+     *
+     * @param handle           descriptor handle of the state or the metric handle of the observed value
+     * @param stateVersion     state version of the state or observed value, or its implied value
+     * @param mdibVersion      MdibVersion of the report
+     * @param messageUuid      uuid of the message containing the report
+     * @param reportType       type of the report
+     * @param state            the reported state, null for observed values
+     * @param sampleArrayValue the reported observed value, null for states
+     */
+    public record ReportedState(
+            String handle,
+            BigInteger stateVersion,
+            BigInteger mdibVersion,
+            String messageUuid,
+            Class<? extends AbstractReport> reportType,
+            @Nullable AbstractState state,
+            @Nullable SampleArrayValue sampleArrayValue) {}
+}
@@ -0,0 +1,364 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.somda.sdc.biceps.common.MdibEntity;
+import org.somda.sdc.biceps.common.access.MdibAccess;
+import org.somda.sdc.biceps.model.message.AbstractReport;
+import org.somda.sdc.biceps.model.message.DescriptionModificationReport;
+import org.somda.sdc.biceps.model.message.EpisodicAlertReport;
+import org.somda.sdc.biceps.model.message.EpisodicComponentReport;
+import org.somda.sdc.biceps.model.message.EpisodicContextReport;
+import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
+import org.somda.sdc.biceps.model.message.EpisodicOperationalStateReport;
+import org.somda.sdc.biceps.model.message.WaveformStream;
+import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
+import org.somda.sdc.biceps.model.participant.AbstractMultiState;
+import org.somda.sdc.biceps.model.participant.AbstractState;
+import org.somda.sdc.biceps.model.participant.MdibVersion;
+
+/**
+ * Immutable version of an MDIB within an mdib history.
+ *
+ * <p>
+ * Entities and states are kept in {@linkplain PersistentHandleMap}s, a version derived using
+ * {@linkplain #update(MdibAccess, Collection)} shares all entities not affected by a report with its predecessor.
+ * This allows keeping the previous and the current MDIB of a history at the cost of the changed entities only, instead
+ * of replaying the history twice.
+ *
+ * <p>
+ * <em>Entities and states are shared between versions and must therefore be treated as read-only.</em>
+ */
+public final class VersionedMdib {
+    private final MdibVersion mdibVersion;
+    private final PersistentHandleMap<MdibEntity> entities;
+    private final PersistentHandleMap<AbstractState> states;
+
+    private VersionedMdib(
+            final MdibVersion mdibVersion,
+            final PersistentHandleMap<MdibEntity> entities,
+            final PersistentHandleMap<AbstractState> states) {
+        this.mdibVersion = mdibVersion;
+        this.entities = entities;
+        this.states = states;
+    }
+
+    /**
+     * Creates a version containing all entities of an MDIB.
+     *
+     * @param mdib to copy, its output must not be modified by later changes to the MDIB
+     * @return version of the MDIB
+     */
+    public static VersionedMdib of(final MdibAccess mdib) {
+        var entities = PersistentHandleMap.<MdibEntity>empty();
+        var states = PersistentHandleMap.<AbstractState>empty();
+        for (final var entity : mdib.findEntitiesByType(AbstractDescriptor.class)) {
+            entities = entities.with(entity.getHandle(), entity);
+            states = putStates(states, entity);
+        }
+        return new VersionedMdib(mdib.getMdibVersion(), entities, states);
+    }
+
+    /**
+     * Creates the next version, taking the entities of the given descriptor handles from the MDIB and sharing all other
+     * entities with this version.
+     *
+     * <p>
+     * Parents of inserted and removed entities as well as children of removed entities are updated as well.
+     *
+     * @param mdib              to take changed entities from, its output must not be modified by later changes to
+     *                          the MDIB
+     * @param descriptorHandles handles of all descriptors which have been inserted, updated or deleted or whose
+     *                          states have changed since this version
+     * @return the next version
+     */
+    public VersionedMdib update(final MdibAccess mdib, final Collection<String> descriptorHandles) {
+        return update(mdib, descriptorHandles, new HashSet<>());
+    }
+
+    private VersionedMdib update(
+            final MdibAccess mdib, final Collection<String> descriptorHandles, final Set<String> visited) {
+        var newEntities = entities;
+        var newStates = states;
+
+        final var pending = new ArrayDeque<>(descriptorHandles);
+        while (!pending.isEmpty()) {
+            final var handle = pending.poll();
+            if (!visited.add(handle)) {
+                continue;
+            }
+            final var oldEntity = newEntities.get(handle);
+            final var newEntity = mdib.getEntity(handle);
+            if (oldEntity != null) {
+                newStates = removeStates(newStates, oldEntity);
+            }
+            if (newEntity.isPresent()) {
+                final var entity = newEntity.orElseThrow();
+                newEntities = newEntities.with(handle, entity);
+                newStates = putStates(newStates, entity);
+                if (oldEntity == null) {
+                    // the children of the parent have changed
+                    entity.getParent().ifPresent(pending::add);
+                }
+            } else if (oldEntity != null) {
+                newEntities = newEntities.without(handle);
+                oldEntity.getParent().ifPresent(pending::add);
+                pending.addAll(oldEntity.getChildren());
+            }
+        }
+        return new VersionedMdib(mdib.getMdibVersion(), newEntities, newStates);
+    }
+
+    /**
+     * Creates the next version after applying a report on the MDIB, along with the changes between both versions.
+     *
+     * @param mdib   on which the report has been applied, its output must not be modified by later changes to the
+     *               MDIB
+     * @param report which has been applied
+     * @return the changes leading to the next version, which is available using {@linkplain MdibChangeSet#current()}
+     */
+    public MdibChangeSet updateWithChanges(final MdibAccess mdib, final AbstractReport report) {
+        final Set<String> visited = new LinkedHashSet<>();
+        final var next = update(mdib, getAffectedDescriptorHandles(report), visited);
+
+        final List<MdibChangeSet.EntityChange> entityChanges = new ArrayList<>();
+        final Set<String> stateHandles = new LinkedHashSet<>();
+        for (final var handle : visited) {
+            final var before = entities.get(handle);
+            final var after = next.entities.get(handle);
+            if (before != null) {
+                before.getStates().forEach(state -> stateHandles.add(getStateHandle(state)));
+            }
+            if (after != null) {
+                after.getStates().forEach(state -> stateHandles.add(getStateHandle(state)));
+            }
+            if (hasEntityChanged(before, after)) {
+                entityChanges.add(new MdibChangeSet.EntityChange(handle, before, after));
+            }
+        }
+
+        final List<MdibChangeSet.StateChange> stateChanges = new ArrayList<>();
+        for (final var handle : stateHandles) {
+            final var before = states.get(handle);
+            final var after = next.states.get(handle);
+            if (!Objects.equals(before, after)) {
+                stateChanges.add(new MdibChangeSet.StateChange(handle, before, after));
+            }
+        }
+        return new MdibChangeSet(this, next, report, List.copyOf(entityChanges), List.copyOf(stateChanges));
+    }
+
+    /**
+     * Determines the handles of all descriptors affected by a report, to be passed to
+     * {@linkplain #update(MdibAccess, Collection)} after applying the report.
+     *
+     * @param report to determine affected descriptor handles for
+     * @return descriptor handles of all descriptors and states contained in the report, empty for reports which do not
+     *         modify the MDIB
+     */
+    public static Set<String> getAffectedDescriptorHandles(final AbstractReport report) {
+        final Set<String> handles = new LinkedHashSet<>();
+        if (report instanceof DescriptionModificationReport descriptionModificationReport) {
+            for (final var part : descriptionModificationReport.getReportPart()) {
+                if (part.getParentDescriptor() != null) {
+                    handles.add(part.getParentDescriptor());
+                }
+                part.getDescriptor().forEach(descriptor -> handles.add(descriptor.getHandle()));
+                part.getState().forEach(state -> handles.add(state.getDescriptorHandle()));
+            }
+        } else if (report instanceof EpisodicAlertReport alertReport) {
+            alertReport.getReportPart().forEach(part -> addDescriptorHandles(handles, part.getAlertState()));
+        } else if (report instanceof EpisodicComponentReport componentReport) {
+            componentReport.getReportPart().forEach(part -> addDescriptorHandles(handles, part.getComponentState()));
+        } else if (report instanceof EpisodicContextReport contextReport) {
+            contextReport.getReportPart().forEach(part -> addDescriptorHandles(handles, part.getContextState()));
+        } else if (report instanceof EpisodicMetricReport metricReport) {
+            metricReport.getReportPart().forEach(part -> addDescriptorHandles(handles, part.getMetricState()));
+        } else if (report instanceof EpisodicOperationalStateReport operationalStateReport) {
+            operationalStateReport
+                    .getReportPart()
+                    .forEach(part -> addDescriptorHandles(handles, part.getOperationState()));
+        } else if (report instanceof WaveformStream waveformStream) {
+            addDescriptorHandles(handles, waveformStream.getState());
+        }
+        return handles;
+    }
+
+    /**
+     * @return the MdibVersion of this version
+     */
+    public MdibVersion getMdibVersion() {
+        return mdibVersion;
+    }
+
+    /**
+     * @param handle of the descriptor
+     * @return the entity if present
+     */
+    public Optional<MdibEntity> getEntity(final String handle) {
+        return Optional.ofNullable(entities.get(handle));
+    }
+
+    /**
+     * @param handle of the descriptor
+     * @return the descriptor if present
+     */
+    public Optional<AbstractDescriptor> getDescriptor(final String handle) {
+        return getEntity(handle).map(MdibEntity::getDescriptor);
+    }
+
+    /**
+     * @param handle of the descriptor
+     * @param type   of the descriptor
+     * @param <T>    type of the descriptor
+     * @return the descriptor if present and of the given type
+     */
+    public <T extends AbstractDescriptor> Optional<T> getDescriptor(final String handle, final Class<T> type) {
+        return getDescriptor(handle).filter(type::isInstance).map(type::cast);
+    }
+
+    /**
+     * @param handle of the state, i.e. the descriptor handle for single states and the state handle for multi states
+     * @return the state if present
+     */
+    public Optional<AbstractState> getState(final String handle) {
+        return Optional.ofNullable(states.get(handle));
+    }
+
+    /**
+     * @param handle of the state, i.e. the descriptor handle for single states and the state handle for multi states
+     * @param type   of the state
+     * @param <T>    type of the state
+     * @return the state if present and of the given type
+     */
+    public <T extends AbstractState> Optional<T> getState(final String handle, final Class<T> type) {
+        return getState(handle).filter(type::isInstance).map(type::cast);
+    }
+
+    /**
+     * Finds all entities whose descriptors are of a type.
+     *
+     * @param type of the descriptors
+     * @param <T>  type of the descriptors
+     * @return all matching entities in unspecified order
+     */
+    public <T extends AbstractDescriptor> Collection<MdibEntity> findEntitiesByType(final Class<T> type) {
+        final List<MdibEntity> result = new ArrayList<>();
+        entities.forEachValue(entity -> {
+            if (type.isInstance(entity.getDescriptor())) {
+                result.add(entity);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Finds all child entities of an entity whose descriptors are of a type.
+     *
+     * @param handle of the parent descriptor
+     * @param type   of the child descriptors
+     * @param <T>    type of the child descriptors
+     * @return all matching child entities, empty if the parent is not present
+     */
+    public <T extends AbstractDescriptor> List<MdibEntity> getChildrenByType(final String handle, final Class<T> type) {
+        final var entity = entities.get(handle);
+        if (entity == null) {
+            return List.of();
+        }
+        final List<MdibEntity> result = new ArrayList<>();
+        for (final var childHandle : entity.getChildren()) {
+            final var child = entities.get(childHandle);
+            if (child != null && type.isInstance(child.getDescriptor())) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all states of a type.
+     *
+     * @param type of the states
+     * @param <T>  type of the states
+     * @return all matching states in unspecified order
+     */
+    public <T extends AbstractState> List<T> getStatesByType(final Class<T> type) {
+        final List<T> result = new ArrayList<>();
+        states.forEachValue(state -> {
+            if (type.isInstance(state)) {
+                result.add(type.cast(state));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Computes a hash over all descriptors, children and states of this version.
+     *
+     * <p>
+     * The hash changes if any descriptor or state of this version is modified, allowing to detect accidental
+     * modifications of shared versions. Computing it traverses the whole MDIB.
+     *
+     * @return hash over the content of this version
+     */
+    public int computeContentHash() {
+        final var hash = new AtomicInteger();
+        // summing is independent of the iteration order of the maps
+        entities.forEachValue(entity -> hash.addAndGet(
+                Objects.hash(entity.getHandle(), entity.getDescriptor(), entity.getChildren())));
+        states.forEachValue(state -> hash.addAndGet(state.hashCode()));
+        return hash.get();
+    }
+
+    private static boolean hasEntityChanged(@Nullable final MdibEntity before, @Nullable final MdibEntity after) {
+        if (before == null || after == null) {
+            return before != after;
+        }
+        return !before.getDescriptor().equals(after.getDescriptor())
+                || !before.getChildren().equals(after.getChildren());
+    }
+
+    private static void addDescriptorHandles(final Set<String> handles, final List<? extends AbstractState> states) {
+        states.forEach(state -> handles.add(state.getDescriptorHandle()));
+    }
+
+    private static PersistentHandleMap<AbstractState> putStates(
+            final PersistentHandleMap<AbstractState> states, final MdibEntity entity) {
+        var result = states;
+        for (final var state : entity.getStates()) {
+            result = result.with(getStateHandle(state), state);
+        }
+        return result;
+    }
+
+    private static PersistentHandleMap<AbstractState> removeStates(
+            final PersistentHandleMap<AbstractState> states, final MdibEntity entity) {
+        var result = states;
+        for (final var state : entity.getStates()) {
+            result = result.without(getStateHandle(state));
+        }
+        return result;
+    }
+
+    private static String getStateHandle(final AbstractState state) {
+        if (state instanceof AbstractMultiState multiState) {
+            return multiState.getHandle();
+        }
+        return state.getDescriptorHandle();
+    }
+}
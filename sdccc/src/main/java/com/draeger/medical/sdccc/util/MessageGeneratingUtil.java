@@ -526,7 +526,7 @@ public class MessageGeneratingUtil {
             return messages.getStream()
                     .flatMap(message -> {
                         try {
-                            final var nodes = extractor.extractFrom(message.getBody());
+                            final var nodes = extractor.extractFrom(message);
                             return nodes.stream()
                                     .filter(node -> node.getAttributes().getNamedItem("Lang") == null)
                                     .map(node -> node.getAttributes()
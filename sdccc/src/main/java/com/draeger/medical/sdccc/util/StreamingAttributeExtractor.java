@@ -0,0 +1,181 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.util;
+
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Utility to extract the attributes of elements from messages without unmarshalling them.
+ *
+ * <p>
+ * The message is read using an {@linkplain XMLStreamReader}, only the attributes of each matching element and of its
+ * direct children with a given name are retained. This is considerably cheaper than building the whole model when
+ * only a handful of attributes is needed, e.g. the attributes of each msg:ReportPart of a report.
+ */
+public class StreamingAttributeExtractor {
+    private static final QName XSI_TYPE = new QName(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type");
+
+    private final XMLInputFactory xmlInputFactory;
+    private final QName elementName;
+    @Nullable
+    private final QName childElementName;
+
+    /**
+     * Creates a new {@linkplain StreamingAttributeExtractor}.
+     *
+     * @param xmlInputFactory  factory to create the stream readers with
+     * @param elementName      name of the elements to extract
+     * @param childElementName name of the direct children to extract for each element, null if not needed
+     */
+    public StreamingAttributeExtractor(
+            final XMLInputFactory xmlInputFactory,
+            final QName elementName,
+            @Nullable final QName childElementName) {
+        this.xmlInputFactory = xmlInputFactory;
+        this.elementName = elementName;
+        this.childElementName = childElementName;
+    }
+
+    /**
+     * Extracts all matching elements from the body of a message.
+     *
+     * <p>
+     * The body is streamed from the storage, matching elements nested within another matching element are not
+     * extracted separately.
+     *
+     * @param messageContent message to extract from
+     * @param consumer       which is called for every matching element in document order
+     * @throws XMLStreamException if the message body is not well-formed
+     * @throws IOException        if the message body could not be read
+     */
+    public void extractFrom(final MessageContent messageContent, final Consumer<ExtractedElement> consumer)
+            throws XMLStreamException, IOException {
+        if (messageContent.getBody().isBlank()) {
+            return;
+        }
+
+        try (final InputStream body = messageContent.openBodyStream()) {
+            extract(xmlInputFactory.createXMLStreamReader(body, StandardCharsets.UTF_8.name()), consumer);
+        }
+    }
+
+    /**
+     * Extracts all matching elements from a given string.
+     *
+     * <p>
+     * Matching elements nested within another matching element are not extracted separately.
+     *
+     * @param target   string to extract from
+     * @param consumer which is called for every matching element in document order
+     * @throws XMLStreamException if the string is not well-formed
+     */
+    public void extractFrom(final String target, final Consumer<ExtractedElement> consumer)
+            throws XMLStreamException {
+        if (target.isBlank()) {
+            return;
+        }
+
+        extract(xmlInputFactory.createXMLStreamReader(new StringReader(target)), consumer);
+    }
+
+    private void extract(final XMLStreamReader reader, final Consumer<ExtractedElement> consumer)
+            throws XMLStreamException {
+        try {
+            int depth = 0;
+            int elementDepth = -1;
+            ExtractedElement element = null;
+            List<ExtractedElement> children = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (element == null && elementName.equals(reader.getName())) {
+                        element = readElement(reader);
+                        children = new ArrayList<>();
+                        elementDepth = depth;
+                    } else if (element != null
+                            && depth == elementDepth + 1
+                            && childElementName != null
+                            && childElementName.equals(reader.getName())) {
+                        children.add(readElement(reader));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (element != null && depth == elementDepth) {
+                        consumer.accept(new ExtractedElement(
+                                element.name(), element.attributes(), element.type(), List.copyOf(children)));
+                        element = null;
+                        children = null;
+                        elementDepth = -1;
+                    }
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static ExtractedElement readElement(final XMLStreamReader reader) {
+        final Map<QName, String> attributes = new HashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(reader.getAttributeName(i), reader.getAttributeValue(i));
+        }
+        final Optional<QName> type = resolveType(reader, attributes.get(XSI_TYPE));
+        return new ExtractedElement(reader.getName(), attributes, type, List.of());
+    }
+
+    private static Optional<QName> resolveType(final XMLStreamReader reader, @Nullable final String typeValue) {
+        if (typeValue == null) {
+            return Optional.empty();
+        }
+        final String type = typeValue.strip();
+        final int separator = type.indexOf(':');
+        final String prefix = separator < 0 ? XMLConstants.DEFAULT_NS_PREFIX : type.substring(0, separator);
+        final String namespace = reader.getNamespaceContext().getNamespaceURI(prefix);
+        return Optional.of(new QName(
+                namespace == null ? XMLConstants.NULL_NS_URI : namespace, type.substring(separator + 1), prefix));
+    }
+
+    /**
+     * Attributes of an extracted element.
+     *
+     * @param name       of the element
+     * @param attributes of the element, mapped by attribute name
+     * @param type       resolved value of the xsi:type attribute if present
+     * @param children   extracted direct children of the element in document order
+     */
+    public record ExtractedElement(
+            QName name, Map<QName, String> attributes, Optional<QName> type, List<ExtractedElement> children) {
+
+        /**
+         * Retrieves the value of an attribute.
+         *
+         * @param attributeName name of the attribute
+         * @return the value of the attribute if present
+         */
+        public Optional<String> getAttribute(final QName attributeName) {
+            return Optional.ofNullable(attributes.get(attributeName));
+        }
+    }
+}
@@ -17,6 +17,9 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Utility which is used to register unexpected failures during a test run to mark runs as invalid.
+ *
+ * <p>
+ * All methods are thread-safe, test runs may be invalidated by concurrently executed tests.
  */
 @Singleton
 public class TestRunObserver {
@@ -88,7 +91,7 @@ public class TestRunObserver {
         return new ArrayList<>(reasons);
     }
 
-    public long getTotalNumberOfTestsRun() {
+    public synchronized long getTotalNumberOfTestsRun() {
         return totalNumberOfTestsRun;
     }
 
@@ -96,7 +99,7 @@ public class TestRunObserver {
      * Sets the totalNumberOfTestRuns.
      * @param totalNumberOfTestsRun the new value.
      */
-    public void setTotalNumberOfTestsRun(final long totalNumberOfTestsRun) {
+    public synchronized void setTotalNumberOfTestsRun(final long totalNumberOfTestsRun) {
         this.totalNumberOfTestsRun = totalNumberOfTestsRun;
     }
 }
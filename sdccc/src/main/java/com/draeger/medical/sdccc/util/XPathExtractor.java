@@ -8,6 +8,7 @@ package com.draeger.medical.sdccc.util;
 
 import static com.draeger.medical.sdccc.util.Constants.NAMESPACES;
 
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.io.StringReader;
@@ -37,7 +38,8 @@ import org.xml.sax.SAXParseException;
 public class XPathExtractor {
     private static final Logger LOG = LogManager.getLogger(XPathExtractor.class);
     private final String query;
-    private final XPath xpath;
+    // XPath instances are not thread-safe, extractors like the action extractor of the storage are shared
+    private final ThreadLocal<XPath> xpath;
 
     /**
      * Creates a new {@linkplain XPathExtractor}.
@@ -46,8 +48,11 @@ public class XPathExtractor {
      */
     public XPathExtractor(final String query) {
         this.query = query;
-        this.xpath = XPathFactoryImpl.newInstance().newXPath();
-        this.xpath.setNamespaceContext(NAMESPACES);
+        this.xpath = ThreadLocal.withInitial(() -> {
+            final XPath newXPath = XPathFactoryImpl.newInstance().newXPath();
+            newXPath.setNamespaceContext(NAMESPACES);
+            return newXPath;
+        });
     }
 
     /**
@@ -62,6 +67,21 @@ public class XPathExtractor {
         return extract(target);
     }
 
+    /**
+     * Extract all matching nodes from the body of a stored message.
+     *
+     * <p>
+     * The body is read as characters, sparing the parser from decoding an encoded copy of it.
+     *
+     * @param messageContent message to extract from
+     * @return list of all matching {@linkplain Node}s
+     * @throws XPathExpressionException if the XPath extraction encountered an error,
+     *                                  i.e. when an invalid expression was used
+     */
+    public Collection<Node> extractFrom(final MessageContent messageContent) throws XPathExpressionException {
+        return extract(messageContent.getBody());
+    }
+
     /**
      * Extract all matching nodes from a given node.
      *
@@ -75,7 +95,7 @@ public class XPathExtractor {
     }
 
     private Collection<Node> extract(final Node node) throws XPathExpressionException {
-        final NodeList nl = (NodeList) xpath.compile(query).evaluate(node, XPathConstants.NODESET);
+        final NodeList nl = (NodeList) xpath.get().compile(query).evaluate(node, XPathConstants.NODESET);
         return convert(nl);
     }
 
@@ -83,7 +103,10 @@ public class XPathExtractor {
         if (target.isBlank()) {
             return Collections.emptyList();
         }
+        return extract(new InputSource(new StringReader(target)));
+    }
 
+    private Collection<Node> extract(final InputSource inputSource) throws XPathExpressionException {
         // We need to parse the string first. If we don't, the default string parser in xpath
         // logs errors into stderr, which we really do not want or need
         final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -93,13 +116,13 @@ public class XPathExtractor {
         try {
             builder = factory.newDocumentBuilder();
             builder.setErrorHandler(new ErrorLogger());
-            document = builder.parse(new InputSource(new StringReader(target)));
+            document = builder.parse(inputSource);
         } catch (final ParserConfigurationException | IOException | SAXException e) {
             throw new XPathExpressionException(e);
         }
 
         final NodeList nl =
-                (NodeList) xpath.compile(query).evaluate(document.getDocumentElement(), XPathConstants.NODESET);
+                (NodeList) xpath.get().compile(query).evaluate(document.getDocumentElement(), XPathConstants.NODESET);
         return convert(nl);
     }
 
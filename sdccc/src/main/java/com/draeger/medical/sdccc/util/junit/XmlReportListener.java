@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.xml.stream.XMLStreamException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +30,9 @@ import org.junit.platform.launcher.TestPlan;
 
 /**
  * A {@linkplain TestExecutionListener} which collects information for a JUnit-like XML report.
+ *
+ * <p>
+ * The listener is thread-safe, tests of a test plan may be executed and reported concurrently.
  */
 public class XmlReportListener implements TestExecutionListener {
 
@@ -38,12 +42,12 @@ public class XmlReportListener implements TestExecutionListener {
     private final String xmlReportName;
     private final XmlReportFactory xmlReportFactory;
 
-    private List<ReportData> results;
+    private volatile List<ReportData> results;
 
-    private Map<String, Instant> testStartTime;
-    private Map<String, Instant> testEndTime;
+    private volatile Map<String, Instant> testStartTime;
+    private volatile Map<String, Instant> testEndTime;
 
-    private Map<String, List<ReportEntry>> reportEntries;
+    private volatile Map<String, List<ReportEntry>> reportEntries;
 
     @AssistedInject
     XmlReportListener(
@@ -57,7 +61,7 @@ public class XmlReportListener implements TestExecutionListener {
 
     @Override
     public void testPlanExecutionStarted(final TestPlan testPlan) {
-        results = new ArrayList<>();
+        results = Collections.synchronizedList(new ArrayList<>());
         testStartTime = new ConcurrentHashMap<>();
         testEndTime = new ConcurrentHashMap<>();
         reportEntries = new ConcurrentHashMap<>();
@@ -113,7 +117,12 @@ public class XmlReportListener implements TestExecutionListener {
     }
 
     private void writeXmlReport(final TestIdentifier testIdentifier) {
-        final var writer = xmlReportFactory.createXmlReportWriter(results);
+        final var currentResults = results;
+        final List<ReportData> resultSnapshot;
+        synchronized (currentResults) {
+            resultSnapshot = new ArrayList<>(currentResults);
+        }
+        final var writer = xmlReportFactory.createXmlReportWriter(resultSnapshot);
         try {
             writer.writeXmlReport(reportsDir, xmlReportName, getDurationForUniqueId(testIdentifier.getUniqueId()));
         } catch (final XMLStreamException | IOException e) {
@@ -124,7 +133,7 @@ public class XmlReportListener implements TestExecutionListener {
     @Override
     public void reportingEntryPublished(final TestIdentifier testIdentifier, final ReportEntry entry) {
         final List<ReportEntry> entries =
-                this.reportEntries.computeIfAbsent(testIdentifier.getUniqueId(), key -> new ArrayList<>());
+                this.reportEntries.computeIfAbsent(testIdentifier.getUniqueId(), key -> new CopyOnWriteArrayList<>());
         entries.add(entry);
     }
 
@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -84,6 +85,7 @@ public class GRpcManipulationsTest {
     private static final int TEST_TIMEOUT = 20;
 
     private FallbackManipulations fallback;
+    private ManipulationInfoFactory manipulationInfoFactory;
     private GRpcManipulations manipulations;
     private ContextStub contextHandler;
     private DeviceStub deviceHandler;
@@ -113,7 +115,7 @@ public class GRpcManipulationsTest {
         LOG.info("Server is up at {}", serverAddress);
         fallback = mock(FallbackManipulations.class);
 
-        final ManipulationInfoFactory manipulationInfoFactory = mock(ManipulationInfoFactory.class);
+        manipulationInfoFactory = mock(ManipulationInfoFactory.class);
         final ManipulationInfo manipulationInfo = mock(ManipulationInfo.class);
         when(manipulationInfoFactory.create(anyLong(), anyLong(), any(), anyString(), anyString(), any()))
                 .thenReturn(manipulationInfo);
@@ -533,6 +535,48 @@ public class GRpcManipulationsTest {
         }
     }
 
+    /**
+     * Verifies that the asynchronous setMetricStatus manipulation is performed and stored like the synchronous one.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @Timeout(TEST_TIMEOUT)
+    @TestDescription("Verifies that the asynchronous setMetricStatus manipulation is performed and stored correctly")
+    public void testSetMetricStatusAsync() throws Exception {
+        final String sequenceId = "seq123";
+        final String handle = "metricHandle";
+        final MetricCategory category = MetricCategory.MSRMT;
+        final ComponentActivation activation = ComponentActivation.STND_BY;
+
+        final SettableFuture<MetricRequests.SetMetricStatusRequest> requestFuture = SettableFuture.create();
+        metricHandler.setSetMetricStatusCall((request, responseObserver) -> {
+            requestFuture.set(request);
+            final var reply = BasicResponses.BasicResponse.newBuilder()
+                    .setResult(ResponseTypes.Result.RESULT_SUCCESS)
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+            return null;
+        });
+
+        final ResultResponse response =
+                manipulations.setMetricStatusAsync(sequenceId, handle, category, activation).get();
+        assertSame(
+                ResponseTypes.Result.RESULT_SUCCESS, response.getResult(), "Manipulation failed, but shouldn't have");
+        assertEquals(handle, requestFuture.get().getHandle(), "Metric handle mismatch");
+        // the manipulation must be stored under the name of the synchronous manipulation
+        verify(manipulationInfoFactory)
+                .create(
+                        anyLong(),
+                        anyLong(),
+                        any(),
+                        anyString(),
+                        eq(Constants.MANIPULATION_NAME_SET_METRIC_STATUS),
+                        any());
+        verifyNoInteractions(fallback);
+    }
+
     /**
      * Verifies whether data is correctly transmitted to server and results are sent correctly.
      *
@@ -7,13 +7,21 @@
 package com.draeger.medical.sdccc.manipulation.precondition;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
+import com.draeger.medical.sdccc.messages.DataRequirement;
 import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.util.Constants;
 import com.google.inject.Injector;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,17 +33,23 @@ import org.junit.jupiter.api.Test;
  */
 public class PreconditionRegistryTest {
 
+    private static final long CHECK_THREADS = 2;
+
     private PreconditionRegistry registry;
+    private AtomicInteger flushes;
 
     @BeforeEach
     void setUp() {
         final var mockInjector = mock(Injector.class);
         final var messageStorageMock = mock(MessageStorage.class);
         when(mockInjector.getInstance(MessageStorage.class)).thenReturn(messageStorageMock);
+        flushes = new AtomicInteger(0);
+        doAnswer(invocation -> flushes.incrementAndGet()).when(messageStorageMock).flush();
 
-        registry = new PreconditionRegistry(mockInjector);
+        registry = new PreconditionRegistry(mockInjector, CHECK_THREADS);
 
         PreconditionUtil.MockPrecondition.reset();
+        PreconditionUtil.OtherMockPrecondition.reset();
         PreconditionUtil.MockManipulation.reset();
     }
 
@@ -150,6 +164,153 @@ public class PreconditionRegistryTest {
         assertEquals(1, manipulationWasCalled.get());
     }
 
+    /**
+     * Tests whether fulfilled preconditions are skipped without flushing the collected data.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @DisplayName("Tests whether fulfilled preconditions are skipped without flushing the collected data")
+    public void testFulfilledPreconditionSkipped() throws Exception {
+        final var preconditionWasCalled = new AtomicInteger(0);
+        PreconditionUtil.MockPrecondition.setIsPreconditionMet(injector -> {
+            preconditionWasCalled.incrementAndGet();
+            return true;
+        });
+        final var manipulationWasCalled = new AtomicBoolean(false);
+        PreconditionUtil.MockPrecondition.setManipulationCall(injector -> {
+            manipulationWasCalled.set(true);
+            return true;
+        });
+
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.runPreconditions();
+
+        assertEquals(1, preconditionWasCalled.get());
+        assertFalse(manipulationWasCalled.get());
+        assertEquals(0, flushes.get());
+    }
+
+    /**
+     * Tests whether a precondition check following a manipulation is evaluated again on flushed data.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @DisplayName("Tests whether a precondition check following a manipulation is evaluated again on flushed data")
+    public void testPreconditionCheckedAgainAfterManipulation() throws Exception {
+        final var preconditionWasCalled = new AtomicInteger(0);
+        PreconditionUtil.MockPrecondition.setIsPreconditionMet(injector -> {
+            preconditionWasCalled.incrementAndGet();
+            // only fulfilled by the data caused by the manipulation
+            return flushes.get() > 0;
+        });
+        final var manipulationWasCalled = new AtomicBoolean(false);
+        PreconditionUtil.MockPrecondition.setManipulationCall(injector -> {
+            manipulationWasCalled.set(true);
+            return true;
+        });
+
+        registry.registerManipulationPrecondition(PreconditionUtil.MockManipulation.class);
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.runPreconditions();
+
+        assertEquals(2, preconditionWasCalled.get());
+        assertFalse(manipulationWasCalled.get());
+        assertEquals(1, flushes.get());
+    }
+
+    /**
+     * Tests whether a failed precondition check is not evaluated again if no precondition has been run since.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @DisplayName("Tests whether a failed precondition check is not evaluated again without a precondition run since")
+    public void testFailedPreconditionCheckNotRepeated() throws Exception {
+        final var preconditionWasCalled = new AtomicInteger(0);
+        PreconditionUtil.MockPrecondition.setIsPreconditionMet(injector -> {
+            preconditionWasCalled.incrementAndGet();
+            return false;
+        });
+        final var manipulationWasCalled = new AtomicInteger(0);
+        PreconditionUtil.MockPrecondition.setManipulationCall(injector -> {
+            manipulationWasCalled.incrementAndGet();
+            return true;
+        });
+
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.runPreconditions();
+
+        assertEquals(1, preconditionWasCalled.get());
+        assertEquals(1, manipulationWasCalled.get());
+        // the data caused by the manipulation is flushed for the tests
+        assertEquals(1, flushes.get());
+    }
+
+    /**
+     * Tests whether a failed precondition check is evaluated again on flushed data once an earlier precondition has
+     * been run, so that data received meanwhile prevents its manipulation.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @DisplayName("Tests whether a failed precondition check is evaluated again after an earlier precondition")
+    public void testFailedPreconditionCheckedAgainAfterEarlierPrecondition() throws Exception {
+        PreconditionUtil.MockPrecondition.setIsPreconditionMet(injector -> false);
+        final var manipulationWasCalled = new AtomicBoolean(false);
+        PreconditionUtil.MockPrecondition.setManipulationCall(injector -> true);
+        final var otherPreconditionWasCalled = new AtomicInteger(0);
+        PreconditionUtil.OtherMockPrecondition.setIsPreconditionMet(injector -> {
+            otherPreconditionWasCalled.incrementAndGet();
+            // only fulfilled by the data received while running the first precondition
+            return flushes.get() > 0;
+        });
+        PreconditionUtil.OtherMockPrecondition.setManipulationCall(injector -> {
+            manipulationWasCalled.set(true);
+            return true;
+        });
+
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.registerSimplePrecondition(PreconditionUtil.OtherMockPrecondition.class);
+        registry.runPreconditions();
+
+        assertEquals(2, otherPreconditionWasCalled.get());
+        assertFalse(manipulationWasCalled.get());
+        assertEquals(1, flushes.get());
+    }
+
+    /**
+     * Tests whether the checks of different preconditions are evaluated concurrently.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    @DisplayName("Tests whether the checks of different preconditions are evaluated concurrently")
+    public void testPreconditionChecksConcurrent() throws Exception {
+        final var running = new CountDownLatch(2);
+        final var concurrent = new AtomicInteger(0);
+        final PreconditionFunction<Injector> check = injector -> {
+            running.countDown();
+            try {
+                if (running.await(10, TimeUnit.SECONDS)) {
+                    concurrent.incrementAndGet();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        PreconditionUtil.MockPrecondition.setIsPreconditionMet(check);
+        PreconditionUtil.OtherMockPrecondition.setIsPreconditionMet(check);
+
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.registerSimplePrecondition(PreconditionUtil.OtherMockPrecondition.class);
+        registry.runPreconditions();
+
+        assertEquals(2, concurrent.get());
+    }
+
     /**
      * Tests whether an exception during registration causes a RuntimeException and stops the test run.
      */
@@ -167,4 +328,23 @@ public class PreconditionRegistryTest {
                 () -> registry.registerManipulationPrecondition(PreconditionUtil.MockManipulation.class));
         assertEquals(1, mockInteractionWasCalled.get());
     }
+
+    /**
+     * Tests whether the collectable data of the registered simple preconditions is retrieved once per requirement in
+     * order of registration, skipping preconditions without collectable data.
+     */
+    @Test
+    @DisplayName("Tests whether the collectable data of the registered preconditions is retrieved")
+    public void testCollectableData() {
+        registry.registerSimplePrecondition(ConditionalPreconditions.TriggerEpisodicMetricReportPrecondition.class);
+        registry.registerSimplePrecondition(PreconditionUtil.MockPrecondition.class);
+        registry.registerManipulationPrecondition(PreconditionUtil.MockManipulation.class);
+        registry.registerSimplePrecondition(ConditionalPreconditions.TriggerEpisodicAlertReportPrecondition.class);
+
+        assertEquals(
+                List.of(
+                        new DataRequirement(1, Constants.MSG_EPISODIC_METRIC_REPORT),
+                        new DataRequirement(1, Constants.MSG_EPISODIC_ALERT_REPORT)),
+                registry.getCollectableData());
+    }
 }
@@ -69,6 +69,46 @@ public class PreconditionUtil {
         }
     }
 
+    /**
+     * A second implementation of {@linkplain SimplePrecondition}, which is not equal to {@linkplain MockPrecondition}
+     * and allows adding custom handlers for precondition testing and manipulation calls.
+     */
+    public static class OtherMockPrecondition extends SimplePrecondition {
+
+        private static PreconditionFunction<Injector> isPreconditionMet;
+        private static ManipulationFunction<Injector> manipulationCall;
+
+        OtherMockPrecondition() {
+            super(isPreconditionMet, manipulationCall);
+        }
+
+        /**
+         * Resets the {@linkplain OtherMockPrecondition} to it's initial state.
+         */
+        public static void reset() {
+            setIsPreconditionMet(injector -> true);
+            setManipulationCall(injector -> true);
+        }
+
+        /**
+         * Sets the precondition verification call to a new function.
+         *
+         * @param isPreconditionMet function to call for precondition verification
+         */
+        public static void setIsPreconditionMet(final PreconditionFunction<Injector> isPreconditionMet) {
+            OtherMockPrecondition.isPreconditionMet = isPreconditionMet;
+        }
+
+        /**
+         * Sets the manipulation call to a new function.
+         *
+         * @param manipulationCall function to call for manipulation
+         */
+        public static void setManipulationCall(final ManipulationFunction<Injector> manipulationCall) {
+            OtherMockPrecondition.manipulationCall = manipulationCall;
+        }
+    }
+
     /**
      * An implementation of {@linkplain ManipulationPrecondition} which allows adding custom
      * handlers for manipulation and constructor calls.
@@ -27,6 +27,7 @@ import com.draeger.medical.sdccc.manipulation.Manipulations;
 import com.draeger.medical.sdccc.manipulation.ResultResponse;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.marshalling.MarshallingUtil;
+import com.draeger.medical.sdccc.messages.DataAvailabilityCatalog;
 import com.draeger.medical.sdccc.messages.MessageStorage;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
@@ -227,6 +228,8 @@ public class ConditionalPreconditionsTest {
     @SuppressWarnings("resource")
     public void testHelloMessagePreconditionCheck() throws PreconditionException, IOException {
         final var mockStorage = mock(MessageStorage.class);
+        // an incomplete catalog does not prove the absence of messages, the storage is queried
+        when(mockStorage.getDataAvailabilityCatalog()).thenReturn(mock(DataAvailabilityCatalog.class));
         final var mockMessage = mock(MessageContent.class);
         @SuppressWarnings("unchecked")
         final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
@@ -2190,6 +2193,7 @@ public class ConditionalPreconditionsTest {
     public void testTriggerReportPreconditionCheck() throws IOException, PreconditionException {
         @SuppressWarnings("resource")
         final var mockStorage = mock(MessageStorage.class);
+        when(mockStorage.getDataAvailabilityCatalog()).thenReturn(mock(DataAvailabilityCatalog.class));
         @SuppressWarnings("unchecked")
         final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
         // TriggerEpisodicAlertReportPrecondition
@@ -2488,6 +2492,7 @@ public class ConditionalPreconditionsTest {
     public void testStateChangedPreconditionCheck() throws Exception {
         @SuppressWarnings("resource")
         final var mockStorage = mock(MessageStorage.class);
+        when(mockStorage.getDataAvailabilityCatalog()).thenReturn(mock(DataAvailabilityCatalog.class));
         @SuppressWarnings("unchecked")
         final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
         {
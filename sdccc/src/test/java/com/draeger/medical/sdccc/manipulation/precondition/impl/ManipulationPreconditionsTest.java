@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -59,6 +60,7 @@ import org.somda.sdc.biceps.common.access.MdibAccess;
 import org.somda.sdc.biceps.common.access.MdibAccessObservable;
 import org.somda.sdc.biceps.common.access.MdibAccessObserver;
 import org.somda.sdc.biceps.common.event.ContextStateModificationMessage;
+import org.somda.sdc.biceps.common.event.MetricStateModificationMessage;
 import org.somda.sdc.biceps.model.participant.AbstractAlertState;
 import org.somda.sdc.biceps.model.participant.AbstractDeviceComponentDescriptor;
 import org.somda.sdc.biceps.model.participant.AbstractDeviceComponentState;
@@ -1283,6 +1285,13 @@ public class ManipulationPreconditionsTest {
         when(mockManipulations.setMetricStatus(
                         eq(MdibBuilder.DEFAULT_SEQUENCE_ID), eq(otherMetricHandle), eq(category), eq(endState)))
                 .thenReturn(ResultResponse.success());
+        // the precondition uses the asynchronous variant, which delegates to setMetricStatus
+        when(mockManipulations.setMetricStatusAsync(
+                        any(String.class),
+                        any(String.class),
+                        any(MetricCategory.class),
+                        any(ComponentActivation.class)))
+                .thenCallRealMethod();
     }
 
     // the argument source for the setMetricStatus preconditions
@@ -1457,6 +1466,81 @@ public class ManipulationPreconditionsTest {
 
         verify(mockManipulations)
                 .setMetricStatus(MdibBuilder.DEFAULT_SEQUENCE_ID, METRIC_HANDLE, category, expectedActivation);
+        // no further manipulations are performed once one has failed
+        verify(mockManipulations, never())
+                .setMetricStatus(MdibBuilder.DEFAULT_SEQUENCE_ID, SOME_HANDLE, category, expectedActivation);
+    }
+
+    @Test
+    @DisplayName("The setMetricStatus precondition waits for the time buffer once for all manipulated metrics")
+    void testMetricStatusManipulationWaitsForTimeBufferOnce() {
+        setMetricStatusSetup(MetricCategory.MSRMT, METRIC_HANDLE, SOME_HANDLE, ComponentActivation.ON);
+        final AtomicReference<MdibAccessObserver> observer = setupMetricStatusReports();
+
+        final var start = System.nanoTime();
+        assertTrue(ManipulationPreconditions.MetricStatusManipulationMSRMTActivationStateON.manipulation(injector));
+        final var duration = System.nanoTime() - start;
+
+        // BICEPS_547_TIME_INTERVAL is one second, the activation states must be kept until it has elapsed
+        assertTrue(
+                duration >= TimeUnit.SECONDS.toNanos(1),
+                "The precondition returned after " + duration + "ns, before the time buffer elapsed");
+        assertTrue(
+                duration < TimeUnit.SECONDS.toNanos(2),
+                "The precondition waited " + duration + "ns, the time buffer has been waited for per metric");
+        verify(mockTestClient.getSdcRemoteDevice().getMdibAccessObservable()).unregisterObserver(observer.get());
+    }
+
+    @Test
+    @DisplayName("The setMetricStatus precondition does not change an activation state before its time buffer elapsed")
+    void testMetricStatusManipulationKeepsActivationStateForTimeBuffer() {
+        setMetricStatusSetup(MetricCategory.MSRMT, METRIC_HANDLE, SOME_HANDLE, ComponentActivation.ON);
+        setupMetricStatusReports();
+
+        final var start = System.nanoTime();
+        assertTrue(ManipulationPreconditions.MetricStatusManipulationMSRMTActivationStateON.manipulation(injector));
+        assertTrue(ManipulationPreconditions.MetricStatusManipulationMSRMTActivationStateON.manipulation(injector));
+        final var duration = System.nanoTime() - start;
+
+        // the second manipulation of each metric must not be performed within one second after the first one
+        assertTrue(
+                duration >= TimeUnit.SECONDS.toNanos(1),
+                "The metrics have been manipulated again after " + duration + "ns");
+        verify(mockManipulations, times(2))
+                .setMetricStatus(
+                        MdibBuilder.DEFAULT_SEQUENCE_ID, METRIC_HANDLE, MetricCategory.MSRMT, ComponentActivation.ON);
+    }
+
+    /**
+     * Lets the device report the activation state of every metric as soon as its status has been set.
+     *
+     * @return reference to the observer registered last
+     */
+    private AtomicReference<MdibAccessObserver> setupMetricStatusReports() {
+        final MdibAccessObservable mockMdibAccessObservable = mock(MdibAccessObservable.class);
+        when(mockTestClient.getSdcRemoteDevice().getMdibAccessObservable()).thenReturn(mockMdibAccessObservable);
+        final AtomicReference<MdibAccessObserver> observer = new AtomicReference<>();
+        doAnswer(arguments -> {
+                    observer.set(arguments.getArgument(0));
+                    return null;
+                })
+                .when(mockMdibAccessObservable)
+                .registerObserver(any());
+        doAnswer(arguments -> {
+                    final AbstractMetricState state =
+                            METRIC_HANDLE.equals(arguments.getArgument(1)) ? mockMetricState : mockMetricState2;
+                    final var report =
+                            new MetricStateModificationMessage(mockMdibAccess, Map.of("mds", List.of(state)));
+                    ((ManipulationPreconditions.MetricActivationReportObserver) observer.get()).onUpdate(report);
+                    return ResultResponse.success();
+                })
+                .when(mockManipulations)
+                .setMetricStatus(
+                        any(String.class),
+                        any(String.class),
+                        any(MetricCategory.class),
+                        any(ComponentActivation.class));
+        return observer;
     }
 
     @Test
@@ -6,6 +6,7 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -49,6 +50,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -62,6 +64,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.mockito.internal.verification.VerificationModeFactory;
 import org.somda.sdc.biceps.common.CommonConstants;
+import org.somda.sdc.biceps.model.message.DescriptionModificationType;
 import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.soap.ApplicationInfo;
 import org.somda.sdc.dpws.soap.CommunicationContext;
@@ -115,6 +118,17 @@ public class TestMessageStorage {
                     + "<msg:ReportPart>"
                     + "</msg:ReportPart>"
                     + "</msg:EpisodicAlertReport>";
+    private static final String SEQUENCE_ID_DESCRIPTION_MODIFICATION_BODY_STRING =
+            "<msg:DescriptionModificationReport MdibVersion=\"%s\" SequenceId=\"urn:uuid:%s\">"
+                    + "<msg:ReportPart ModificationType=\"Crt\">"
+                    + "<msg:Descriptor Handle=\"H0\"/>"
+                    + "</msg:ReportPart>"
+                    + "<msg:ReportPart>"
+                    + "<msg:Descriptor Handle=\"H1\"/>"
+                    + "</msg:ReportPart>"
+                    + "<msg:ReportPart ModificationType=\"Upt\">"
+                    + "</msg:ReportPart>"
+                    + "</msg:DescriptionModificationReport>";
     private CommunicationContext messageContext;
     private CommunicationContext insecureMessageContext;
     private CommunicationContext udpMessageContext;
@@ -174,6 +188,213 @@ public class TestMessageStorage {
         }
     }
 
+    /**
+     * Tests whether ingest listeners are notified about stored messages and failing listeners do not prevent
+     * messages from being stored.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     */
+    @Test
+    public void testIngestListener(@TempDir final File dir) throws IOException, CertificateException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, false, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final List<String> ingestedMessages = new CopyOnWriteArrayList<>();
+            messageStorage.addIngestListener(content -> {
+                throw new IllegalStateException("listener failure");
+            });
+            messageStorage.addIngestListener(content -> ingestedMessages.add(content.getUuid()));
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    getCommunicationContext(ArrayListMultimap.create()),
+                    messageStorage)) {
+                message.write(ACTION_ENVELOPE);
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<String> storedMessages =
+                        inboundMessages.getStream().map(MessageContent::getUuid).toList();
+                assertEquals(1, storedMessages.size());
+                assertEquals(storedMessages, ingestedMessages);
+            }
+            verifyNoInteractions(this.testRunObserver);
+        }
+    }
+
+    /**
+     * Tests whether subscriptions receive matching messages without flushing the storage, even though the buffer of
+     * the storage is not full, and no longer receive messages once closed.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     * @throws InterruptedException on interruption while awaiting messages
+     */
+    @Test
+    public void testMessageSubscription(@TempDir final File dir)
+            throws IOException, CertificateException, InterruptedException {
+        final Duration timeout = Duration.ofSeconds(5);
+        try (final MessageStorage messageStorage = new MessageStorage(
+                100, false, false, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final MessageSubscription inbound = messageStorage.subscribe(
+                    content -> content.getDirection() == CommunicationLog.Direction.INBOUND);
+            final MessageSubscription outbound = messageStorage.subscribe(
+                    content -> content.getDirection() == CommunicationLog.Direction.OUTBOUND);
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    getCommunicationContext(ArrayListMultimap.create()),
+                    messageStorage)) {
+                message.write(ACTION_ENVELOPE);
+            }
+
+            final var received = inbound.await(timeout);
+            assertTrue(received.isPresent());
+            assertTrue(received.orElseThrow().getActions().contains("action"));
+            assertTrue(outbound.await(Duration.ZERO).isEmpty());
+
+            inbound.close();
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    getCommunicationContext(ArrayListMultimap.create()),
+                    messageStorage)) {
+                message.write(ACTION_ENVELOPE);
+            }
+
+            assertTrue(outbound.await(content -> content.getActions().contains("action"), timeout)
+                    .isPresent());
+            assertTrue(inbound.await(Duration.ZERO).isEmpty());
+            outbound.close();
+            verifyNoInteractions(this.testRunObserver);
+        }
+    }
+
+    /**
+     * Tests whether the data availability catalog counts the inbound messages per body type and sequence id, the
+     * report parts of description modification reports per modification type and the reports with non-empty parts.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     * @throws InterruptedException on interruption while awaiting counted messages
+     */
+    @Test
+    public void testDataAvailabilityCatalog(@TempDir final File dir)
+            throws IOException, CertificateException, InterruptedException {
+        final String sequenceId = "1";
+        final String otherSequenceId = "2";
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, false, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final var catalog = messageStorage.getDataAvailabilityCatalog();
+            assertTrue(catalog.isComplete());
+            assertEquals(0, catalog.getInboundMessageCount(Constants.MSG_EPISODIC_METRIC_REPORT));
+
+            final List<Pair<CommunicationLog.Direction, String>> messages = List.of(
+                    Pair.of(
+                            CommunicationLog.Direction.INBOUND,
+                            String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", sequenceId)),
+                    Pair.of(
+                            CommunicationLog.Direction.INBOUND,
+                            String.format(SEQUENCE_ID_ALERT_BODY_STRING, "4", sequenceId)),
+                    Pair.of(
+                            CommunicationLog.Direction.INBOUND,
+                            String.format(SEQUENCE_ID_DESCRIPTION_MODIFICATION_BODY_STRING, "1", otherSequenceId)),
+                    // outbound messages are not counted
+                    Pair.of(
+                            CommunicationLog.Direction.OUTBOUND,
+                            String.format(SEQUENCE_ID_METRIC_BODY_STRING, "5", sequenceId)));
+            for (final var directionAndBody : messages) {
+                try (final Message message = new Message(
+                        directionAndBody.getLeft(),
+                        CommunicationLog.MessageType.REQUEST,
+                        getCommunicationContext(ArrayListMultimap.create()),
+                        messageStorage)) {
+                    message.write(String.format(BASE_MESSAGE_STRING, "action", directionAndBody.getRight())
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            messageStorage.flush();
+
+            assertTrue(catalog.isComplete());
+            assertEquals(3, catalog.getCountedInboundMessages());
+            assertTrue(catalog.awaitInboundMessages(2, Duration.ZERO));
+            assertFalse(catalog.awaitInboundMessages(3, Duration.ofMillis(10)));
+            assertEquals(1, catalog.getInboundMessageCount(Constants.MSG_EPISODIC_METRIC_REPORT));
+            assertEquals(
+                    2,
+                    catalog.getInboundMessageCount(
+                            Constants.MSG_EPISODIC_METRIC_REPORT, Constants.MSG_EPISODIC_ALERT_REPORT));
+            assertEquals(1, catalog.getInboundMessageCount(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT));
+            assertEquals(0, catalog.getInboundMessageCount(Constants.MSG_EPISODIC_CONTEXT_REPORT));
+
+            assertEquals(2, catalog.getSequenceMessageCount("urn:uuid:" + sequenceId));
+            assertEquals(1, catalog.getSequenceMessageCount("urn:uuid:" + otherSequenceId));
+            assertEquals(0, catalog.getSequenceMessageCount("urn:uuid:unknown"));
+
+            // the report part of the alert report is empty
+            assertEquals(1, catalog.getReportsWithPartsCount(Constants.MSG_EPISODIC_METRIC_REPORT));
+            assertEquals(0, catalog.getReportsWithPartsCount(Constants.MSG_EPISODIC_ALERT_REPORT));
+            assertEquals(1, catalog.getReportsWithPartsCount(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT));
+
+            // a missing ModificationType is counted as Upt
+            assertEquals(1, catalog.getDescriptionModificationCount(DescriptionModificationType.CRT));
+            assertEquals(2, catalog.getDescriptionModificationCount(DescriptionModificationType.UPT));
+            assertEquals(0, catalog.getDescriptionModificationCount(DescriptionModificationType.DEL));
+            assertEquals(
+                    3,
+                    catalog.getDescriptionModificationCount(
+                            DescriptionModificationType.CRT,
+                            DescriptionModificationType.UPT,
+                            DescriptionModificationType.DEL));
+            verifyNoInteractions(this.testRunObserver);
+        }
+    }
+
+    /**
+     * Tests whether the body length is recorded in bytes and the body stream provides the UTF-8 representation.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     */
+    @Test
+    public void testBodyLengthAndStream(@TempDir final File dir) throws IOException, CertificateException {
+        // characters taking two, three and four bytes in UTF-8
+        final String text = "\u00e4\u20ac\ud83d\ude00";
+        final byte[] envelope = String.format(BASE_MESSAGE_STRING, "action", "<msg:Text>" + text + "</msg:Text>")
+                .getBytes(StandardCharsets.UTF_8);
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, false, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    getCommunicationContext(ArrayListMultimap.create()),
+                    messageStorage)) {
+                message.write(envelope);
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(1, messages.size());
+                final MessageContent messageContent = messages.get(0);
+
+                assertEquals(envelope.length, messageContent.getBodyLength());
+                try (final var body = messageContent.openBodyStream()) {
+                    assertArrayEquals(envelope, body.readAllBytes());
+                }
+            }
+        }
+    }
+
     /**
      * Tests whether an MdibVersion close to causing an overflow of the long field storing MdibVersion
      * is saved as a positive value.
@@ -1383,6 +1604,109 @@ public class TestMessageStorage {
         }
     }
 
+    /**
+     * Tests whether getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion() only retrieves messages of the
+     * sequence which have at least the given MdibVersion, ordered by MdibVersion and body type.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(@TempDir final File dir)
+            throws IOException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+
+            final var alertQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
+            final var metricQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String metric5 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "5", "s1"));
+            final String metric3 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "s1"));
+            final String metric1 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s1"));
+            final String otherSequence = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "4", "s2"));
+            final String alert3 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_ALERT_BODY_STRING, "3", "s1"));
+
+            addMessageWithTimestamp(messageStorage, metric5, 10L);
+            addMessageWithTimestamp(messageStorage, metric3, 20L);
+            addMessageWithTimestamp(messageStorage, metric1, 30L);
+            addMessageWithTimestamp(messageStorage, otherSequence, 40L);
+            addMessageWithTimestamp(messageStorage, alert3, 50L);
+
+            messageStorage.flush();
+
+            try (final var inboundMessages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+                    "urn:uuid:s1", 3, alertQName, metricQName)) {
+                assertTrue(inboundMessages.areObjectsPresent());
+                assertEquals(
+                        List.of(alert3, metric3, metric5),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
+
+            try (final var inboundMessages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMinimumMdibVersion(
+                    "urn:uuid:s2", 5, alertQName, metricQName)) {
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+        }
+    }
+
+    /**
+     * Tests whether the MdibVersion bounds of getInboundMessagesByBodyTypeSequenceIdAndMdibVersionLessThan() and
+     * getInboundMessagesByBodyTypeSequenceIdAndMdibVersionAtLeast() are applied and results are ordered by
+     * MdibVersion and timestamp.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundMessagesByBodyTypeSequenceIdAndMdibVersionBounds(@TempDir final File dir)
+            throws IOException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+
+            final var metricQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String metric1 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s1"));
+            final String metric2 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "2", "s1"));
+            final String otherSequence = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s2"));
+
+            addMessageWithTimestamp(messageStorage, metric2, 40L);
+            addMessageWithTimestamp(messageStorage, metric1, 30L);
+            addMessageWithTimestamp(messageStorage, metric2, 20L);
+            addMessageWithTimestamp(messageStorage, otherSequence, 10L);
+
+            messageStorage.flush();
+
+            try (final var inboundMessages =
+                    messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionLessThan(
+                            "urn:uuid:s1", 2, metricQName)) {
+                assertEquals(
+                        List.of(30L),
+                        inboundMessages.getStream().map(MessageContent::getNanoTimestamp).toList());
+            }
+
+            try (final var inboundMessages = messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionAtLeast(
+                    "urn:uuid:s1", 2, metricQName)) {
+                assertEquals(
+                        List.of(20L, 40L),
+                        inboundMessages.getStream().map(MessageContent::getNanoTimestamp).toList());
+            }
+
+            try (final var inboundMessages =
+                    messageStorage.getInboundMessagesByBodyTypeSequenceIdAndMdibVersionLessThan(
+                            "urn:uuid:s1", 1, metricQName)) {
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+        }
+    }
+
     private void addMessageWithTimestamp(
             final MessageStorage messageStorage, final String messageContent2, final Long timestamp) {
         final var mockMessage1 = mock(Message.class);
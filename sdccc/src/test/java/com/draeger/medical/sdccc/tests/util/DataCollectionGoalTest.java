@@ -0,0 +1,86 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
+import com.draeger.medical.sdccc.messages.DataAvailabilityCatalog;
+import com.draeger.medical.sdccc.messages.DataRequirement;
+import com.draeger.medical.sdccc.util.Constants;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@linkplain DataCollectionGoal}.
+ */
+public class DataCollectionGoalTest {
+
+    private static final DataRequirement METRIC_REPORTS = new DataRequirement(2, Constants.MSG_EPISODIC_METRIC_REPORT);
+    private static final DataRequirement ALERT_REPORT = new DataRequirement(1, Constants.MSG_EPISODIC_ALERT_REPORT);
+    private static final DataRequirement STATE_REPORT =
+            new DataRequirement(1, Constants.MSG_EPISODIC_ALERT_REPORT, Constants.MSG_EPISODIC_COMPONENT_REPORT);
+
+    private PreconditionRegistry preconditionRegistry;
+    private DataAvailabilityCatalog catalog;
+    private DataCollectionGoal goal;
+
+    @BeforeEach
+    void setUp() {
+        preconditionRegistry = mock(PreconditionRegistry.class);
+        catalog = mock(DataAvailabilityCatalog.class);
+        goal = new DataCollectionGoal(preconditionRegistry);
+    }
+
+    /**
+     * Tests whether the goal consists of the distinct required reports and the collectable data of the preconditions.
+     */
+    @Test
+    public void testRequirements() {
+        when(preconditionRegistry.getCollectableData()).thenReturn(List.of(ALERT_REPORT, STATE_REPORT));
+        goal.registerRequiredReports(METRIC_REPORTS);
+        goal.registerRequiredReports(ALERT_REPORT);
+        goal.registerRequiredReports(new DataRequirement(2, Constants.MSG_EPISODIC_METRIC_REPORT));
+
+        assertEquals(List.of(METRIC_REPORTS, ALERT_REPORT, STATE_REPORT), goal.getRequirements());
+    }
+
+    /**
+     * Tests whether only requirements with too few stored messages of any of their body types are missing.
+     */
+    @Test
+    public void testMissingData() {
+        when(preconditionRegistry.getCollectableData()).thenReturn(List.of(ALERT_REPORT, STATE_REPORT));
+        goal.registerRequiredReports(METRIC_REPORTS);
+        when(catalog.getInboundMessageCount(Constants.MSG_EPISODIC_METRIC_REPORT)).thenReturn(1L);
+        when(catalog.getInboundMessageCount(Constants.MSG_EPISODIC_ALERT_REPORT)).thenReturn(0L);
+        when(catalog.getInboundMessageCount(
+                        Constants.MSG_EPISODIC_ALERT_REPORT, Constants.MSG_EPISODIC_COMPONENT_REPORT))
+                .thenReturn(1L);
+
+        assertEquals(List.of(METRIC_REPORTS, ALERT_REPORT), goal.getMissingData(catalog));
+
+        when(catalog.getInboundMessageCount(Constants.MSG_EPISODIC_METRIC_REPORT)).thenReturn(2L);
+        when(catalog.getInboundMessageCount(Constants.MSG_EPISODIC_ALERT_REPORT)).thenReturn(1L);
+
+        assertTrue(goal.getMissingData(catalog).isEmpty());
+    }
+
+    /**
+     * Tests whether requirements without body types or a positive minimum count are rejected.
+     */
+    @Test
+    public void testInvalidRequirement() {
+        assertThrows(IllegalArgumentException.class, () -> new DataRequirement(0, Constants.MSG_EPISODIC_ALERT_REPORT));
+        assertThrows(IllegalArgumentException.class, () -> new DataRequirement(1));
+    }
+}
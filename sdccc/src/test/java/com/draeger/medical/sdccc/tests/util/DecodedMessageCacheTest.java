@@ -0,0 +1,220 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.marshalling.MarshallingUtil;
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
+import com.draeger.medical.sdccc.tests.test_util.InjectorUtil;
+import com.draeger.medical.sdccc.util.MessageBuilder;
+import com.draeger.medical.sdccc.util.MessageStorageUtil;
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import jakarta.xml.bind.JAXBException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
+import org.somda.sdc.biceps.model.message.GetMdibResponse;
+import org.somda.sdc.common.guice.AbstractConfigurationModule;
+import org.somda.sdc.dpws.helper.JaxbMarshalling;
+import org.somda.sdc.dpws.soap.SoapMarshalling;
+import org.somda.sdc.glue.common.ActionConstants;
+
+/**
+ * Unit tests for {@linkplain DecodedMessageCache}.
+ */
+public class DecodedMessageCacheTest {
+
+    private MessageStorageUtil messageStorageUtil;
+    private MessageBuilder messageBuilder;
+    private MessageStorage storage;
+    private SoapMarshalling soapMarshalling;
+    private JaxbMarshalling jaxbMarshalling;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final Injector marshallingInjector = MarshallingUtil.createMarshallingTestInjector(true);
+        messageStorageUtil = marshallingInjector.getInstance(MessageStorageUtil.class);
+        messageBuilder = marshallingInjector.getInstance(MessageBuilder.class);
+
+        final var mockClient = mock(TestClient.class);
+        final Injector storageInjector = InjectorUtil.setupInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(TestClient.class).toInstance(mockClient);
+            }
+        });
+        storage = storageInjector.getInstance(MessageStorage.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+        if (soapMarshalling != null) {
+            soapMarshalling.stopAsync().awaitTerminated();
+            jaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether a message body is only decoded once and the decoded message is shared afterwards.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testMessageIsDecodedOnce() throws Exception {
+        final var cache = createCache(TestClientUtil.createClientInjector());
+        final var messageContent = addMetricReport();
+
+        final var first = cache.getSoapMessage(messageContent);
+        final var second = cache.getSoapMessage(messageContent);
+        assertSame(first, second);
+
+        final var report = cache.getBody(messageContent, EpisodicMetricReport.class);
+        assertTrue(report.isPresent());
+        assertTrue(cache.getBody(messageContent, GetMdibResponse.class).isEmpty());
+
+        assertEquals(1, cache.getStats().missCount());
+        assertEquals(3, cache.getStats().hitCount());
+    }
+
+    /**
+     * Tests whether messages exceeding the configured weight are not retained.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testWeightBound() throws Exception {
+        final var cache = createCache(TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT, Long.class, 1L);
+            }
+        }));
+        final var messageContent = addMetricReport();
+
+        cache.getSoapMessage(messageContent);
+        cache.getSoapMessage(messageContent);
+
+        assertEquals(2, cache.getStats().missCount());
+        assertEquals(0, cache.getStats().hitCount());
+    }
+
+    /**
+     * Tests whether the number of entries is bounded if no weight bound is configured.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testSizeBound() throws Exception {
+        final var cache = createCache(TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT, Long.class, 0L);
+                bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES, Long.class, 0L);
+            }
+        }));
+        final var messageContent = addMetricReport();
+
+        cache.getSoapMessage(messageContent);
+        cache.getSoapMessage(messageContent);
+
+        assertEquals(2, cache.getStats().missCount());
+        assertEquals(0, cache.getStats().hitCount());
+    }
+
+    /**
+     * Tests whether reports are decoded while being ingested and other messages are skipped.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testPreDecode() throws Exception {
+        final var cache = createCache(TestClientUtil.createClientInjector());
+        storage.addIngestListener(cache::preDecode);
+
+        final var getMdibResponse = messageBuilder.buildGetMdibResponse("urn:uuid:sequence");
+        getMdibResponse.setMdibVersion(BigInteger.ONE);
+        addMessage(ActionConstants.getResponseAction(ActionConstants.ACTION_GET_MDIB), getMdibResponse);
+        assertEquals(0, cache.getStats().requestCount());
+
+        final var messageContent = addMetricReport();
+        assertEquals(1, cache.getStats().missCount());
+
+        cache.getSoapMessage(messageContent);
+        assertEquals(1, cache.getStats().missCount());
+        assertEquals(1, cache.getStats().hitCount());
+    }
+
+    /**
+     * Tests whether pre-decoding stops once the pre-decoded reports fill the cache.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testPreDecodeStopsWhenCacheIsFilled() throws Exception {
+        final var cache = createCache(TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_WEIGHT, Long.class, 0L);
+                bind(TestSuiteConfig.DECODED_MESSAGE_CACHE_MAX_ENTRIES, Long.class, 1L);
+            }
+        }));
+        storage.addIngestListener(cache::preDecode);
+
+        addMetricReport();
+        assertEquals(1, cache.getStats().requestCount());
+
+        addMetricReport();
+        assertEquals(1, cache.getStats().requestCount());
+    }
+
+    private DecodedMessageCache createCache(final Injector clientInjector) {
+        soapMarshalling = clientInjector.getInstance(SoapMarshalling.class);
+        soapMarshalling.startAsync().awaitRunning();
+        jaxbMarshalling = clientInjector.getInstance(JaxbMarshalling.class);
+        jaxbMarshalling.startAsync().awaitRunning();
+        return clientInjector.getInstance(DecodedMessageCache.class);
+    }
+
+    private MessageContent addMetricReport() throws IOException, JAXBException {
+        final var report = messageBuilder.buildEpisodicMetricReport("urn:uuid:sequence");
+        report.setMdibVersion(BigInteger.ONE);
+        return addMessage(ActionConstants.ACTION_EPISODIC_METRIC_REPORT, report);
+    }
+
+    private MessageContent addMessage(final String action, final Object body) throws IOException, JAXBException {
+        final Set<String> knownMessages;
+        try (final var messages = storage.getInboundMessages()) {
+            knownMessages = messages.getStream().map(MessageContent::getUuid).collect(Collectors.toSet());
+        }
+
+        messageStorageUtil.addInboundSecureHttpMessage(storage, messageBuilder.createSoapMessageWithBody(action, body));
+
+        try (final var messages = storage.getInboundMessages()) {
+            final List<MessageContent> contents = messages.getStream()
+                    .filter(content -> !knownMessages.contains(content.getUuid()))
+                    .toList();
+            assertEquals(1, contents.size());
+            return contents.get(0);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.model.participant.Mdib;
+
+/**
+ * Unit tests for {@linkplain MdibCheckpointStore}.
+ */
+public class MdibCheckpointStoreTest {
+    private static final String SEQUENCE_ID = "urn:uuid:sequence";
+
+    /**
+     * Tests whether checkpoints are due according to the configured report and time intervals.
+     */
+    @Test
+    void testCheckpointDue() {
+        final var byReports = new MdibCheckpointStore(10, 0);
+        assertFalse(byReports.isCheckpointDue(9, Long.MAX_VALUE));
+        assertTrue(byReports.isCheckpointDue(10, 0));
+
+        final var byTime = new MdibCheckpointStore(0, 5);
+        assertFalse(byTime.isCheckpointDue(1000, TimeUnit.SECONDS.toNanos(4)));
+        assertTrue(byTime.isCheckpointDue(1, TimeUnit.SECONDS.toNanos(5)));
+        assertFalse(byTime.isCheckpointDue(0, TimeUnit.SECONDS.toNanos(5)));
+
+        final var disabled = new MdibCheckpointStore(0, 0);
+        assertFalse(disabled.isCheckpointDue(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests whether the nearest checkpoint is found by mdib version and by timestamp.
+     */
+    @Test
+    void testFindCheckpoints() {
+        final var store = new MdibCheckpointStore(1, 0);
+        final var first = new MdibCheckpointStore.Checkpoint(5, 100, 5, new Mdib());
+        final var second = new MdibCheckpointStore.Checkpoint(10, 200, 10, new Mdib());
+        store.addCheckpoint(SEQUENCE_ID, second);
+        store.addCheckpoint(SEQUENCE_ID, first);
+
+        assertTrue(store.hasCheckpoint(SEQUENCE_ID, 5));
+        assertFalse(store.hasCheckpoint(SEQUENCE_ID, 6));
+        assertFalse(store.hasCheckpoint("urn:uuid:other", 5));
+
+        assertTrue(store.findAtOrBeforeMdibVersion(SEQUENCE_ID, 4).isEmpty());
+        assertEquals(first, store.findAtOrBeforeMdibVersion(SEQUENCE_ID, 5).orElseThrow());
+        assertEquals(first, store.findAtOrBeforeMdibVersion(SEQUENCE_ID, 9).orElseThrow());
+        assertEquals(second, store.findAtOrBeforeMdibVersion(SEQUENCE_ID, 100).orElseThrow());
+
+        assertTrue(store.findBeforeTimestamp(SEQUENCE_ID, 100).isEmpty());
+        assertEquals(first, store.findBeforeTimestamp(SEQUENCE_ID, 101).orElseThrow());
+        assertEquals(first, store.findBeforeTimestamp(SEQUENCE_ID, 200).orElseThrow());
+        assertEquals(second, store.findBeforeTimestamp(SEQUENCE_ID, 201).orElseThrow());
+        assertTrue(store.findBeforeTimestamp("urn:uuid:other", 201).isEmpty());
+
+        // a later checkpoint with the same timestamp replaces the earlier one in the timestamp index
+        final var third = new MdibCheckpointStore.Checkpoint(12, 200, 12, new Mdib());
+        store.addCheckpoint(SEQUENCE_ID, third);
+        assertEquals(third, store.findBeforeTimestamp(SEQUENCE_ID, 201).orElseThrow());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
+import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@linkplain MdibHistorianBicepsInjector}.
+ */
+public class MdibHistorianBicepsInjectorTest {
+    private Injector clientInjector;
+    private MdibHistorianFactory historianFactory;
+
+    @BeforeEach
+    void setUp() {
+        clientInjector = TestClientUtil.createClientInjector();
+        historianFactory = clientInjector.getInstance(MdibHistorianFactory.class);
+    }
+
+    /**
+     * Tests whether all historians of a client injector share one BICEPS injector.
+     */
+    @Test
+    void testInjectorIsShared() {
+        final var first = clientInjector.getInstance(MdibHistorianBicepsInjector.class);
+        historianFactory.createMdibHistorian(mock(MessageStorage.class), mock(TestRunObserver.class));
+        historianFactory.createMdibHistorian(mock(MessageStorage.class), mock(TestRunObserver.class));
+        final var second = clientInjector.getInstance(MdibHistorianBicepsInjector.class);
+
+        assertSame(first, second);
+        assertSame(first.getRemoteMdibAccessFactory(), second.getRemoteMdibAccessFactory());
+
+        final var otherClientInjector = TestClientUtil.createClientInjector();
+        assertNotSame(first, otherClientInjector.getInstance(MdibHistorianBicepsInjector.class));
+    }
+}
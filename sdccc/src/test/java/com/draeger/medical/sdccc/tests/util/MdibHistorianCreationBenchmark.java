@@ -0,0 +1,66 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
+import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Compares the cost of creating a {@linkplain MdibHistorian} with the shared {@linkplain MdibHistorianBicepsInjector}
+ * against bootstrapping the BICEPS injector for every historian, as was done before the injector was shared.
+ *
+ * <p>
+ * Not part of the unit tests, run it using the benchmarkHistorianCreation gradle task.
+ */
+public final class MdibHistorianCreationBenchmark {
+    private static final Logger LOG = LogManager.getLogger(MdibHistorianCreationBenchmark.class);
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private MdibHistorianCreationBenchmark() {}
+
+    /**
+     * Runs the benchmark and logs the average creation time of a historian in both variants.
+     *
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        final var historianFactory = TestClientUtil.createClientInjector().getInstance(MdibHistorianFactory.class);
+        final var storage = mock(MessageStorage.class);
+        final var observer = mock(TestRunObserver.class);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            historianFactory.createMdibHistorian(storage, observer);
+            new MdibHistorianBicepsInjector();
+        }
+
+        final long sharedStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            historianFactory.createMdibHistorian(storage, observer);
+        }
+        final long sharedNanos = System.nanoTime() - sharedStart;
+
+        final long bootstrapStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            historianFactory.createMdibHistorian(storage, observer);
+            new MdibHistorianBicepsInjector();
+        }
+        final long bootstrapNanos = System.nanoTime() - bootstrapStart;
+
+        LOG.info(
+                "Historian creation with shared injector: {} us, with injector bootstrap per historian: {} us",
+                sharedNanos / MEASURED_ITERATIONS / 1000,
+                bootstrapNanos / MEASURED_ITERATIONS / 1000);
+    }
+}
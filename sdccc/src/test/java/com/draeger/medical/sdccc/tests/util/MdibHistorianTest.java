@@ -8,8 +8,12 @@ package com.draeger.medical.sdccc.tests.util;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -28,13 +32,16 @@ import com.draeger.medical.biceps.model.participant.MetricCategory;
 import com.draeger.medical.biceps.model.participant.OperatingMode;
 import com.draeger.medical.biceps.model.participant.PatientContextState;
 import com.draeger.medical.dpws.soap.model.Envelope;
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.marshalling.MarshallingUtil;
 import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.test_util.InjectorUtil;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
+import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.MdibBuilder;
 import com.draeger.medical.sdccc.util.MessageBuilder;
 import com.draeger.medical.sdccc.util.MessageStorageUtil;
@@ -50,21 +57,33 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.common.MdibEntity;
 import org.somda.sdc.biceps.common.storage.PreprocessingException;
 import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.message.AbstractReport;
+import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
 import org.somda.sdc.biceps.model.message.OperationInvokedReport;
 import org.somda.sdc.biceps.model.message.SystemErrorReport;
+import org.somda.sdc.biceps.model.participant.AbstractDescriptor;
+import org.somda.sdc.biceps.model.participant.AbstractMetricState;
+import org.somda.sdc.biceps.model.participant.AlertSystemState;
 import org.somda.sdc.biceps.model.participant.CodedValue;
 import org.somda.sdc.biceps.model.participant.LocalizedText;
 import org.somda.sdc.biceps.model.participant.LocalizedTextWidth;
 import org.somda.sdc.biceps.model.participant.MdibVersion;
+import org.somda.sdc.common.guice.AbstractConfigurationModule;
 import org.somda.sdc.dpws.helper.JaxbMarshalling;
 import org.somda.sdc.dpws.soap.SoapMarshalling;
 import org.somda.sdc.glue.common.ActionConstants;
@@ -782,6 +801,853 @@ public class MdibHistorianTest {
         verify(mockObserver).invalidateTestRun(anyString());
     }
 
+    /**
+     * Tests whether reports are only retrieved for the given sequence and within the given mdib version bounds.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testGetAllReportsMdibVersionBounds() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ZERO));
+        for (long i = 1; i <= 4; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.ONE));
+        }
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport("otherSequence", BigInteger.ONE, BigInteger.ONE));
+
+        final var mockObserver = mock(TestRunObserver.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mockObserver);
+
+        try (final var reports = historian.getAllReportsWithLowerMdibVersion(
+                MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), Constants.MSG_EPISODIC_METRIC_REPORT)) {
+            assertEquals(
+                    List.of(BigInteger.ONE, BigInteger.TWO),
+                    reports.map(ImpliedValueUtil::getReportMdibVersion).toList());
+        }
+        try (final var reports = historian.getAllReports(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO)) {
+            assertEquals(
+                    List.of(BigInteger.valueOf(3), BigInteger.valueOf(4)),
+                    reports.map(ImpliedValueUtil::getReportMdibVersion).toList());
+        }
+        try (final var reports = historian.getAllUniqueReports(MdibBuilder.DEFAULT_SEQUENCE_ID, null)) {
+            assertEquals(4, reports.count());
+        }
+    }
+
+    /**
+     * Tests whether states and histories determined using checkpoints match the replayed history and checkpoints
+     * are written at the configured interval.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testCheckpointedReplay() throws Exception {
+        final Injector checkpointInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.CHECKPOINT_INTERVAL_REPORTS, Long.class, 2L);
+            }
+        });
+        final var checkpointSoapMarshalling = checkpointInjector.getInstance(SoapMarshalling.class);
+        checkpointSoapMarshalling.startAsync().awaitRunning();
+        final var checkpointJaxbMarshalling = checkpointInjector.getInstance(JaxbMarshalling.class);
+        checkpointJaxbMarshalling.startAsync().awaitRunning();
+
+        try {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ZERO));
+            for (long i = 1; i <= 6; i++) {
+                messageStorageUtil.addInboundSecureHttpMessage(
+                        storage,
+                        buildEpisodicMetricReport(
+                                MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.valueOf(i)));
+            }
+
+            final var checkpointStore = checkpointInjector.getInstance(MdibCheckpointStore.class);
+            final var historian = checkpointInjector
+                    .getInstance(MdibHistorianFactory.class)
+                    .createMdibHistorian(storage, mock(TestRunObserver.class));
+
+            final var latest = historian.uniqueStateUntilTimestamp(MdibBuilder.DEFAULT_SEQUENCE_ID, Long.MAX_VALUE);
+            assertTrue(latest.isPresent());
+            assertEquals(BigInteger.valueOf(6), getMetricStateVersion(latest.orElseThrow()));
+
+            // checkpoints are written before the third and fifth report
+            assertTrue(checkpointStore.hasCheckpoint(MdibBuilder.DEFAULT_SEQUENCE_ID, 2));
+            assertTrue(checkpointStore.hasCheckpoint(MdibBuilder.DEFAULT_SEQUENCE_ID, 4));
+            assertFalse(checkpointStore.hasCheckpoint(MdibBuilder.DEFAULT_SEQUENCE_ID, 6));
+
+            final var restored = historian.uniqueStateAtMdibVersion(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TEN);
+            assertEquals(BigInteger.valueOf(6), restored.getMdibVersion().getVersion());
+            assertEquals(BigInteger.valueOf(6), getMetricStateVersion(restored));
+
+            final var atThree =
+                    historian.uniqueStateAtMdibVersion(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3));
+            assertEquals(BigInteger.valueOf(3), atThree.getMdibVersion().getVersion());
+            assertEquals(BigInteger.valueOf(3), getMetricStateVersion(atThree));
+
+            try (final var history = historian.uniqueEpisodicReportBasedHistoryFromMdibVersion(
+                    MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(4))) {
+                for (long i = 4; i <= 6; i++) {
+                    final var mdib = history.next();
+                    assertNotNull(mdib);
+                    assertEquals(BigInteger.valueOf(i), mdib.getMdibVersion().getVersion());
+                    assertEquals(BigInteger.valueOf(i), getMetricStateVersion(mdib));
+                }
+                assertNull(history.next());
+            }
+
+            assertTrue(historian
+                    .uniqueStateUntilTimestamp(MdibBuilder.DEFAULT_SEQUENCE_ID, Long.MIN_VALUE)
+                    .isEmpty());
+        } finally {
+            checkpointSoapMarshalling.stopAsync().awaitTerminated();
+            checkpointJaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether the mdibs determined for multiple timestamps in a single replay match the mdibs determined for
+     * each timestamp separately.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testUniqueStatesUntilTimestamps() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ZERO));
+        for (long i = 1; i <= 4; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(
+                            MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.valueOf(i)));
+        }
+
+        final List<Long> probes = new ArrayList<>(List.of(Long.MAX_VALUE, Long.MIN_VALUE));
+        try (final var messages = storage.getInboundMessagesByBodyType(Constants.MSG_EPISODIC_METRIC_REPORT)) {
+            messages.getStream().map(MessageContent::getNanoTimestamp).forEach(probes::add);
+        }
+        assertEquals(6, probes.size());
+
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+        final List<Long> processed = new ArrayList<>();
+        historian.processUniqueStatesUntilTimestamps(
+                MdibBuilder.DEFAULT_SEQUENCE_ID, probes, timestamp -> timestamp, (timestamp, mdib) -> {
+                    processed.add(timestamp);
+                    try {
+                        final var expected =
+                                historian.uniqueStateUntilTimestamp(MdibBuilder.DEFAULT_SEQUENCE_ID, timestamp);
+                        assertEquals(expected.isPresent(), mdib.isPresent());
+                        if (mdib.isPresent()) {
+                            assertEquals(expected.orElseThrow().getMdibVersion(), mdib.orElseThrow().getMdibVersion());
+                            assertEquals(
+                                    getMetricStateVersion(expected.orElseThrow()),
+                                    getMetricStateVersion(mdib.orElseThrow()));
+                        }
+                    } catch (final PreprocessingException | ReportProcessingException e) {
+                        fail(e);
+                    }
+                });
+
+        // probes are processed in order of their timestamps
+        assertEquals(probes.stream().sorted().toList(), processed);
+    }
+
+    private static BigInteger getMetricStateVersion(final RemoteMdibAccess mdib) {
+        return mdib.getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                .orElseThrow()
+                .getStateVersion();
+    }
+
+    /**
+     * Tests whether consecutive pairs are derived from a single replay, sharing all entities a report did not affect.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testConsecutivePairsShareUnchangedEntities() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicAlertReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TEN, BigInteger.ONE));
+
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+
+        final List<Pair<VersionedMdib, VersionedMdib>> pairs = new ArrayList<>();
+        historian.processAllConsecutivePairsForSequenceId(
+                (previous, current) -> pairs.add(Pair.of(previous, current)), MdibBuilder.DEFAULT_SEQUENCE_ID);
+
+        assertEquals(2, pairs.size());
+        final var initial = pairs.get(0).getLeft();
+        final var afterMetric = pairs.get(0).getRight();
+        final var afterAlert = pairs.get(1).getRight();
+        assertSame(afterMetric, pairs.get(1).getLeft());
+
+        assertEquals(BigInteger.ONE, initial.getMdibVersion().getVersion());
+        assertEquals(BigInteger.TWO, afterMetric.getMdibVersion().getVersion());
+        assertEquals(BigInteger.TEN, afterAlert.getMdibVersion().getVersion());
+
+        // earlier versions are unaffected by later reports
+        assertNull(initial.getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                .orElseThrow()
+                .getStateVersion());
+        assertEquals(
+                BigInteger.ONE,
+                afterAlert
+                        .getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                        .orElseThrow()
+                        .getStateVersion());
+        assertEquals(
+                BigInteger.ONE,
+                afterAlert
+                        .getState(ALERT_SYSTEM_HANDLE, AlertSystemState.class)
+                        .orElseThrow()
+                        .getStateVersion());
+        assertNotEquals(
+                initial.getState(ALERT_SYSTEM_HANDLE).orElseThrow(),
+                afterAlert.getState(ALERT_SYSTEM_HANDLE).orElseThrow());
+
+        // entities not affected by a report are shared between versions
+        assertSame(
+                initial.getEntity(VMD_HANDLE).orElseThrow(),
+                afterAlert.getEntity(VMD_HANDLE).orElseThrow());
+        assertSame(
+                initial.getEntity(ALERT_SYSTEM_HANDLE).orElseThrow(),
+                afterMetric.getEntity(ALERT_SYSTEM_HANDLE).orElseThrow());
+        assertNotSame(
+                initial.getEntity(STRING_METRIC_HANDLE).orElseThrow(),
+                afterMetric.getEntity(STRING_METRIC_HANDLE).orElseThrow());
+        assertEquals(
+                initial.findEntitiesByType(AbstractDescriptor.class).size(),
+                afterAlert.findEntitiesByType(AbstractDescriptor.class).size());
+        assertEquals(
+                List.of(CHANNEL_HANDLE),
+                afterAlert.getChildrenByType(VMD_HANDLE, AbstractDescriptor.class).stream()
+                        .map(MdibEntity::getHandle)
+                        .toList());
+    }
+
+    /**
+     * Tests whether change sets only contain the states changed by their report.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testChangeSets() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        // resending the same state does not change the mdib
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TEN, BigInteger.ONE));
+
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+
+        final List<MdibChangeSet> changeSets = new ArrayList<>();
+        historian.processAllChangeSets(changeSets::add);
+
+        assertEquals(2, changeSets.size());
+        final var metricChanges = changeSets.get(0);
+        assertTrue(metricChanges.entityChanges().isEmpty());
+        assertEquals(1, metricChanges.stateChanges().size());
+        final var stateChange = metricChanges.stateChanges().get(0);
+        assertEquals(STRING_METRIC_HANDLE, stateChange.handle());
+        assertFalse(stateChange.isInserted());
+        assertFalse(stateChange.isDeleted());
+        assertNull(stateChange.getBefore(AbstractMetricState.class).orElseThrow().getStateVersion());
+        assertEquals(
+                BigInteger.ONE,
+                stateChange.getAfter(AbstractMetricState.class).orElseThrow().getStateVersion());
+        assertEquals(List.of(stateChange), metricChanges.getStateChanges(AbstractMetricState.class));
+        assertTrue(metricChanges.getStateChanges(AlertSystemState.class).isEmpty());
+
+        final var resentChanges = changeSets.get(1);
+        assertTrue(resentChanges.isEmpty());
+        assertSame(metricChanges.current(), resentChanges.previous());
+        assertEquals(BigInteger.TEN, resentChanges.current().getMdibVersion().getVersion());
+    }
+
+    /**
+     * Tests whether histories are replayed once and shared between historians while the replay cache is enabled.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testSharedHistoryReplay() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.TWO));
+
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        final List<VersionedMdib> first = new ArrayList<>();
+        final List<VersionedMdib> second = new ArrayList<>();
+        final List<MdibChangeSet> changeSets = new ArrayList<>();
+        replayCache.enable();
+        try {
+            // a failing processor must not prevent reusing the history
+            assertThrows(
+                    AssertionError.class,
+                    () -> historianFactory
+                            .createMdibHistorian(storage, mock(TestRunObserver.class))
+                            .processAllVersions(version -> fail("first version processed")));
+
+            historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class)).processAllVersions(first::add);
+            final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+            historian.processAllVersions(second::add);
+            historian.processAllChangeSets(changeSets::add);
+        } finally {
+            replayCache.disable();
+        }
+
+        assertEquals(
+                List.of(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3)),
+                first.stream().map(version -> version.getMdibVersion().getVersion()).toList());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+        assertEquals(2, changeSets.size());
+        assertSame(first.get(0), changeSets.get(0).previous());
+        assertSame(first.get(2), changeSets.get(1).current());
+
+        // histories are replayed again once the cache is disabled
+        final List<VersionedMdib> third = new ArrayList<>();
+        historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class)).processAllVersions(third::add);
+        assertEquals(first.size(), third.size());
+        assertNotSame(first.get(0), third.get(0));
+        assertEquals(BigInteger.TWO, third.get(2).getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion());
+    }
+
+    /**
+     * Tests whether historians requesting the same history concurrently share a single replay.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testConcurrentSharedHistoryReplay() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        for (long i = 2; i <= 20; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(
+                            MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.valueOf(i)));
+        }
+
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        final int callerCount = 4;
+        final var executor = Executors.newFixedThreadPool(callerCount);
+        final List<Future<VersionedMdib>> initialVersions = new ArrayList<>();
+        replayCache.enable();
+        try {
+            final var start = new CountDownLatch(1);
+            for (int i = 0; i < callerCount; i++) {
+                initialVersions.add(executor.submit(() -> {
+                    final var initial = new AtomicReference<VersionedMdib>();
+                    final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+                    start.await();
+                    historian.processAllVersions(version -> initial.compareAndSet(null, version));
+                    return initial.get();
+                }));
+            }
+            start.countDown();
+            final var first = initialVersions.get(0).get();
+            for (final var initialVersion : initialVersions) {
+                assertSame(first, initialVersion.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            replayCache.disable();
+        }
+    }
+
+    /**
+     * Tests whether new storages are created from the cached initial mdib while the replay cache is enabled.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testCachedInitialMdib() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+        replayCache.enable();
+        try {
+            final var first = historian.createNewStorage(MdibBuilder.DEFAULT_SEQUENCE_ID);
+            final var cachedMdib = replayCache.getInitialMdib(MdibBuilder.DEFAULT_SEQUENCE_ID);
+            assertTrue(cachedMdib.isPresent());
+
+            final var second = historian.createNewStorage(MdibBuilder.DEFAULT_SEQUENCE_ID);
+            assertTrue(replayCache.getStats().contains("2 initial mdibs reused"));
+            assertNotSame(first, second);
+            assertEquals(first.getMdibVersion(), second.getMdibVersion());
+            assertEquals(
+                    first.getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion(),
+                    second.getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion());
+        } finally {
+            replayCache.disable();
+        }
+        assertTrue(replayCache.getInitialMdib(MdibBuilder.DEFAULT_SEQUENCE_ID).isEmpty());
+    }
+
+    /**
+     * Tests whether reported states are indexed by handle and state version and can be looked up by mdib version.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testReportedStateIndex() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(5), BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TEN, BigInteger.TWO));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicAlertReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.ONE));
+
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+        final var index = historian.createReportedStateIndex(
+                MdibBuilder.DEFAULT_SEQUENCE_ID,
+                STRING_METRIC_HANDLE::equals,
+                Constants.MSG_EPISODIC_METRIC_REPORT,
+                Constants.MSG_EPISODIC_ALERT_REPORT);
+
+        assertEquals(4, index.getReportCount());
+        // states of other handles are filtered
+        assertTrue(index.getReportedStates(ALERT_SYSTEM_HANDLE, BigInteger.ONE).isEmpty());
+
+        final var firstVersions = index.getReportedStates(STRING_METRIC_HANDLE, BigInteger.ONE);
+        assertEquals(
+                List.of(BigInteger.TWO, BigInteger.valueOf(5)),
+                firstVersions.stream().map(ReportedStateIndex.ReportedState::mdibVersion).toList());
+        assertEquals(EpisodicMetricReport.class, firstVersions.get(0).reportType());
+        assertEquals(BigInteger.ONE, firstVersions.get(0).stateVersion());
+
+        assertEquals(
+                1, index.findReportedStatesBefore(STRING_METRIC_HANDLE, BigInteger.ONE, BigInteger.valueOf(5)).count());
+        assertEquals(0, index.findReportedStatesBefore(STRING_METRIC_HANDLE, BigInteger.TWO, BigInteger.TEN).count());
+        assertEquals(
+                1,
+                index.findReportedStatesBefore(STRING_METRIC_HANDLE, BigInteger.TWO, BigInteger.valueOf(11))
+                        .count());
+    }
+
+    /**
+     * Tests whether sequences are replayed in parallel if configured and failures are reported in the order of the
+     * sequences.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testParallelSequenceReplay() throws Exception {
+        final Injector parallelInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.SEQUENCE_REPLAY_THREADS, Long.class, 4L);
+            }
+        });
+        final var parallelSoapMarshalling = parallelInjector.getInstance(SoapMarshalling.class);
+        parallelSoapMarshalling.startAsync().awaitRunning();
+        final var parallelJaxbMarshalling = parallelInjector.getInstance(JaxbMarshalling.class);
+        parallelJaxbMarshalling.startAsync().awaitRunning();
+
+        try {
+            for (var sequenceId : List.of("seq-1", "seq-2", "seq-3")) {
+                messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+                messageStorageUtil.addInboundSecureHttpMessage(
+                        storage, buildEpisodicMetricReport(sequenceId, BigInteger.TWO, BigInteger.ONE));
+            }
+
+            final var historian = parallelInjector
+                    .getInstance(MdibHistorianFactory.class)
+                    .createMdibHistorian(storage, mock(TestRunObserver.class));
+            final List<String> sequenceIds;
+            try (final var knownSequenceIds = historian.getKnownSequenceIds()) {
+                sequenceIds = knownSequenceIds.toList();
+            }
+            assertEquals(3, sequenceIds.size());
+
+            final Map<String, List<BigInteger>> processedMdibVersionsBySequence = new ConcurrentHashMap<>();
+            historian.processAllVersions((version, sequenceId) -> processedMdibVersionsBySequence
+                    .computeIfAbsent(sequenceId, id -> new ArrayList<>())
+                    .add(version.getMdibVersion().getVersion()));
+
+            assertEquals(Set.copyOf(sequenceIds), processedMdibVersionsBySequence.keySet());
+            for (var sequenceId : sequenceIds) {
+                assertEquals(
+                        List.of(BigInteger.ONE, BigInteger.TWO), processedMdibVersionsBySequence.get(sequenceId));
+            }
+
+            // the failure of the earliest failing sequence is thrown, the later ones are attached to it
+            final var failure = assertThrows(
+                    AssertionError.class, () -> historian.processAllVersions((version, sequenceId) -> {
+                        if (!sequenceIds.get(0).equals(sequenceId)) {
+                            fail(sequenceId);
+                        }
+                    }));
+            assertEquals(sequenceIds.get(1), failure.getMessage());
+            assertEquals(1, failure.getSuppressed().length);
+            assertEquals(sequenceIds.get(2), failure.getSuppressed()[0].getMessage());
+        } finally {
+            parallelSoapMarshalling.stopAsync().awaitTerminated();
+            parallelJaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether histories replayed with reports decoded ahead match histories decoding reports when applying them.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testDecodeAheadReports() throws Exception {
+        final Injector sequentialInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.DECODE_AHEAD_REPORTS, Boolean.class, false);
+            }
+        });
+        final var sequentialSoapMarshalling = sequentialInjector.getInstance(SoapMarshalling.class);
+        sequentialSoapMarshalling.startAsync().awaitRunning();
+        final var sequentialJaxbMarshalling = sequentialInjector.getInstance(JaxbMarshalling.class);
+        sequentialJaxbMarshalling.startAsync().awaitRunning();
+
+        try {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+            for (long i = 2; i <= 20; i++) {
+                messageStorageUtil.addInboundSecureHttpMessage(
+                        storage,
+                        buildEpisodicMetricReport(
+                                MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.valueOf(i)));
+            }
+
+            final var decodedAhead = getMetricStateVersions(
+                    historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class)));
+            final var sequential = getMetricStateVersions(sequentialInjector
+                    .getInstance(MdibHistorianFactory.class)
+                    .createMdibHistorian(storage, mock(TestRunObserver.class)));
+
+            assertEquals(20, decodedAhead.size());
+            assertEquals(sequential, decodedAhead);
+            assertEquals(BigInteger.valueOf(20), decodedAhead.get(decodedAhead.size() - 1));
+        } finally {
+            sequentialSoapMarshalling.stopAsync().awaitTerminated();
+            sequentialJaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether versions replayed using copy-free mdibs match the versions replayed using copying mdibs.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testCopyFreeReplays() throws Exception {
+        final Injector copyingInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.COPY_FREE_REPLAYS, Boolean.class, false);
+            }
+        });
+        final var copyingSoapMarshalling = copyingInjector.getInstance(SoapMarshalling.class);
+        copyingSoapMarshalling.startAsync().awaitRunning();
+        final var copyingJaxbMarshalling = copyingInjector.getInstance(JaxbMarshalling.class);
+        copyingJaxbMarshalling.startAsync().awaitRunning();
+
+        try {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+            for (long i = 2; i <= 10; i++) {
+                messageStorageUtil.addInboundSecureHttpMessage(
+                        storage,
+                        buildEpisodicMetricReport(
+                                MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(i), BigInteger.valueOf(i)));
+            }
+
+            final List<VersionedMdib> copyFree = new ArrayList<>();
+            historianFactory
+                    .createMdibHistorian(storage, mock(TestRunObserver.class))
+                    .processAllVersions(copyFree::add);
+            final List<VersionedMdib> copying = new ArrayList<>();
+            copyingInjector
+                    .getInstance(MdibHistorianFactory.class)
+                    .createMdibHistorian(storage, mock(TestRunObserver.class))
+                    .processAllVersions(copying::add);
+
+            assertEquals(10, copyFree.size());
+            assertEquals(copying.size(), copyFree.size());
+            for (int i = 0; i < copying.size(); i++) {
+                assertEquals(copying.get(i).getMdibVersion(), copyFree.get(i).getMdibVersion());
+                assertEquals(copying.get(i).computeContentHash(), copyFree.get(i).computeContentHash());
+                assertEquals(
+                        copying.get(i).getState(STRING_METRIC_HANDLE).orElseThrow(),
+                        copyFree.get(i).getState(STRING_METRIC_HANDLE).orElseThrow());
+            }
+        } finally {
+            copyingSoapMarshalling.stopAsync().awaitTerminated();
+            copyingJaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether modifications of replayed versions are detected if verifying their immutability is enabled.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testVerifyReplayImmutability() throws Exception {
+        final Injector verifyingInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.VERIFY_REPLAY_IMMUTABILITY, Boolean.class, true);
+            }
+        });
+        final var verifyingSoapMarshalling = verifyingInjector.getInstance(SoapMarshalling.class);
+        verifyingSoapMarshalling.startAsync().awaitRunning();
+        final var verifyingJaxbMarshalling = verifyingInjector.getInstance(JaxbMarshalling.class);
+        verifyingJaxbMarshalling.startAsync().awaitRunning();
+
+        try {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+            final var verifyingHistorianFactory = verifyingInjector.getInstance(MdibHistorianFactory.class);
+
+            // reading versions is fine
+            final List<VersionedMdib> versions = new ArrayList<>();
+            verifyingHistorianFactory
+                    .createMdibHistorian(storage, mock(TestRunObserver.class))
+                    .processAllVersions(versions::add);
+            assertEquals(2, versions.size());
+
+            final var error = assertThrows(
+                    AssertionError.class,
+                    () -> verifyingHistorianFactory
+                            .createMdibHistorian(storage, mock(TestRunObserver.class))
+                            .processAllVersions(version -> version.getState(STRING_METRIC_HANDLE)
+                                    .orElseThrow()
+                                    .setStateVersion(BigInteger.TEN)));
+            assertTrue(error.getMessage().contains("must be treated as read-only"));
+        } finally {
+            verifyingSoapMarshalling.stopAsync().awaitTerminated();
+            verifyingJaxbMarshalling.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * Tests whether an incremental replay extended while reports are being stored matches a complete replay.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testIncrementalReplay() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+        final var replay = historian.startIncrementalReplay(MdibBuilder.DEFAULT_SEQUENCE_ID);
+        assertEquals(BigInteger.ONE, replay.getInitialMdibVersion());
+
+        // reports of the highest mdib version are held back
+        assertEquals(0, replay.extend(false));
+        assertEquals(BigInteger.ONE, replay.getAppliedMdibVersion());
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.TWO));
+        assertEquals(1, replay.extend(false));
+        assertEquals(BigInteger.TWO, replay.getAppliedMdibVersion());
+        assertTrue(replay.hasPassed(BigInteger.TWO));
+        assertFalse(replay.hasPassed(BigInteger.valueOf(3)));
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(
+                        MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(4), BigInteger.valueOf(3)));
+        assertEquals(2, replay.extend(true));
+        assertEquals(BigInteger.valueOf(4), replay.getAppliedMdibVersion());
+        assertEquals(0, replay.extend(true));
+        assertTrue(replay.isInOrder());
+
+        final var recorded = replay.toHistory();
+        final List<VersionedMdib> replayed = new ArrayList<>();
+        historian.processAllVersions(replayed::add);
+
+        final List<VersionedMdib> incremental = new ArrayList<>();
+        incremental.add(recorded.initial());
+        recorded.changeSets().forEach(changes -> incremental.add(changes.current()));
+        assertEquals(replayed.size(), incremental.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(replayed.get(i).getMdibVersion(), incremental.get(i).getMdibVersion());
+            assertEquals(
+                    replayed.get(i).getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion(),
+                    incremental.get(i).getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion());
+        }
+    }
+
+    /**
+     * Tests whether an incremental replay detects reports of an mdib version it has already applied.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testIncrementalReplayOutOfOrder() throws Exception {
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+
+        final var replay = historianFactory
+                .createMdibHistorian(storage, mock(TestRunObserver.class))
+                .startIncrementalReplay(MdibBuilder.DEFAULT_SEQUENCE_ID);
+        assertEquals(1, replay.extend(true));
+        assertTrue(replay.isInOrder());
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        assertEquals(1, replay.extend(true));
+        assertFalse(replay.isInOrder());
+    }
+
+    /**
+     * Tests whether mdib histories recorded while messages are being collected are shared with the invariant tests.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testOnlineHistoryRecorder() throws Exception {
+        final var recorder = InjectorTestBase.getInjector().getInstance(OnlineHistoryRecorder.class);
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        storage.addIngestListener(recorder::onIngest);
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        recorder.update(storage, historian);
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.TWO));
+        recorder.update(storage, historian);
+
+        final List<VersionedMdib> versions = new ArrayList<>();
+        replayCache.enable();
+        try {
+            recorder.finish(storage, historian);
+            final var history = replayCache.getHistory(MdibBuilder.DEFAULT_SEQUENCE_ID).orElseThrow();
+            historianFactory
+                    .createMdibHistorian(storage, mock(TestRunObserver.class))
+                    .processAllVersions(versions::add);
+            assertSame(history.initial(), versions.get(0));
+        } finally {
+            replayCache.disable();
+        }
+
+        assertEquals(
+                List.of(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3)),
+                versions.stream().map(version -> version.getMdibVersion().getVersion()).toList());
+        assertEquals(BigInteger.TWO, versions.get(2).getState(STRING_METRIC_HANDLE).orElseThrow().getStateVersion());
+    }
+
+    /**
+     * Tests whether the recorded history of a sequence is discarded once a report is stored after its mdib version
+     * has been applied.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testOnlineHistoryRecorderDiscardsOutOfOrderReports() throws Exception {
+        final var recorder = InjectorTestBase.getInjector().getInstance(OnlineHistoryRecorder.class);
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        storage.addIngestListener(recorder::onIngest);
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.TWO));
+        recorder.update(storage, historian);
+        // received out of order, mdib version 2 has already been applied
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        recorder.update(storage, historian);
+
+        replayCache.enable();
+        try {
+            recorder.finish(storage, historian);
+            assertTrue(replayCache.getHistory(MdibBuilder.DEFAULT_SEQUENCE_ID).isEmpty());
+        } finally {
+            replayCache.disable();
+        }
+    }
+
+    /**
+     * Tests whether the recorded history of a sequence is discarded once the recordings exceed the maximum number of
+     * reports.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testOnlineHistoryRecorderDiscardsRecordingsAboveMaximum() throws Exception {
+        final var replayCache = InjectorTestBase.getInjector().getInstance(MdibHistoryReplayCache.class);
+        final var recorder = new OnlineHistoryRecorder(replayCache, 1);
+        storage.addIngestListener(recorder::onIngest);
+        final var historian = historianFactory.createMdibHistorian(storage, mock(TestRunObserver.class));
+
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildMdibEnvelope(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage,
+                buildEpisodicMetricReport(MdibBuilder.DEFAULT_SEQUENCE_ID, BigInteger.valueOf(3), BigInteger.TWO));
+
+        replayCache.enable();
+        try {
+            recorder.finish(storage, historian);
+            assertTrue(replayCache.getHistory(MdibBuilder.DEFAULT_SEQUENCE_ID).isEmpty());
+        } finally {
+            replayCache.disable();
+        }
+    }
+
+    private static List<BigInteger> getMetricStateVersions(final MdibHistorian historian) {
+        final List<BigInteger> stateVersions = new ArrayList<>();
+        try (final var history = historian.episodicReportBasedHistory(MdibBuilder.DEFAULT_SEQUENCE_ID)) {
+            RemoteMdibAccess mdib;
+            while ((mdib = history.next()) != null) {
+                stateVersions.add(getMetricStateVersion(mdib));
+            }
+        } catch (final PreprocessingException | ReportProcessingException e) {
+            fail(e);
+        }
+        return stateVersions;
+    }
+
     /**
      * Tests if Reports are filtered out by uniqueEpisodicReportBasedHistory() when
      * - they have the same MdibVersion.
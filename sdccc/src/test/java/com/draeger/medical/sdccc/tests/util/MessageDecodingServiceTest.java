@@ -0,0 +1,179 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.marshalling.MarshallingUtil;
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
+import com.draeger.medical.sdccc.tests.test_util.InjectorUtil;
+import com.draeger.medical.sdccc.util.MessageBuilder;
+import com.draeger.medical.sdccc.util.MessageStorageUtil;
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import jakarta.xml.bind.JAXBException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.model.message.EpisodicMetricReport;
+import org.somda.sdc.common.guice.AbstractConfigurationModule;
+import org.somda.sdc.dpws.soap.SoapMessage;
+import org.somda.sdc.dpws.soap.SoapUtil;
+import org.somda.sdc.dpws.soap.exception.MarshallingException;
+import org.somda.sdc.glue.common.ActionConstants;
+
+/**
+ * Unit tests for {@linkplain MessageDecodingService}.
+ */
+public class MessageDecodingServiceTest {
+    private static final int MESSAGE_COUNT = 50;
+
+    private MessageStorageUtil messageStorageUtil;
+    private MessageBuilder messageBuilder;
+    private MessageStorage storage;
+    private MessageDecodingService decodingService;
+    private DecodedMessageCache decodedMessageCache;
+    private SoapUtil soapUtil;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final Injector marshallingInjector = MarshallingUtil.createMarshallingTestInjector(true);
+        messageStorageUtil = marshallingInjector.getInstance(MessageStorageUtil.class);
+        messageBuilder = marshallingInjector.getInstance(MessageBuilder.class);
+
+        final var mockClient = mock(TestClient.class);
+        final Injector storageInjector = InjectorUtil.setupInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(TestClient.class).toInstance(mockClient);
+            }
+        });
+        storage = storageInjector.getInstance(MessageStorage.class);
+
+        final Injector clientInjector = TestClientUtil.createClientInjector(new AbstractConfigurationModule() {
+            @Override
+            protected void defaultConfigure() {
+                bind(TestSuiteConfig.DECODING_THREADS, Long.class, 3L);
+            }
+        });
+        decodingService = clientInjector.getInstance(MessageDecodingService.class);
+        decodedMessageCache = clientInjector.getInstance(DecodedMessageCache.class);
+        soapUtil = clientInjector.getInstance(SoapUtil.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    /**
+     * Tests whether decoding many messages in parallel preserves the order of the input.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testDecodeAllPreservesOrder() throws Exception {
+        final var messageContents = storeReports();
+
+        final List<BigInteger> expectedVersions = new ArrayList<>();
+        for (final MessageContent messageContent : messageContents) {
+            expectedVersions.add(getMdibVersion(decodingService.decode(messageContent)));
+        }
+
+        try (final var decoded = decodingService.decodeAll(messageContents.stream())) {
+            final List<MessageDecodingService.DecodedMessage> decodedMessages = decoded.toList();
+            assertEquals(
+                    messageContents,
+                    decodedMessages.stream()
+                            .map(MessageDecodingService.DecodedMessage::messageContent)
+                            .toList());
+            assertEquals(
+                    expectedVersions,
+                    decodedMessages.stream()
+                            .map(message -> getMdibVersion(message.soapMessage()))
+                            .toList());
+        }
+    }
+
+    /**
+     * Tests whether messages decoded ahead through the decoded message cache are returned in order and are
+     * available from the cache afterward.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testDecodeAllThroughCache() throws Exception {
+        final var messageContents = storeReports();
+
+        final List<SoapMessage> decodedMessages;
+        try (final var decoded = decodingService.decodeAll(
+                messageContents.stream(), content -> decodedMessageCache.getSoapMessage(content, decodingService))) {
+            decodedMessages = decoded.toList();
+        }
+
+        assertEquals(MESSAGE_COUNT, decodedMessages.size());
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            assertEquals(BigInteger.valueOf(i + 1L), getMdibVersion(decodedMessages.get(i)));
+            assertSame(decodedMessages.get(i), decodedMessageCache.getSoapMessage(messageContents.get(i)));
+        }
+    }
+
+    /**
+     * Tests whether a message which cannot be decoded causes an exception on the calling thread as well as
+     * when reaching it in a stream.
+     */
+    @Test
+    void testDecodeFailure() {
+        final var invalidMessage = mock(MessageContent.class);
+        when(invalidMessage.getBody()).thenReturn("lolinvalid");
+        when(invalidMessage.getMessageHash()).thenReturn("hash");
+
+        assertThrows(MarshallingException.class, () -> decodingService.decode(invalidMessage));
+
+        try (final var decoded = decodingService.decodeAll(Stream.of(invalidMessage))) {
+            final var exception =
+                    assertThrows(MessageDecodingService.DecodingException.class, () -> decoded.toList());
+            assertInstanceOf(MarshallingException.class, exception.getCause());
+        }
+    }
+
+    private List<MessageContent> storeReports() throws IOException, JAXBException {
+        for (long i = 1; i <= MESSAGE_COUNT; i++) {
+            final var report = messageBuilder.buildEpisodicMetricReport("urn:uuid:sequence");
+            report.setMdibVersion(BigInteger.valueOf(i));
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    messageBuilder.createSoapMessageWithBody(ActionConstants.ACTION_EPISODIC_METRIC_REPORT, report));
+        }
+
+        final List<MessageContent> messageContents;
+        try (final var messages = storage.getInboundMessages()) {
+            messageContents = messages.getStream().toList();
+        }
+        assertEquals(MESSAGE_COUNT, messageContents.size());
+        return messageContents;
+    }
+
+    private BigInteger getMdibVersion(final SoapMessage soapMessage) {
+        return ImpliedValueUtil.getReportMdibVersion(
+                soapUtil.getBody(soapMessage, EpisodicMetricReport.class).orElseThrow());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@linkplain PersistentHandleMap}.
+ */
+public class PersistentHandleMapTest {
+    private static final int HANDLE_COUNT = 5000;
+
+    /**
+     * Tests whether adding and removing entries leaves previous versions of the map untouched.
+     */
+    @Test
+    void testPreviousVersionsAreUnchanged() {
+        final var empty = PersistentHandleMap.<Integer>empty();
+        final var first = empty.with("a", 1).with("b", 2);
+        final var second = first.with("a", 3).without("b").with("c", 4);
+
+        assertEquals(0, empty.size());
+        assertNull(empty.get("a"));
+
+        assertEquals(2, first.size());
+        assertEquals(1, first.get("a"));
+        assertEquals(2, first.get("b"));
+        assertNull(first.get("c"));
+
+        assertEquals(2, second.size());
+        assertEquals(3, second.get("a"));
+        assertNull(second.get("b"));
+        assertEquals(4, second.get("c"));
+
+        assertSame(first, first.without("unknown"));
+        assertSame(first, first.with("a", first.get("a")));
+    }
+
+    /**
+     * Tests whether handles with equal hash codes are stored and removed independently.
+     */
+    @Test
+    void testHashCollisions() {
+        // "Aa" and "BB" as well as their concatenations share the same hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        final var map = PersistentHandleMap.<String>empty()
+                .with("Aa", "first")
+                .with("BB", "second")
+                .with("AaAa", "third")
+                .with("BBBB", "fourth")
+                .with("AaBB", "fifth");
+
+        assertEquals(5, map.size());
+        assertEquals("first", map.get("Aa"));
+        assertEquals("second", map.get("BB"));
+        assertEquals("third", map.get("AaAa"));
+        assertEquals("fourth", map.get("BBBB"));
+        assertEquals("fifth", map.get("AaBB"));
+
+        final var removed = map.without("Aa").without("BBBB");
+        assertEquals(3, removed.size());
+        assertNull(removed.get("Aa"));
+        assertEquals("second", removed.get("BB"));
+        assertNull(removed.get("BBBB"));
+        assertEquals("fifth", removed.get("AaBB"));
+        assertEquals(5, map.size());
+        assertEquals("first", map.get("Aa"));
+    }
+
+    /**
+     * Compares the map against a {@linkplain HashMap} for random modifications.
+     */
+    @Test
+    void testRandomModifications() {
+        final var random = new Random(42);
+        final Map<String, Integer> expected = new HashMap<>();
+        var map = PersistentHandleMap.<Integer>empty();
+
+        for (int i = 0; i < HANDLE_COUNT * 4; i++) {
+            final var handle = "handle" + random.nextInt(HANDLE_COUNT);
+            if (random.nextInt(3) == 0) {
+                expected.remove(handle);
+                map = map.without(handle);
+            } else {
+                expected.put(handle, i);
+                map = map.with(handle, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < HANDLE_COUNT; i++) {
+            final var handle = "handle" + i;
+            assertEquals(expected.get(handle), map.get(handle));
+        }
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+        assertEquals(expected.size(), map.values().size());
+    }
+}
@@ -11,10 +11,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionUtil;
+import com.draeger.medical.sdccc.messages.DataRequirement;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
+import com.draeger.medical.sdccc.tests.annotations.RequireReports;
+import com.draeger.medical.sdccc.util.Constants;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +28,7 @@ import org.junit.platform.engine.discovery.DiscoverySelectors;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
 import org.junit.platform.launcher.core.LauncherFactory;
+import org.somda.sdc.glue.common.WsdlConstants;
 
 /**
  * Unit tests for the {@linkplain PreconditionFilter}.
@@ -50,7 +56,7 @@ public class PreconditionFilterTest {
                 .when(registry)
                 .registerSimplePrecondition(any(Class.class));
 
-        final var filter = new PreconditionFilter(registry);
+        final var filter = new PreconditionFilter(registry, mock(DataCollectionGoal.class));
 
         final var selector = DiscoverySelectors.selectClass(MockTests.class);
         final var testsRequest = LauncherDiscoveryRequestBuilder.request()
@@ -64,6 +70,54 @@ public class PreconditionFilterTest {
         assertEquals(2, registerCalls.get());
     }
 
+    /**
+     * Tests whether filter registers the reports required by all tests marked with {@linkplain RequireReports}.
+     */
+    @Test
+    @DisplayName("Ensure the filter collects all required reports annotations")
+    public void testPreconditionFilterCollectsRequiredReports() {
+        final var goal = mock(DataCollectionGoal.class);
+        final var filter = new PreconditionFilter(mock(PreconditionRegistry.class), goal);
+
+        final var selector = DiscoverySelectors.selectClass(MockTests.class);
+        final var testsRequest = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selector)
+                .filters(filter)
+                .build();
+        final Launcher launcher = LauncherFactory.create();
+        // trigger filter
+        launcher.discover(testsRequest);
+
+        verify(goal).registerRequiredReports(new DataRequirement(2, Constants.MSG_EPISODIC_METRIC_REPORT));
+        verify(goal)
+                .registerRequiredReports(new DataRequirement(
+                        1, Constants.MSG_EPISODIC_CONTEXT_REPORT, Constants.MSG_EPISODIC_COMPONENT_REPORT));
+        verifyNoMoreInteractions(goal);
+    }
+
+    /**
+     * Tests whether filter registers a requirement per report for tests requiring each of their reports.
+     */
+    @Test
+    @DisplayName("Ensure the filter registers each report of required reports annotations requiring all of them")
+    public void testPreconditionFilterCollectsEachRequiredReport() {
+        final var goal = mock(DataCollectionGoal.class);
+        final var filter = new PreconditionFilter(mock(PreconditionRegistry.class), goal);
+
+        final var selector = DiscoverySelectors.selectClass(MockTestsRequiringAllReports.class);
+        final var testsRequest = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selector)
+                .filters(filter)
+                .build();
+        final Launcher launcher = LauncherFactory.create();
+        // trigger filter
+        launcher.discover(testsRequest);
+
+        verify(goal).registerRequiredReports(new DataRequirement(1, Constants.MSG_EPISODIC_ALERT_REPORT));
+        verify(goal).registerRequiredReports(new DataRequirement(1, Constants.MSG_DESCRIPTION_MODIFICATION_REPORT));
+        verifyNoMoreInteractions(goal);
+    }
+
     /**
      * Tests whether {@linkplain RuntimeException}s thrown during filtering are passed to the caller.
      */
@@ -77,7 +131,7 @@ public class PreconditionFilterTest {
                 .when(registry)
                 .registerSimplePrecondition(any(Class.class));
 
-        final var filter = new PreconditionFilter(registry);
+        final var filter = new PreconditionFilter(registry, mock(DataCollectionGoal.class));
 
         final var selector = DiscoverySelectors.selectClass(MockTests.class);
         final var testsRequest = LauncherDiscoveryRequestBuilder.request()
@@ -103,7 +157,31 @@ public class PreconditionFilterTest {
         @RequirePrecondition(simplePreconditions = {PreconditionUtil.MockPrecondition.class})
         void innerTestWithAnotherPrecondition() {}
 
+        @Test
+        @RequireReports(value = WsdlConstants.OPERATION_EPISODIC_METRIC_REPORT, minimumCount = 2)
+        void innerTestWithRequiredReports() {}
+
+        @Test
+        @RequireReports({
+            WsdlConstants.OPERATION_EPISODIC_CONTEXT_REPORT,
+            WsdlConstants.OPERATION_EPISODIC_COMPONENT_REPORT
+        })
+        void innerTestWithAnyRequiredReport() {}
+
         @RequirePrecondition(simplePreconditions = {PreconditionUtil.MockPrecondition.class})
+        @RequireReports(WsdlConstants.OPERATION_EPISODIC_ALERT_REPORT)
         void noTestShouldIgnorePrecondition() {}
     }
+
+    static class MockTestsRequiringAllReports {
+
+        @Test
+        @RequireReports(
+                value = {
+                    WsdlConstants.OPERATION_EPISODIC_ALERT_REPORT,
+                    WsdlConstants.OPERATION_DESCRIPTION_MODIFICATION_REPORT
+                },
+                all = true)
+        void innerTestWithAllRequiredReports() {}
+    }
 }
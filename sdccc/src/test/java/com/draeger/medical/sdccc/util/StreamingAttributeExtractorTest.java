@@ -0,0 +1,80 @@
+/*
+ * This Source Code Form is subject to the terms of the "SDCcc non-commercial use license".
+ *
+ * Copyright (C) 2025 Draegerwerk AG & Co. KGaA
+ */
+
+package com.draeger.medical.sdccc.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@linkplain StreamingAttributeExtractor}.
+ */
+public class StreamingAttributeExtractorTest {
+    private static final String NAMESPACE = "https://www.w3schools.com/furniture";
+    private static final QName TABLE = new QName(NAMESPACE, "table");
+    private static final QName LEG = new QName(NAMESPACE, "leg");
+    private static final QName ID = new QName("id");
+
+    /**
+     * Tests whether an invalid XML input triggers an {@linkplain XMLStreamException}.
+     */
+    @Test
+    @DisplayName("Invalid xml causes exception")
+    void extractFromInvalidMessage() {
+        final var extractor = new StreamingAttributeExtractor(XMLInputFactory.newInstance(), TABLE, null);
+        assertThrows(XMLStreamException.class, () -> extractor.extractFrom("lolinvalid", element -> {}));
+    }
+
+    /**
+     * Tests whether the attributes of matching elements and their direct children are extracted in document order,
+     * including the resolved xsi:type.
+     *
+     * @throws XMLStreamException on any error
+     */
+    @Test
+    @DisplayName("Attributes of elements and their direct children are extracted")
+    void extractAttributes() throws XMLStreamException {
+        final var message = "<f:room xmlns:f=\"" + NAMESPACE + "\" "
+                + "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n"
+                + "  <f:table id=\"t1\" xsi:type=\"f:CoffeeTable\">\n"
+                + "    <f:leg id=\"l1\"/>\n"
+                + "    <f:top><f:leg id=\"nested\"/></f:top>\n"
+                + "    <f:leg id=\"l2\"/>\n"
+                + "  </f:table>\n"
+                + "  <f:table id=\"t2\"/>\n"
+                + "</f:room>";
+
+        final var extractor = new StreamingAttributeExtractor(XMLInputFactory.newInstance(), TABLE, LEG);
+        final List<StreamingAttributeExtractor.ExtractedElement> tables = new ArrayList<>();
+        extractor.extractFrom(message, tables::add);
+
+        assertEquals(2, tables.size());
+
+        final var first = tables.get(0);
+        assertEquals(Optional.of("t1"), first.getAttribute(ID));
+        assertEquals(Optional.of(new QName(NAMESPACE, "CoffeeTable")), first.type());
+        assertEquals(
+                List.of("l1", "l2"),
+                first.children().stream()
+                        .map(leg -> leg.getAttribute(ID).orElseThrow())
+                        .toList());
+
+        final var second = tables.get(1);
+        assertEquals(Optional.of("t2"), second.getAttribute(ID));
+        assertTrue(second.type().isEmpty());
+        assertTrue(second.children().isEmpty());
+    }
+}
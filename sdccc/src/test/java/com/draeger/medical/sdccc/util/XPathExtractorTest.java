@@ -8,7 +8,10 @@ package com.draeger.medical.sdccc.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import javax.xml.xpath.XPathExpressionException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -54,4 +57,29 @@ public class XPathExtractorTest {
         assertEquals(1, result.size());
         assertEquals("80", result.stream().findFirst().orElseThrow().getTextContent());
     }
+
+    /**
+     * Tests whether extraction from stored messages reads the body as characters, regardless of the encoding declared
+     * in the message.
+     *
+     * @throws Exception on any error
+     */
+    @Test
+    @DisplayName("Stored messages are parsed from their body characters")
+    void extractFromMessageContent() throws Exception {
+        final var message = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+                + "<f:table xmlns:f=\"https://www.w3schools.com/furniture\">\n"
+                + "  <f:name>Caf\u00e9 Table</f:name>\n"
+                + "</f:table>";
+        final var messageContent = mock(MessageContent.class);
+        when(messageContent.getBody()).thenReturn(message);
+
+        final var extractor = new XPathExtractor(
+                "//*[local-name()='name' and namespace-uri()='https://www.w3schools.com/furniture']");
+
+        final var result = extractor.extractFrom(messageContent);
+
+        assertEquals(1, result.size());
+        assertEquals("Caf\u00e9 Table", result.stream().findFirst().orElseThrow().getTextContent());
+    }
 }
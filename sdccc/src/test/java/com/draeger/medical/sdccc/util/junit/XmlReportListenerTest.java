@@ -16,13 +16,17 @@ import static org.mockito.Mockito.when;
 
 import com.draeger.medical.sdccc.util.junit.guice.XmlReportFactory;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
 import org.mockito.ArgumentCaptor;
@@ -185,4 +189,71 @@ class XmlReportListenerTest {
                     receivedTest.testExecutionResult().getThrowable().orElseThrow());
         }
     }
+
+    /**
+     * Verifies that tests finishing concurrently are all contained in the report.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testConcurrentExecutions() throws Exception {
+        final var listener = new XmlReportListener(Path.of("nowhere"), "whatever", mockFactory);
+
+        final var mockTestPlan = mock(TestPlan.class);
+        final var mockParent = mock(TestDescriptor.class);
+        when(mockParent.getUniqueId()).thenReturn(UniqueId.parse(UNIQUE_ID_PREFIX + "mockparent]"));
+
+        final int testCount = 200;
+        final List<TestIdentifier> identifiers = new ArrayList<>();
+        for (int i = 0; i < testCount; i++) {
+            identifiers.add(TestIdentifier.from(createMockedTestDescriptor(
+                    UNIQUE_ID_PREFIX + "test" + i + "]",
+                    "test" + i,
+                    null,
+                    Collections.emptySet(),
+                    TestDescriptor.Type.TEST,
+                    mockParent,
+                    "test" + i)));
+        }
+        final var containerIdentifier = TestIdentifier.from(createMockedTestDescriptor(
+                UNIQUE_ID_PREFIX + "efg]",
+                "abc",
+                null,
+                Collections.emptySet(),
+                TestDescriptor.Type.CONTAINER,
+                null,
+                "abc"));
+
+        listener.testPlanExecutionStarted(mockTestPlan);
+        listener.executionStarted(containerIdentifier);
+
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final var identifier : identifiers) {
+                futures.add(executor.submit(() -> {
+                    listener.executionStarted(identifier);
+                    listener.reportingEntryPublished(identifier, ReportEntry.from("key", "value"));
+                    listener.executionFinished(identifier, TestExecutionResult.successful());
+                }));
+            }
+            for (final var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        listener.executionFinished(containerIdentifier, TestExecutionResult.successful());
+        listener.testPlanExecutionFinished(mockTestPlan);
+
+        final var argumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockFactory).createXmlReportWriter(argumentCaptor.capture());
+
+        final List<ReportData> capturedValue = argumentCaptor.getValue();
+        assertEquals(testCount, capturedValue.size());
+        for (final var receivedTest : capturedValue) {
+            assertEquals(1, receivedTest.reportEntries().size());
+        }
+    }
 }